@@ -0,0 +1,88 @@
+-- 主键点查与短码二级索引查询对比基准（MySQL 8.0.18+，需要EXPLAIN ANALYZE）
+-- 使用独立的bench库生成5000万行，id与short_code一一对应（short_code为id的6位62进制编码），
+-- 与shorturl.pk-lookup.enabled=true且使用COUNTER策略时的写入方式一致
+
+CREATE DATABASE IF NOT EXISTS `short_url_bench` DEFAULT CHARACTER SET utf8mb4;
+USE `short_url_bench`;
+
+CREATE TABLE IF NOT EXISTS `url_mapping` LIKE `chy_short_url`.`url_mapping`;
+TRUNCATE TABLE `url_mapping`;
+
+-- 62进制编码函数，与Base62Util一致（0-9a-zA-Z，左侧补'0'）
+DROP FUNCTION IF EXISTS `base62`;
+DELIMITER $$
+CREATE FUNCTION `base62`(n BIGINT, len INT) RETURNS VARCHAR(16) DETERMINISTIC
+BEGIN
+  DECLARE alphabet CHAR(62) DEFAULT '0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ';
+  DECLARE s VARCHAR(16) DEFAULT '';
+  REPEAT
+    SET s = CONCAT(SUBSTRING(alphabet, n % 62 + 1, 1), s);
+    SET n = n DIV 62;
+  UNTIL n = 0 END REPEAT;
+  RETURN LPAD(s, len, '0');
+END$$
+DELIMITER ;
+
+-- 生成5000万行，每批100万行
+SET SESSION cte_max_recursion_depth = 1000000;
+DROP PROCEDURE IF EXISTS `fill_url_mapping`;
+DELIMITER $$
+CREATE PROCEDURE `fill_url_mapping`(total BIGINT)
+BEGIN
+  DECLARE base BIGINT DEFAULT 0;
+  WHILE base < total DO
+    INSERT INTO `url_mapping` (id, original_url, short_code, url_hash, expire_time, access_count, create_time, update_time, is_deleted)
+    WITH RECURSIVE seq(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 1000000)
+    SELECT base + n,
+           CONCAT('https://www.example.com/articles/', base + n, '?utm_source=bench&utm_medium=sql'),
+           base62(base + n, 6), NULL, NULL, 0, NOW(), NOW(), 0
+    FROM seq;
+    SET base = base + 1000000;
+  END WHILE;
+END$$
+DELIMITER ;
+
+CALL fill_url_mapping(50000000);
+ANALYZE TABLE `url_mapping`;
+
+-- 1. 原跳转查询：经idx_short_code二级索引定位后回表读取整行
+EXPLAIN ANALYZE
+SELECT * FROM url_mapping WHERE short_code = base62(37654321, 6) AND is_deleted = 0;
+
+-- 2. 主键点查：由短码还原id，只读取跳转所需的列
+EXPLAIN ANALYZE
+SELECT original_url, expire_time FROM url_mapping WHERE id = 37654321 AND short_code = base62(37654321, 6) AND is_deleted = 0;
+
+-- 随机访问压测：分别执行两种查询各10万次，对比总耗时
+DROP PROCEDURE IF EXISTS `bench_lookup`;
+DELIMITER $$
+CREATE PROCEDURE `bench_lookup`(iterations INT, use_pk TINYINT)
+BEGIN
+  DECLARE i INT DEFAULT 0;
+  DECLARE target BIGINT;
+  DECLARE code VARCHAR(16);
+  DECLARE url VARCHAR(2048);
+  DECLARE expire DATETIME;
+  DECLARE started DATETIME(6) DEFAULT NOW(6);
+  WHILE i < iterations DO
+    SET target = FLOOR(1 + RAND() * 50000000);
+    SET code = base62(target, 6);
+    IF use_pk = 1 THEN
+      SELECT original_url, expire_time INTO url, expire FROM url_mapping
+      WHERE id = target AND short_code = code AND is_deleted = 0;
+    ELSE
+      SELECT original_url, expire_time INTO url, expire FROM url_mapping
+      WHERE short_code = code AND is_deleted = 0;
+    END IF;
+    SET i = i + 1;
+  END WHILE;
+  SELECT IF(use_pk = 1, 'pk', 'short_code') AS lookup, iterations,
+         TIMESTAMPDIFF(MICROSECOND, started, NOW(6)) / iterations AS avg_micros;
+END$$
+DELIMITER ;
+
+-- 先预热缓冲池再正式执行
+CALL bench_lookup(100000, 0);
+CALL bench_lookup(100000, 1);
+CALL bench_lookup(100000, 0);
+CALL bench_lookup(100000, 1);
@@ -8,6 +8,7 @@ CREATE TABLE IF NOT EXISTS `url_mapping` (
   `id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT '主键ID',
   `original_url` varchar(2048) NOT NULL COMMENT '原始URL',
   `short_code` varchar(16) NOT NULL COMMENT '短码',
+  `url_hash` bigint(20) DEFAULT NULL COMMENT '规范化URL的64位哈希',
   `expire_time` datetime DEFAULT NULL COMMENT '过期时间',
   `access_count` bigint(20) NOT NULL DEFAULT '0' COMMENT '访问次数',
   `create_time` datetime NOT NULL COMMENT '创建时间',
@@ -15,6 +16,31 @@ CREATE TABLE IF NOT EXISTS `url_mapping` (
   `is_deleted` tinyint(1) NOT NULL DEFAULT '0' COMMENT '是否删除 0-未删除 1-已删除',
   PRIMARY KEY (`id`),
   UNIQUE KEY `idx_short_code` (`short_code`),
+  KEY `idx_url_hash` (`url_hash`),
   KEY `idx_create_time` (`create_time`),
   KEY `idx_expire_time` (`expire_time`)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='URL映射表'; 
\ No newline at end of file
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='URL映射表'; 
+
+-- 可选：启动预热按访问次数排序取前N行，数据量大时可增加索引避免全表排序
+-- ALTER TABLE `url_mapping` ADD KEY `idx_access_count` (`access_count`);
+
+-- 已有库升级：增加URL哈希列及索引（长链接去重）
+-- ALTER TABLE `url_mapping` ADD COLUMN `url_hash` bigint(20) DEFAULT NULL COMMENT '规范化URL的64位哈希' AFTER `short_code`,
+--   ADD KEY `idx_url_hash` (`url_hash`);
+
+-- 创建号段表（COUNTER/PERMUTED策略的数据库号段来源）
+CREATE TABLE IF NOT EXISTS `id_segment` (
+  `biz_tag` varchar(64) NOT NULL COMMENT '业务标识',
+  `max_id` bigint(20) NOT NULL DEFAULT '0' COMMENT '已分配的最大ID',
+  `update_time` datetime NOT NULL COMMENT '更新时间',
+  PRIMARY KEY (`biz_tag`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='号段表';
+
+-- 创建URL前缀字典表（Redis和本地缓存中的URL前缀压缩），只追加不修改
+CREATE TABLE IF NOT EXISTS `url_prefix_dict` (
+  `id` int(11) NOT NULL AUTO_INCREMENT COMMENT '字典ID',
+  `prefix` varchar(512) NOT NULL COMMENT '协议+域名+路径前缀',
+  `create_time` datetime NOT NULL COMMENT '创建时间',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `idx_prefix` (`prefix`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='URL前缀字典表';
@@ -0,0 +1,88 @@
+#!/usr/bin/env bash
+#
+# Redis存储布局内存对比：STRING（每个短码一个键） vs BUCKET（按短码哈希分桶的哈希键）
+# 用redis-cli --pipe分别写入N条模拟映射，比较used_memory增量。
+# 会清空指定的数据库，请在测试实例上运行。
+#
+# 用法: ./bucket-memory-benchmark.sh [条目数] [桶数] [URL长度]
+# 示例: REDIS_HOST=127.0.0.1 REDIS_PORT=6379 REDIS_DB=15 ./bucket-memory-benchmark.sh 1000000 10000 60
+#
+# @author Henry.Yu
+# @date 2026/10/16
+
+set -euo pipefail
+
+N=${1:-1000000}
+BUCKETS=${2:-$((N / 64))}
+URL_LEN=${3:-60}
+HOST=${REDIS_HOST:-127.0.0.1}
+PORT=${REDIS_PORT:-6379}
+DB=${REDIS_DB:-15}
+TTL_MILLIS=86400000
+
+cli() {
+    redis-cli -h "$HOST" -p "$PORT" -n "$DB" "$@"
+}
+
+used_memory() {
+    cli INFO memory | awk -F: '/^used_memory:/ {gsub("\r", "", $2); print $2}'
+}
+
+# 每桶条目数约为N/BUCKETS，listpack阈值需覆盖每桶条目数和字段值长度（截止时间|过期时间|URL）
+ENTRIES_PER_BUCKET=$(( (N + BUCKETS - 1) / BUCKETS ))
+cli CONFIG SET hash-max-listpack-entries $(( ENTRIES_PER_BUCKET * 2 > 128 ? ENTRIES_PER_BUCKET * 2 : 128 )) > /dev/null
+cli CONFIG SET hash-max-listpack-value $(( URL_LEN + 40 > 64 ? URL_LEN + 40 : 64 )) > /dev/null
+
+# 生成RESP协议的写入命令，短码为7位Base62，URL为固定前缀加填充
+generate() {
+    local layout=$1
+    awk -v n="$N" -v buckets="$BUCKETS" -v url_len="$URL_LEN" -v ttl="$TTL_MILLIS" -v layout="$layout" '
+    function resp(argc, a1, a2, a3, a4, a5) {
+        printf "*%d\r\n", argc
+        printf "$%d\r\n%s\r\n", length(a1), a1
+        printf "$%d\r\n%s\r\n", length(a2), a2
+        if (argc > 2) printf "$%d\r\n%s\r\n", length(a3), a3
+        if (argc > 3) printf "$%d\r\n%s\r\n", length(a4), a4
+        if (argc > 4) printf "$%d\r\n%s\r\n", length(a5), a5
+    }
+    BEGIN {
+        alphabet = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ"
+        prefix = "https://www.example.com/promo/"
+        pad = prefix
+        while (length(pad) < url_len) pad = pad "x"
+        srand(42)
+        deadline = "1900000000000"
+        for (i = 0; i < n; i++) {
+            code = ""
+            for (j = 0; j < 7; j++) code = code substr(alphabet, int(rand() * 62) + 1, 1)
+            url = substr(pad, 1, url_len - length(i)) i
+            if (layout == "STRING") {
+                resp(5, "SET", "shorturl:" code, "0|" url, "PX", ttl)
+            } else {
+                bucket = "shorturl:b:" (i % buckets)
+                resp(4, "HSET", bucket, code, deadline "|0|" url)
+            }
+        }
+        if (layout == "BUCKET") {
+            for (b = 0; b < buckets; b++) resp(3, "PEXPIRE", "shorturl:b:" b, ttl)
+        }
+    }'
+}
+
+run() {
+    local layout=$1
+    cli FLUSHDB > /dev/null
+    local before
+    before=$(used_memory)
+    generate "$layout" | cli --pipe > /dev/null
+    local after
+    after=$(used_memory)
+    local delta=$(( after - before ))
+    printf "%-7s 条目数: %d, 内存增量: %d 字节, 每条: %.1f 字节\n" "$layout" "$N" "$delta" "$(echo "$delta / $N" | bc -l)"
+}
+
+echo "Redis: $HOST:$PORT/$DB, 条目数: $N, 桶数: $BUCKETS, URL长度: $URL_LEN"
+run STRING
+run BUCKET
+echo "桶编码抽样: $(cli OBJECT ENCODING shorturl:b:0)"
+cli FLUSHDB > /dev/null
@@ -0,0 +1,293 @@
+package com.chy.shorturl.cache;
+
+import com.chy.shorturl.entity.UrlMapping;
+import com.chy.shorturl.mapper.UrlMappingMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 缓存未命中的跨请求批量加载器
+ * 在一个很短的时间窗口内收集不同短码的加载请求（或收集满指定数量），
+ * 合并为一次Redis MGET和一次数据库IN查询，再将结果分发给各个等待的请求。
+ * 调用方最多等待load-timeout-millis；加载器停止或收集线程异常退出时，未分发的请求立即以异常结束
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+@Component
+public class BatchUrlLoader {
+
+    private final ShortUrlRedisCache shortUrlRedisCache;
+    private final ShortCodeBloomFilter shortCodeBloomFilter;
+    private final UrlMappingMapper urlMappingMapper;
+    private final ThreadPoolTaskExecutor dispatchExecutor;
+
+    /**
+     * 待加载请求队列
+     */
+    private final LinkedBlockingQueue<PendingLoad> queue = new LinkedBlockingQueue<>();
+
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder keyCount = new LongAdder();
+    private final LongAdder dbQueryCount = new LongAdder();
+
+    @Value("${shorturl.batch-loader.enabled:false}")
+    private boolean enabled;
+
+    @Value("${shorturl.batch-loader.window-micros:1000}")
+    private long windowMicros;
+
+    @Value("${shorturl.batch-loader.max-batch-size:128}")
+    private int maxBatchSize;
+
+    @Value("${shorturl.batch-loader.load-timeout-millis:3000}")
+    private long loadTimeoutMillis;
+
+    private volatile boolean running;
+    private Thread collectorThread;
+
+    public BatchUrlLoader(ShortUrlRedisCache shortUrlRedisCache,
+                          ShortCodeBloomFilter shortCodeBloomFilter,
+                          UrlMappingMapper urlMappingMapper,
+                          @Qualifier("batchLoaderExecutor") ThreadPoolTaskExecutor dispatchExecutor) {
+        this.shortUrlRedisCache = shortUrlRedisCache;
+        this.shortCodeBloomFilter = shortCodeBloomFilter;
+        this.urlMappingMapper = urlMappingMapper;
+        this.dispatchExecutor = dispatchExecutor;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        collectorThread = new Thread(this::collectLoop);
+        collectorThread.setName("batch-url-loader");
+        collectorThread.setDaemon(true);
+        collectorThread.start();
+        log.info("启动批量加载器, 时间窗口: {}微秒, 最大批量: {}", windowMicros, maxBatchSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (collectorThread != null) {
+            collectorThread.interrupt();
+        }
+        failQueued(new IllegalStateException("批量加载器已停止"));
+    }
+
+    /**
+     * 是否启用批量加载
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 加载短链接，阻塞直到所在批次完成
+     *
+     * @param shortCode 短码
+     * @return 缓存值（可能已过期），不存在返回null
+     * @throws IllegalStateException 加载器未运行、已停止或等待超时
+     */
+    public CachedUrl load(String shortCode) {
+        if (!running) {
+            throw new IllegalStateException("批量加载器未运行");
+        }
+        PendingLoad pending = new PendingLoad(shortCode);
+        queue.offer(pending);
+        // 入队与stop并发时，stop可能已清理过队列，由调用方自行撤回
+        if (!running && queue.remove(pending)) {
+            throw new IllegalStateException("批量加载器已停止");
+        }
+        try {
+            return pending.future.get(loadTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            queue.remove(pending);
+            throw new IllegalStateException("批量加载超时: " + loadTimeoutMillis + "ms, 短码: " + shortCode);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queue.remove(pending);
+            throw new IllegalStateException("等待批量加载时被中断, 短码: " + shortCode, e);
+        }
+    }
+
+    /**
+     * 获取统计信息
+     */
+    public BatchLoaderStats getStats() {
+        BatchLoaderStats stats = new BatchLoaderStats();
+        long batches = batchCount.sum();
+        long keys = keyCount.sum();
+        stats.setEnabled(enabled);
+        stats.setBatchCount(batches);
+        stats.setKeyCount(keys);
+        stats.setDbQueryCount(dbQueryCount.sum());
+        stats.setAverageBatchSize(batches == 0 ? 0 : (double) keys / batches);
+        stats.setQueueSize(queue.size());
+        return stats;
+    }
+
+    /**
+     * 收集循环：取到第一个请求后开始计时，窗口结束或达到最大批量时提交批次
+     */
+    private void collectLoop() {
+        try {
+            while (running) {
+                if (!collectAndDispatch()) {
+                    break;
+                }
+            }
+        } finally {
+            // 无论正常停止还是因Error退出，都不能让调用方等待一个不会再被分发的请求
+            running = false;
+            failQueued(new IllegalStateException("批量加载收集线程已退出"));
+        }
+    }
+
+    /**
+     * 收集一个批次并提交执行，批次中未完成的请求在异常时以异常结束
+     *
+     * @return 收集线程是否应继续运行
+     */
+    private boolean collectAndDispatch() {
+        List<PendingLoad> batch = new ArrayList<>(maxBatchSize);
+        try {
+            batch.add(queue.take());
+            long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(windowMicros);
+            while (batch.size() < maxBatchSize) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                PendingLoad next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    break;
+                }
+                batch.add(next);
+            }
+            dispatchExecutor.execute(() -> dispatch(batch));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failAll(batch, new IllegalStateException("批量加载器已停止"));
+            return false;
+        } catch (Exception e) {
+            log.error("批量加载器收集请求异常: {}", e.getMessage(), e);
+            failAll(batch, e);
+            return true;
+        } catch (Error e) {
+            log.error("批量加载收集线程异常退出: {}", e.getMessage(), e);
+            failAll(batch, e);
+            throw e;
+        }
+    }
+
+    /**
+     * 以异常结束批次中尚未完成的请求
+     */
+    private void failAll(List<PendingLoad> batch, Throwable cause) {
+        for (PendingLoad pending : batch) {
+            pending.future.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * 以异常结束队列中剩余的请求
+     */
+    private void failQueued(Throwable cause) {
+        PendingLoad pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * 执行一个批次：MGET查询Redis，未命中且可能存在的短码再用一次IN查询数据库，并回填Redis
+     */
+    private void dispatch(List<PendingLoad> batch) {
+        Map<String, List<PendingLoad>> byCode = new HashMap<>(batch.size() * 2);
+        for (PendingLoad pending : batch) {
+            byCode.computeIfAbsent(pending.shortCode, k -> new ArrayList<>(1)).add(pending);
+        }
+        batchCount.increment();
+        keyCount.add(byCode.size());
+
+        try {
+            Map<String, CachedUrl> result = shortUrlRedisCache.multiGet(byCode.keySet());
+
+            List<String> dbCodes = new ArrayList<>();
+            for (String shortCode : byCode.keySet()) {
+                if (!result.containsKey(shortCode) && shortCodeBloomFilter.mightContain(shortCode)) {
+                    dbCodes.add(shortCode);
+                }
+            }
+
+            if (!dbCodes.isEmpty()) {
+                dbQueryCount.increment();
+                Map<String, CachedUrl> loaded = new HashMap<>(dbCodes.size() * 2);
+                for (UrlMapping urlMapping : urlMappingMapper.findByShortCodes(dbCodes)) {
+                    loaded.put(urlMapping.getShortCode(), CachedUrl.of(urlMapping));
+                }
+                shortUrlRedisCache.putAll(loaded);
+                result.putAll(loaded);
+            }
+
+            byCode.forEach((shortCode, pendings) -> {
+                CachedUrl cachedUrl = result.get(shortCode);
+                pendings.forEach(pending -> pending.future.complete(cachedUrl));
+            });
+        } catch (Exception e) {
+            log.error("批量加载短链接失败, 批量大小: {}, 异常信息: {}", byCode.size(), e.getMessage(), e);
+            batch.forEach(pending -> pending.future.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * 待加载请求
+     */
+    private static class PendingLoad {
+        private final String shortCode;
+        private final CompletableFuture<CachedUrl> future = new CompletableFuture<>();
+
+        PendingLoad(String shortCode) {
+            this.shortCode = shortCode;
+        }
+    }
+
+    /**
+     * 批量加载统计
+     */
+    @Data
+    public static class BatchLoaderStats {
+        private boolean enabled;
+        private long batchCount;
+        private long keyCount;
+        private long dbQueryCount;
+        private double averageBatchSize;
+        private int queueSize;
+    }
+}
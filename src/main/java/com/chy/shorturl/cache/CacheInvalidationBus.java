@@ -0,0 +1,297 @@
+package com.chy.shorturl.cache;
+
+import com.chy.shorturl.cache.tiered.TieredCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.StatusListener;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 跨节点本地缓存失效总线
+ * 链接修改或删除后，写入节点先清除本节点的各级缓存，再通过Redis发布/订阅通知其他节点清除本地缓存和本地层（堆外缓存、紧凑存储）。
+ * 发布端在很短的时间窗口内合并多个短码为一条消息，消息格式为"节点ID|短码1,短码2,..."；
+ * 各节点定时发布只有节点ID的心跳消息，超时未收到自己的心跳或订阅重建时，说明可能错过了失效通知，清空本地缓存；
+ * 订阅中断期间每次检查都会清空一次，本地缓存中的数据最多滞后一个检查周期
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+@Component
+public class CacheInvalidationBus {
+
+    private static final char SEPARATOR = '|';
+    private static final String DELIMITER = ",";
+
+    private final RedissonClient redissonClient;
+    private final TieredCache shortUrlTieredCache;
+    private final Cache<String, Boolean> shortUrlNegativeCache;
+
+    /**
+     * 本节点ID，用于忽略自己发布的失效消息
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * 待发布的短码
+     */
+    private final LinkedBlockingQueue<String> queue = new LinkedBlockingQueue<>();
+
+    private final LongAdder publishedMessages = new LongAdder();
+    private final LongAdder publishedKeys = new LongAdder();
+    private final LongAdder publishFailures = new LongAdder();
+    private final LongAdder receivedMessages = new LongAdder();
+    private final LongAdder receivedKeys = new LongAdder();
+    private final LongAdder fullFlushes = new LongAdder();
+
+    @Value("${shorturl.cache.invalidation.enabled:false}")
+    private boolean enabled;
+
+    @Value("${shorturl.cache.invalidation.topic:shorturl:invalidation}")
+    private String topicName;
+
+    @Value("${shorturl.cache.invalidation.window-millis:5}")
+    private long windowMillis;
+
+    @Value("${shorturl.cache.invalidation.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Value("${shorturl.cache.invalidation.heartbeat-timeout-millis:3000}")
+    private long heartbeatTimeoutMillis;
+
+    private RTopic topic;
+    private int messageListenerId;
+    private int statusListenerId;
+    private final AtomicBoolean subscribedOnce = new AtomicBoolean();
+
+    private volatile boolean running;
+    private volatile boolean degraded;
+    private volatile long lastHeartbeatMillis;
+    private Thread publisherThread;
+
+    public CacheInvalidationBus(RedissonClient redissonClient,
+                                TieredCache shortUrlTieredCache,
+                                Cache<String, Boolean> shortUrlNegativeCache) {
+        this.redissonClient = redissonClient;
+        this.shortUrlTieredCache = shortUrlTieredCache;
+        this.shortUrlNegativeCache = shortUrlNegativeCache;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        topic = redissonClient.getTopic(topicName, StringCodec.INSTANCE);
+        statusListenerId = topic.addListener(new StatusListener() {
+            @Override
+            public void onSubscribe(String channel) {
+                // 首次订阅之后的订阅均为断线重连，期间的失效消息已丢失
+                if (!subscribedOnce.compareAndSet(false, true)) {
+                    flushAll("订阅已重建");
+                }
+            }
+
+            @Override
+            public void onUnsubscribe(String channel) {
+                if (running) {
+                    flushAll("订阅已断开");
+                }
+            }
+        });
+        messageListenerId = topic.addListener(String.class, (channel, message) -> onMessage(message));
+        lastHeartbeatMillis = System.currentTimeMillis();
+        running = true;
+        publisherThread = new Thread(this::publishLoop);
+        publisherThread.setName("cache-invalidation-publisher");
+        publisherThread.setDaemon(true);
+        publisherThread.start();
+        log.info("启动缓存失效总线, 频道: {}, 节点ID: {}, 时间窗口: {}毫秒, 最大批量: {}",
+                topicName, nodeId, windowMillis, maxBatchSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (publisherThread != null) {
+            publisherThread.interrupt();
+        }
+        if (topic != null) {
+            topic.removeListener(messageListenerId, statusListenerId);
+        }
+    }
+
+    /**
+     * 是否启用
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 通知其他节点清除短码的本地缓存，调用方需自行清除本节点的缓存
+     *
+     * @param shortCode 短码
+     */
+    public void publish(String shortCode) {
+        if (running) {
+            queue.offer(shortCode);
+        }
+    }
+
+    /**
+     * 发布心跳并检查订阅是否正常，由定时任务调用
+     * 超过心跳超时未收到自己的消息时视为订阅中断，每次检查都清空本地缓存，直到重新收到心跳
+     */
+    public void heartbeat() {
+        if (!running) {
+            return;
+        }
+        try {
+            topic.publish(nodeId + SEPARATOR);
+        } catch (Exception e) {
+            log.warn("发布缓存失效心跳失败: {}", e.getMessage());
+        }
+        if (System.currentTimeMillis() - lastHeartbeatMillis > heartbeatTimeoutMillis) {
+            if (!degraded) {
+                degraded = true;
+                log.warn("超过{}毫秒未收到缓存失效心跳, 订阅可能已中断", heartbeatTimeoutMillis);
+            }
+            flushAll("心跳超时");
+        }
+    }
+
+    /**
+     * 获取统计信息
+     */
+    public InvalidationStats getStats() {
+        InvalidationStats stats = new InvalidationStats();
+        stats.setEnabled(enabled);
+        stats.setNodeId(nodeId);
+        stats.setDegraded(degraded);
+        stats.setQueueSize(queue.size());
+        stats.setPublishedMessages(publishedMessages.sum());
+        stats.setPublishedKeys(publishedKeys.sum());
+        stats.setPublishFailures(publishFailures.sum());
+        stats.setReceivedMessages(receivedMessages.sum());
+        stats.setReceivedKeys(receivedKeys.sum());
+        stats.setFullFlushes(fullFlushes.sum());
+        stats.setLastHeartbeatMillis(lastHeartbeatMillis);
+        return stats;
+    }
+
+    /**
+     * 处理收到的消息
+     */
+    void onMessage(String message) {
+        int separatorIndex = message.indexOf(SEPARATOR);
+        if (separatorIndex < 0) {
+            return;
+        }
+        if (separatorIndex == nodeId.length() && message.startsWith(nodeId)) {
+            // 自己发布的消息，只用于确认订阅正常
+            lastHeartbeatMillis = System.currentTimeMillis();
+            if (degraded) {
+                degraded = false;
+                // 中断期间其他节点的失效消息已丢失，恢复后再清空一次
+                flushAll("心跳已恢复");
+            }
+            return;
+        }
+        String body = message.substring(separatorIndex + 1);
+        if (body.isEmpty()) {
+            return;
+        }
+        receivedMessages.increment();
+        for (String shortCode : body.split(DELIMITER)) {
+            shortUrlTieredCache.invalidateLocal(shortCode);
+            shortUrlNegativeCache.invalidate(shortCode);
+            receivedKeys.increment();
+        }
+    }
+
+    private void flushAll(String reason) {
+        shortUrlTieredCache.invalidateAllLocal();
+        shortUrlNegativeCache.invalidateAll();
+        fullFlushes.increment();
+        log.warn("清空本地缓存, 原因: {}", reason);
+    }
+
+    /**
+     * 发布循环：取到第一个短码后开始计时，窗口结束或达到最大批量时合并发布
+     */
+    private void publishLoop() {
+        while (running) {
+            try {
+                Set<String> batch = new LinkedHashSet<>();
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMillis);
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    String next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                send(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("缓存失效总线发布循环异常: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void send(Set<String> batch) {
+        try {
+            topic.publish(nodeId + SEPARATOR + String.join(DELIMITER, batch));
+            publishedMessages.increment();
+            publishedKeys.add(batch.size());
+        } catch (Exception e) {
+            // 其他节点将依赖本地缓存过期时间收敛
+            publishFailures.increment();
+            log.error("发布缓存失效消息失败, 短码数: {}, 异常信息: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 缓存失效总线统计
+     */
+    @Data
+    public static class InvalidationStats {
+        private boolean enabled;
+        private String nodeId;
+        /**
+         * 订阅是否处于中断状态
+         */
+        private boolean degraded;
+        private int queueSize;
+        private long publishedMessages;
+        private long publishedKeys;
+        private long publishFailures;
+        private long receivedMessages;
+        private long receivedKeys;
+        private long fullFlushes;
+        private long lastHeartbeatMillis;
+    }
+}
@@ -0,0 +1,36 @@
+package com.chy.shorturl.cache;
+
+import com.chy.shorturl.cache.CacheWarmer.WarmUpStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * 缓存预热健康指示器
+ * 预热填充比例未达到目标前报告DOWN，加入readiness健康组后可阻止未预热的节点接入流量
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheWarmUpHealthIndicator implements HealthIndicator {
+
+    private final CacheWarmer cacheWarmer;
+
+    @Override
+    public Health health() {
+        WarmUpStats stats = cacheWarmer.getStats();
+        Health.Builder builder = stats.isReady() ? Health.up() : Health.down();
+        builder.withDetail("state", stats.getState())
+                .withDetail("fillRatio", stats.getFillRatio())
+                .withDetail("readyRatio", stats.getReadyRatio())
+                .withDetail("filledRows", stats.getFilledRows())
+                .withDetail("targetRows", stats.getTargetRows());
+        if (stats.getError() != null) {
+            builder.withDetail("error", stats.getError());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,242 @@
+package com.chy.shorturl.cache;
+
+import com.chy.shorturl.cache.local.LocalUrlCache;
+import com.chy.shorturl.entity.UrlMapping;
+import com.chy.shorturl.mapper.UrlMappingMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * 启动缓存预热
+ * 应用启动后用MyBatis游标流式读取访问次数最多和最近创建的映射，
+ * 最热的一部分写入本地缓存，全部按分片并行通过管道写入Redis；
+ * 已填充行数达到目标比例前，CacheWarmUpHealthIndicator报告DOWN，使就绪探针暂不接入流量
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+@Component
+public class CacheWarmer {
+
+    /**
+     * 预热状态
+     */
+    public enum State {
+        DISABLED, PENDING, RUNNING, COMPLETED, FAILED
+    }
+
+    private final UrlMappingMapper urlMappingMapper;
+    private final ShortUrlRedisCache shortUrlRedisCache;
+    private final LocalUrlCache localUrlCache;
+    private final ThreadPoolTaskExecutor taskExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${shorturl.warm-up.enabled:false}")
+    private boolean enabled;
+
+    @Value("${shorturl.warm-up.top-accessed:100000}")
+    private int topAccessed;
+
+    @Value("${shorturl.warm-up.recently-created:20000}")
+    private int recentlyCreated;
+
+    @Value("${shorturl.warm-up.local-limit:10000}")
+    private int localLimit;
+
+    @Value("${shorturl.warm-up.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${shorturl.warm-up.ready-ratio:0.9}")
+    private double readyRatio;
+
+    @Value("${shorturl.warm-up.max-wait-seconds:120}")
+    private long maxWaitSeconds;
+
+    private volatile State state = State.PENDING;
+    private final AtomicLong filledRows = new AtomicLong();
+    private final AtomicLong localRows = new AtomicLong();
+    private volatile long targetRows;
+    private volatile long startTime;
+    private volatile long endTime;
+    private volatile String error;
+
+    public CacheWarmer(UrlMappingMapper urlMappingMapper,
+                       ShortUrlRedisCache shortUrlRedisCache,
+                       LocalUrlCache localUrlCache,
+                       @Qualifier("shortUrlTaskExecutor") ThreadPoolTaskExecutor taskExecutor,
+                       PlatformTransactionManager transactionManager) {
+        this.urlMappingMapper = urlMappingMapper;
+        this.shortUrlRedisCache = shortUrlRedisCache;
+        this.localUrlCache = localUrlCache;
+        this.taskExecutor = taskExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @PostConstruct
+    public void init() {
+        state = enabled ? State.PENDING : State.DISABLED;
+    }
+
+    /**
+     * 应用启动完成后异步预热
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        targetRows = (long) topAccessed + recentlyCreated;
+        startTime = System.currentTimeMillis();
+        state = State.RUNNING;
+        taskExecutor.execute(this::warmUp);
+    }
+
+    /**
+     * 是否达到就绪条件：未启用、已结束（含失败），或已填充比例达到目标，或等待超时
+     */
+    public boolean isReady() {
+        State current = state;
+        if (current == State.PENDING) {
+            return false;
+        }
+        if (current != State.RUNNING) {
+            return true;
+        }
+        return fillRatio() >= readyRatio
+                || System.currentTimeMillis() - startTime >= maxWaitSeconds * 1000;
+    }
+
+    /**
+     * 获取统计信息
+     */
+    public WarmUpStats getStats() {
+        WarmUpStats stats = new WarmUpStats();
+        long end = endTime > 0 ? endTime : System.currentTimeMillis();
+        long duration = startTime > 0 ? end - startTime : 0;
+        long filled = filledRows.get();
+        stats.setState(state);
+        stats.setReady(isReady());
+        stats.setTargetRows(targetRows);
+        stats.setFilledRows(filled);
+        stats.setLocalRows(localRows.get());
+        stats.setFillRatio(fillRatio());
+        stats.setReadyRatio(readyRatio);
+        stats.setDurationMillis(duration);
+        stats.setRowsPerSecond(duration == 0 ? 0 : filled * 1000.0 / duration);
+        stats.setError(error);
+        return stats;
+    }
+
+    private double fillRatio() {
+        long target = targetRows;
+        return target == 0 ? 1 : Math.min(1, (double) filledRows.get() / target);
+    }
+
+    private void warmUp() {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        try {
+            long topRows = stream(urlMappingMapper::streamTopAccessed, topAccessed, true, futures);
+            long recentRows = stream(urlMappingMapper::streamRecentlyCreated, recentlyCreated, false, futures);
+            // 数据库中的行数少于配置值时，按实际行数计算比例
+            targetRows = topRows + recentRows;
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            state = State.COMPLETED;
+            endTime = System.currentTimeMillis();
+            WarmUpStats stats = getStats();
+            log.info("缓存预热完成, 写入Redis: {}行, 写入本地缓存: {}行, 耗时: {}ms, 速率: {}行/秒",
+                    stats.getFilledRows(), stats.getLocalRows(), stats.getDurationMillis(),
+                    String.format("%.0f", stats.getRowsPerSecond()));
+        } catch (Exception e) {
+            error = e.getMessage();
+            state = State.FAILED;
+            endTime = System.currentTimeMillis();
+            log.error("缓存预热失败, 已填充: {}行, 不再阻塞就绪: {}", filledRows.get(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 在只读事务内遍历游标，按分片提交并行写入
+     *
+     * @return 读取的行数
+     */
+    private long stream(IntFunction<Cursor<UrlMapping>> query, int limit, boolean fillLocal,
+                        List<CompletableFuture<Void>> futures) {
+        if (limit <= 0) {
+            return 0;
+        }
+        Long rows = transactionTemplate.execute(status -> {
+            long count = 0;
+            Map<String, CachedUrl> chunk = new HashMap<>(chunkSize * 2);
+            try (Cursor<UrlMapping> cursor = query.apply(limit)) {
+                for (UrlMapping urlMapping : cursor) {
+                    CachedUrl cachedUrl = CachedUrl.of(urlMapping);
+                    // 按访问次数排序时越靠前越热，只有前local-limit行进入本地缓存，避免后续行把热点挤出
+                    if (fillLocal && localRows.get() < localLimit) {
+                        localUrlCache.put(urlMapping.getShortCode(), cachedUrl);
+                        localRows.incrementAndGet();
+                    }
+                    chunk.put(urlMapping.getShortCode(), cachedUrl);
+                    count++;
+                    if (chunk.size() >= chunkSize) {
+                        futures.add(submit(chunk));
+                        chunk = new HashMap<>(chunkSize * 2);
+                    }
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException("读取预热数据失败: " + e.getMessage(), e);
+            }
+            if (!chunk.isEmpty()) {
+                futures.add(submit(chunk));
+            }
+            return count;
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    /**
+     * 提交一个分片异步通过管道写入Redis
+     */
+    private CompletableFuture<Void> submit(Map<String, CachedUrl> chunk) {
+        return CompletableFuture.runAsync(() -> {
+            shortUrlRedisCache.putAll(chunk);
+            filledRows.addAndGet(chunk.size());
+        }, taskExecutor);
+    }
+
+    /**
+     * 预热统计
+     */
+    @Data
+    public static class WarmUpStats {
+        private State state;
+        private boolean ready;
+        private long targetRows;
+        private long filledRows;
+        private long localRows;
+        private double fillRatio;
+        private double readyRatio;
+        private long durationMillis;
+        private double rowsPerSecond;
+        private String error;
+    }
+}
@@ -0,0 +1,98 @@
+package com.chy.shorturl.cache;
+
+import com.chy.shorturl.entity.UrlMapping;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 缓存中的短链接映射值
+ * 过期时间以epoch毫秒保存，访问时无需解析LocalDateTime即可判断是否过期
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Getter
+public final class CachedUrl {
+
+    /**
+     * 永不过期
+     */
+    public static final long NEVER_EXPIRE = 0L;
+
+    /**
+     * 原始URL
+     */
+    private final String originalUrl;
+
+    /**
+     * 链接过期时间（epoch毫秒），0表示永不过期
+     */
+    private final long expireAt;
+
+    public CachedUrl(String originalUrl, long expireAt) {
+        this.originalUrl = originalUrl;
+        this.expireAt = expireAt;
+    }
+
+    /**
+     * 根据URL映射构建缓存值
+     *
+     * @param urlMapping URL映射
+     * @return 缓存值
+     */
+    public static CachedUrl of(UrlMapping urlMapping) {
+        return new CachedUrl(urlMapping.getOriginalUrl(), toEpochMilli(urlMapping.getExpireTime()));
+    }
+
+    /**
+     * 将过期时间转换为epoch毫秒
+     *
+     * @param expireTime 过期时间
+     * @return epoch毫秒，null返回0
+     */
+    public static long toEpochMilli(LocalDateTime expireTime) {
+        if (expireTime == null) {
+            return NEVER_EXPIRE;
+        }
+        return expireTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 是否已过期
+     *
+     * @param nowMillis 当前时间（epoch毫秒）
+     * @return 是否已过期
+     */
+    public boolean isExpired(long nowMillis) {
+        return expireAt != NEVER_EXPIRE && expireAt <= nowMillis;
+    }
+
+    /**
+     * 有效期是否覆盖指定的过期时间，用于判断已有短链接能否复用
+     *
+     * @param requestedExpireAt 要求的过期时间（epoch毫秒），0表示永不过期
+     * @return 永不过期，或要求有过期时间且本链接不早于该时间过期
+     */
+    public boolean covers(long requestedExpireAt) {
+        if (expireAt == NEVER_EXPIRE) {
+            return true;
+        }
+        return requestedExpireAt != NEVER_EXPIRE && expireAt >= requestedExpireAt;
+    }
+
+    /**
+     * 计算缓存存活时间：取配置的缓存时间与链接剩余有效期中的较小值
+     *
+     * @param maxTtlMillis 配置的缓存时间（毫秒）
+     * @param nowMillis    当前时间（epoch毫秒）
+     * @return 缓存存活时间（毫秒），小于等于0表示已过期
+     */
+    public long ttlMillis(long maxTtlMillis, long nowMillis) {
+        if (expireAt == NEVER_EXPIRE) {
+            return maxTtlMillis;
+        }
+        return Math.min(maxTtlMillis, expireAt - nowMillis);
+    }
+}
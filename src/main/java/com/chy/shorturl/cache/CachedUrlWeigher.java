@@ -0,0 +1,68 @@
+package com.chy.shorturl.cache;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+
+/**
+ * 短链接本地缓存的权重计算器，权重为条目在堆上占用的估算字节数
+ * 按64位JVM开启压缩指针、紧凑字符串的对象布局估算：
+ * 键和原始URL各为一个String加一个byte[]，值为一个CachedUrl，另加Caffeine节点及哈希表槽位的固定开销
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public class CachedUrlWeigher implements Weigher<String, CachedUrl> {
+
+    /**
+     * String对象：对象头12 + value引用4 + hash 4 + coder 1 + hashIsZero 1，对齐后24
+     */
+    private static final int STRING_SHALLOW_BYTES = 24;
+
+    /**
+     * byte[]数组头：对象头12 + 长度4
+     */
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    /**
+     * CachedUrl对象：对象头12 + originalUrl引用4 + expireAt 8
+     */
+    private static final int CACHED_URL_SHALLOW_BYTES = 24;
+
+    /**
+     * Caffeine节点（键值引用、访问/写入时间、过期时间、权重、队列指针）、异步缓存的CompletableFuture、
+     * ConcurrentHashMap的Node和槽位及频率草图，按分层缓存第一层的配置以JOL实测约127字节
+     */
+    static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    @Override
+    public int weigh(String key, CachedUrl value) {
+        long bytes = ENTRY_OVERHEAD_BYTES + estimateStringBytes(key)
+                + CACHED_URL_SHALLOW_BYTES + estimateStringBytes(value.getOriginalUrl());
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 估算字符串占用的字节数
+     * 仅含Latin-1字符时每个字符占1字节，否则按UTF-16每个字符占2字节
+     *
+     * @param value 字符串
+     * @return 字节数
+     */
+    public static long estimateStringBytes(String value) {
+        if (value == null) {
+            return 0;
+        }
+        int length = value.length();
+        int bytesPerChar = 1;
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        return STRING_SHALLOW_BYTES + align(ARRAY_HEADER_BYTES + (long) length * bytesPerChar);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
@@ -0,0 +1,148 @@
+package com.chy.shorturl.cache;
+
+import com.chy.shorturl.entity.UrlMapping;
+import com.chy.shorturl.mapper.UrlMappingMapper;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 短码布隆过滤器
+ * 启动时从url_mapping全量加载短码，生成短链接时实时追加，并定时增量同步其他节点新建的短码，
+ * 用于在查询数据库前快速排除不存在的短码
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+@Component
+public class ShortCodeBloomFilter {
+
+    private final UrlMappingMapper urlMappingMapper;
+    private final ThreadPoolTaskExecutor taskExecutor;
+    private final BloomFilter<CharSequence> bloomFilter;
+
+    @Value("${shorturl.bloom.enabled:true}")
+    private boolean enabled;
+
+    @Value("${shorturl.bloom.load-batch-size:5000}")
+    private int loadBatchSize;
+
+    /**
+     * 增量同步的回溯时间，覆盖节点间时钟偏差和未提交事务
+     */
+    @Value("${shorturl.bloom.refresh-overlap-seconds:60}")
+    private long refreshOverlapSeconds;
+
+    /**
+     * 全量加载是否完成，未完成前一律视为可能存在
+     */
+    private volatile boolean loaded = false;
+
+    /**
+     * 上次增量同步的起始时间
+     */
+    private volatile LocalDateTime lastRefreshTime;
+
+    public ShortCodeBloomFilter(UrlMappingMapper urlMappingMapper,
+                                @Qualifier("shortUrlTaskExecutor") ThreadPoolTaskExecutor taskExecutor,
+                                @Value("${shorturl.bloom.expected-insertions:10000000}") long expectedInsertions,
+                                @Value("${shorturl.bloom.fpp:0.001}") double fpp) {
+        this.urlMappingMapper = urlMappingMapper;
+        this.taskExecutor = taskExecutor;
+        this.bloomFilter = BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), expectedInsertions, fpp);
+        log.info("初始化短码布隆过滤器, 预期容量: {}, 误判率: {}", expectedInsertions, fpp);
+    }
+
+    /**
+     * 应用启动完成后异步全量加载短码
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        taskExecutor.execute(this::loadAll);
+    }
+
+    /**
+     * 判断短码是否可能存在
+     *
+     * @param shortCode 短码
+     * @return false表示一定不存在，true表示可能存在
+     */
+    public boolean mightContain(String shortCode) {
+        if (!enabled || !loaded) {
+            return true;
+        }
+        return bloomFilter.mightContain(shortCode);
+    }
+
+    /**
+     * 追加短码
+     *
+     * @param shortCode 短码
+     */
+    public void put(String shortCode) {
+        bloomFilter.put(shortCode);
+    }
+
+    /**
+     * 是否已完成全量加载
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * 增量同步最近创建的短码（包括其他节点生成的短码）
+     */
+    public synchronized void refresh() {
+        if (!enabled || !loaded) {
+            return;
+        }
+        LocalDateTime refreshStart = LocalDateTime.now();
+        List<String> shortCodes = urlMappingMapper.findShortCodesCreatedSince(
+                lastRefreshTime.minusSeconds(refreshOverlapSeconds));
+        shortCodes.forEach(bloomFilter::put);
+        lastRefreshTime = refreshStart;
+        log.debug("布隆过滤器增量同步完成, 同步短码数: {}", shortCodes.size());
+    }
+
+    /**
+     * 按主键分页全量加载短码
+     */
+    private synchronized void loadAll() {
+        long startTime = System.currentTimeMillis();
+        LocalDateTime loadStart = LocalDateTime.now();
+        long lastId = 0;
+        long total = 0;
+        try {
+            List<UrlMapping> page;
+            do {
+                page = urlMappingMapper.findShortCodePage(lastId, loadBatchSize);
+                for (UrlMapping urlMapping : page) {
+                    bloomFilter.put(urlMapping.getShortCode());
+                    lastId = urlMapping.getId();
+                }
+                total += page.size();
+            } while (page.size() == loadBatchSize);
+
+            lastRefreshTime = loadStart;
+            loaded = true;
+            log.info("布隆过滤器加载完成, 短码数: {}, 耗时: {}ms", total, System.currentTimeMillis() - startTime);
+        } catch (Exception e) {
+            log.error("布隆过滤器加载失败, 将继续放行所有短码: {}", e.getMessage(), e);
+        }
+    }
+}
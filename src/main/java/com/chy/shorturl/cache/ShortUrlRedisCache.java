@@ -0,0 +1,399 @@
+package com.chy.shorturl.cache;
+
+import com.chy.shorturl.cache.codec.UrlDictionaryManager;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 短链接Redis缓存
+ * 统一管理Redis中短链接的键名、值编码与过期时间。
+ * 值编码为"过期时间|原始URL"，过期时间为epoch毫秒（0表示永不过期），启用前缀字典时原始URL按字典压缩；
+ * 每个键的过期时间取配置的缓存时间与链接剩余有效期中的较小值。
+ * <p>
+ * 存储布局（shorturl.cache.redis.layout）：
+ * <ul>
+ *     <li>STRING：每个短码一个字符串键shorturl:&lt;短码&gt;，每个键约有80~100字节的元数据开销</li>
+ *     <li>BUCKET：按短码哈希分桶，桶为哈希键shorturl:b:&lt;桶号&gt;，字段为短码。
+ *     每桶条目数和值长度在listpack编码阈值内时整桶紧凑存储，省去逐键开销；
+ *     字段值前加入缓存截止时间"截止时间|过期时间|原始URL"，读取时判断，过期字段惰性删除，桶键的过期时间在每次写入时顺延；
+ *     持续有写入的桶不会整体过期，因此由定时任务按批HSCAN各桶并删除超过截止时间的字段，桶大小稳定在缓存时间内的写入量</li>
+ *     <li>MIGRATING：写入和BUCKET相同，读取先查桶、未命中再查字符串键，删除同时删除两种布局；
+ *     旧键在cache-expire内自然过期后即可切换为BUCKET</li>
+ * </ul>
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShortUrlRedisCache {
+
+    /**
+     * Redis键前缀
+     */
+    public static final String KEY_PREFIX = "shorturl:";
+
+    /**
+     * 分桶布局的桶键前缀
+     */
+    public static final String BUCKET_KEY_PREFIX = "shorturl:b:";
+
+    private static final char SEPARATOR = '|';
+
+    private final StringRedisTemplate redisTemplate;
+    private final UrlDictionaryManager urlDictionaryManager;
+
+    @Value("${shorturl.cache-expire:86400}")
+    private long cacheExpireSeconds;
+
+    @Value("${shorturl.cache.redis.layout:STRING}")
+    private String layout;
+
+    @Value("${shorturl.cache.redis.bucket-count:150000}")
+    private int bucketCount;
+
+    @Value("${shorturl.cache.redis.sweep-buckets-per-run:1000}")
+    private int sweepBucketsPerRun;
+
+    /**
+     * 下一个待清理的桶号，各节点从随机位置开始，错开清理的桶
+     */
+    private final AtomicInteger sweepCursor = new AtomicInteger(ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE));
+
+    private boolean bucketWrite;
+    private boolean stringRead;
+
+    @PostConstruct
+    public void init() {
+        bucketWrite = "BUCKET".equalsIgnoreCase(layout) || "MIGRATING".equalsIgnoreCase(layout);
+        stringRead = !"BUCKET".equalsIgnoreCase(layout);
+        if (bucketWrite) {
+            log.info("Redis缓存使用分桶布局, 桶数: {}, 兼容读取字符串键: {}", bucketCount, stringRead);
+        }
+    }
+
+    /**
+     * 获取缓存
+     *
+     * @param shortCode 短码
+     * @return 缓存值，不存在返回null
+     */
+    public CachedUrl get(String shortCode) {
+        if (bucketWrite) {
+            String bucketKey = bucketKey(shortCode);
+            String value = redisTemplate.<String, String>opsForHash().get(bucketKey, shortCode);
+            long now = System.currentTimeMillis();
+            if (value != null) {
+                if (isBucketValueExpired(value, now)) {
+                    redisTemplate.opsForHash().delete(bucketKey, shortCode);
+                } else {
+                    // 前缀字典ID未加载时按未命中处理，但保留字段，其他已加载该ID的节点仍可读取
+                    CachedUrl cachedUrl = decodeBucketValue(value, now);
+                    if (cachedUrl != null) {
+                        return cachedUrl;
+                    }
+                }
+            }
+            if (!stringRead) {
+                return null;
+            }
+        }
+        return decode(redisTemplate.opsForValue().get(KEY_PREFIX + shortCode));
+    }
+
+    /**
+     * 写入缓存，已过期的链接不写入
+     *
+     * @param shortCode 短码
+     * @param cachedUrl 缓存值
+     */
+    public void put(String shortCode, CachedUrl cachedUrl) {
+        long ttlMillis = cachedUrl.ttlMillis(TimeUnit.SECONDS.toMillis(cacheExpireSeconds), System.currentTimeMillis());
+        if (ttlMillis <= 0) {
+            return;
+        }
+        if (bucketWrite) {
+            putAll(Map.of(shortCode, cachedUrl));
+            return;
+        }
+        redisTemplate.opsForValue().set(KEY_PREFIX + shortCode, encode(cachedUrl), ttlMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 删除缓存
+     *
+     * @param shortCode 短码
+     */
+    public void delete(String shortCode) {
+        if (bucketWrite) {
+            redisTemplate.opsForHash().delete(bucketKey(shortCode), shortCode);
+        }
+        if (stringRead) {
+            redisTemplate.delete(KEY_PREFIX + shortCode);
+        }
+    }
+
+    /**
+     * 批量获取缓存（单次MGET）
+     *
+     * @param shortCodes 短码集合
+     * @return 命中的缓存值
+     */
+    public Map<String, CachedUrl> multiGet(Collection<String> shortCodes) {
+        if (!bucketWrite) {
+            return multiGetStrings(shortCodes);
+        }
+        Map<String, CachedUrl> result = multiGetBuckets(shortCodes);
+        if (stringRead && result.size() < shortCodes.size()) {
+            List<String> missing = new ArrayList<>(shortCodes.size() - result.size());
+            for (String shortCode : shortCodes) {
+                if (!result.containsKey(shortCode)) {
+                    missing.add(shortCode);
+                }
+            }
+            result.putAll(multiGetStrings(missing));
+        }
+        return result;
+    }
+
+    private Map<String, CachedUrl> multiGetStrings(Collection<String> shortCodes) {
+        List<String> keys = new ArrayList<>(shortCodes.size());
+        for (String shortCode : shortCodes) {
+            keys.add(KEY_PREFIX + shortCode);
+        }
+        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+        Map<String, CachedUrl> result = new HashMap<>(shortCodes.size() * 2);
+        if (values == null) {
+            return result;
+        }
+        int i = 0;
+        for (String shortCode : shortCodes) {
+            CachedUrl cachedUrl = decode(values.get(i++));
+            if (cachedUrl != null) {
+                result.put(shortCode, cachedUrl);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 分桶布局的批量获取（单次管道往返的多个HGET）
+     */
+    private Map<String, CachedUrl> multiGetBuckets(Collection<String> shortCodes) {
+        RedisSerializer<String> serializer = redisTemplate.getStringSerializer();
+        List<Object> values = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String shortCode : shortCodes) {
+                connection.hashCommands().hGet(serializer.serialize(bucketKey(shortCode)), serializer.serialize(shortCode));
+            }
+            return null;
+        });
+        long now = System.currentTimeMillis();
+        Map<String, CachedUrl> result = new HashMap<>(shortCodes.size() * 2);
+        int i = 0;
+        for (String shortCode : shortCodes) {
+            Object value = values.get(i++);
+            CachedUrl cachedUrl = value == null ? null : decodeBucketValue(value.toString(), now);
+            if (cachedUrl != null) {
+                result.put(shortCode, cachedUrl);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 批量写入缓存（单次管道往返），每个键使用各自的过期时间
+     *
+     * @param cachedUrls 短码与缓存值
+     */
+    public void putAll(Map<String, CachedUrl> cachedUrls) {
+        if (cachedUrls.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long maxTtlMillis = TimeUnit.SECONDS.toMillis(cacheExpireSeconds);
+        RedisSerializer<String> serializer = redisTemplate.getStringSerializer();
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Map.Entry<String, CachedUrl> entry : cachedUrls.entrySet()) {
+                long ttlMillis = entry.getValue().ttlMillis(maxTtlMillis, now);
+                if (ttlMillis > 0 && bucketWrite) {
+                    // 桶的过期时间顺延到最大缓存时间，桶内条目按各自的截止时间判断
+                    byte[] bucketKey = serializer.serialize(bucketKey(entry.getKey()));
+                    connection.hashCommands().hSet(bucketKey, serializer.serialize(entry.getKey()),
+                            serializer.serialize(encodeBucketValue(entry.getValue(), now + ttlMillis)));
+                    connection.keyCommands().pExpire(bucketKey, maxTtlMillis);
+                    continue;
+                }
+                if (ttlMillis > 0) {
+                    connection.stringCommands().pSetEx(serializer.serialize(KEY_PREFIX + entry.getKey()),
+                            ttlMillis, serializer.serialize(encode(entry.getValue())));
+                }
+            }
+            return null;
+        });
+    }
+    
+    /**
+     * 清理下一批桶中超过缓存截止时间的字段
+     * 每次写入都会顺延桶键的过期时间，持续有写入的桶不会整体过期，过期字段若只靠读取时惰性删除，
+     * 桶会无限增长并超过listpack阈值；按批轮转清理，bucket-count / sweep-buckets-per-run次后覆盖全部桶
+     *
+     * @return 删除的字段数
+     */
+    public int sweepBuckets() {
+        if (!bucketWrite) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        for (int i = 0; i < sweepBucketsPerRun; i++) {
+            int bucket = Math.floorMod(sweepCursor.getAndIncrement(), bucketCount);
+            removed += sweepBucket(BUCKET_KEY_PREFIX + bucket, now);
+        }
+        return removed;
+    }
+
+    /**
+     * 清理单个桶中超过缓存截止时间的字段
+     * 只解析字段值开头的截止时间，与前缀字典是否已加载无关；
+     * HSCAN与HDEL之间被重新写入的字段可能被一并删除，只会造成一次缓存未命中
+     *
+     * @param bucketKey 桶键
+     * @param nowMillis 当前时间（epoch毫秒）
+     * @return 删除的字段数
+     */
+    int sweepBucket(String bucketKey, long nowMillis) {
+        List<Object> expired = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions().count(128).build();
+        try (Cursor<Map.Entry<String, String>> cursor = redisTemplate.<String, String>opsForHash().scan(bucketKey, options)) {
+            while (cursor.hasNext()) {
+                Map.Entry<String, String> field = cursor.next();
+                if (isBucketValueExpired(field.getValue(), nowMillis)) {
+                    expired.add(field.getKey());
+                }
+            }
+        }
+        if (!expired.isEmpty()) {
+            redisTemplate.opsForHash().delete(bucketKey, expired.toArray());
+        }
+        return expired.size();
+    }
+
+    /**
+     * 计算短码所在的桶键
+     *
+     * @param shortCode 短码
+     * @return 桶键
+     */
+    String bucketKey(String shortCode) {
+        int hash = shortCode.hashCode();
+        hash ^= hash >>> 16;
+        return BUCKET_KEY_PREFIX + Math.floorMod(hash * 0x9E3779B9, bucketCount);
+    }
+
+    /**
+     * 编码桶内字段值："缓存截止时间|过期时间|原始URL"
+     *
+     * @param cachedUrl 缓存值
+     * @param deadline  缓存截止时间（epoch毫秒）
+     * @return 编码后的字符串
+     */
+    String encodeBucketValue(CachedUrl cachedUrl, long deadline) {
+        return deadline + String.valueOf(SEPARATOR) + encode(cachedUrl);
+    }
+
+    /**
+     * 桶内字段是否已超过缓存截止时间，只解析开头的截止时间，与前缀字典无关
+     *
+     * @param value     字段值
+     * @param nowMillis 当前时间（epoch毫秒）
+     * @return 已超过缓存截止时间或格式不合法返回true，可以删除
+     */
+    boolean isBucketValueExpired(String value, long nowMillis) {
+        return parseMillis(value, 0, value.indexOf(SEPARATOR)) <= nowMillis;
+    }
+
+    /**
+     * 解码桶内字段值
+     *
+     * @param value     字段值
+     * @param nowMillis 当前时间（epoch毫秒）
+     * @return 缓存值，已超过缓存截止时间、格式不合法或前缀字典ID未加载时返回null，
+     * 需要区分是否可以删除时使用isBucketValueExpired
+     */
+    CachedUrl decodeBucketValue(String value, long nowMillis) {
+        if (isBucketValueExpired(value, nowMillis)) {
+            return null;
+        }
+        return decode(value, value.indexOf(SEPARATOR) + 1);
+    }
+
+    /**
+     * 编码缓存值，原始URL按前缀字典压缩
+     *
+     * @param cachedUrl 缓存值
+     * @return 编码后的字符串
+     */
+    String encode(CachedUrl cachedUrl) {
+        return cachedUrl.getExpireAt() + String.valueOf(SEPARATOR) + urlDictionaryManager.compress(cachedUrl.getOriginalUrl());
+    }
+
+    /**
+     * 解码缓存值，兼容升级前只保存原始URL的旧格式
+     *
+     * @param value 缓存字符串
+     * @return 缓存值，前缀字典ID未加载时返回null
+     */
+    CachedUrl decode(String value) {
+        return value == null ? null : decode(value, 0);
+    }
+
+    private CachedUrl decode(String value, int start) {
+        int separatorIndex = value.indexOf(SEPARATOR, start);
+        long expireAt = parseMillis(value, start, separatorIndex);
+        if (expireAt < 0) {
+            // 旧格式
+            String url = start == 0 ? value : value.substring(start);
+            return new CachedUrl(url, CachedUrl.NEVER_EXPIRE);
+        }
+        String url = urlDictionaryManager.decompress(value, separatorIndex + 1);
+        return url == null ? null : new CachedUrl(url, expireAt);
+    }
+
+    /**
+     * 解析epoch毫秒，最多19位
+     *
+     * @return 不是合法的毫秒数时返回-1
+     */
+    private static long parseMillis(String value, int start, int end) {
+        if (end <= start || end - start > 19) {
+            return -1;
+        }
+        long millis = 0;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            millis = millis * 10 + (c - '0');
+        }
+        return millis;
+    }
+}
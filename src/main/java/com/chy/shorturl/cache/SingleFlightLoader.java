@@ -0,0 +1,206 @@
+package com.chy.shorturl.cache;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 缓存未命中时的请求合并加载器
+ * 同一节点上同一短码同一时刻只有一个加载在执行，其余请求等待该加载结果；
+ * 开启集群模式后，加载前还需获取Redis短租约锁，取得租约后重新查询Redis，未命中才回源数据库并在释放租约前写回Redis，
+ * 保证集群内同一短码只有一个节点回源数据库
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+@Component
+public class SingleFlightLoader {
+
+    private static final String LOCK_KEY_PREFIX = "shorturl:lock:load:";
+
+    private final RedissonClient redissonClient;
+    private final ShortUrlRedisCache shortUrlRedisCache;
+
+    /**
+     * 正在执行的加载
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<CachedUrl>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 实际执行的加载次数
+     */
+    private final LongAdder leaderLoads = new LongAdder();
+
+    /**
+     * 被合并（等待其他请求结果）的加载次数
+     */
+    private final LongAdder coalescedLoads = new LongAdder();
+
+    /**
+     * 集群租约等待超时后直接加载的次数
+     */
+    private final LongAdder clusterLockTimeouts = new LongAdder();
+
+    /**
+     * 取得租约（或等待超时）后在Redis中命中、无需回源数据库的次数
+     */
+    private final LongAdder clusterRedisHits = new LongAdder();
+
+    @Value("${shorturl.single-flight.cluster.enabled:false}")
+    private boolean clusterEnabled;
+
+    @Value("${shorturl.single-flight.cluster.lease-millis:3000}")
+    private long leaseMillis;
+
+    @Value("${shorturl.single-flight.cluster.wait-millis:500}")
+    private long waitMillis;
+
+    public SingleFlightLoader(RedissonClient redissonClient, ShortUrlRedisCache shortUrlRedisCache) {
+        this.redissonClient = redissonClient;
+        this.shortUrlRedisCache = shortUrlRedisCache;
+    }
+
+    /**
+     * 合并加载
+     *
+     * @param shortCode 短码
+     * @param loader    实际加载逻辑
+     * @return 加载结果，可能为null
+     */
+    public CachedUrl load(String shortCode, Supplier<CachedUrl> loader) {
+        CompletableFuture<CachedUrl> future = inFlight.get(shortCode);
+        if (future == null) {
+            CompletableFuture<CachedUrl> created = new CompletableFuture<>();
+            future = inFlight.putIfAbsent(shortCode, created);
+            if (future == null) {
+                return loadAsLeader(shortCode, loader, created);
+            }
+        }
+        coalescedLoads.increment();
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    /**
+     * 获取统计信息
+     */
+    public SingleFlightStats getStats() {
+        SingleFlightStats stats = new SingleFlightStats();
+        stats.setLeaderLoads(leaderLoads.sum());
+        stats.setCoalescedLoads(coalescedLoads.sum());
+        stats.setClusterLockTimeouts(clusterLockTimeouts.sum());
+        stats.setClusterRedisHits(clusterRedisHits.sum());
+        stats.setInFlight(inFlight.size());
+        stats.setClusterEnabled(clusterEnabled);
+        return stats;
+    }
+
+    /**
+     * 作为首个请求执行加载，并将结果通知给等待的请求
+     */
+    private CachedUrl loadAsLeader(String shortCode, Supplier<CachedUrl> loader, CompletableFuture<CachedUrl> future) {
+        leaderLoads.increment();
+        try {
+            CachedUrl value = clusterEnabled ? loadWithClusterLease(shortCode, loader) : loader.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(shortCode, future);
+        }
+    }
+
+    /**
+     * 持有Redis短租约锁执行加载
+     * 取得租约后先重新查询Redis：等待期间上一个持有租约的节点已在释放前写回，此时直接命中；
+     * 仍未命中才查询数据库，并在释放租约前写回Redis，之后取得租约的节点都能在Redis中命中。
+     * 等待超时同样先查询Redis，只有持有租约的节点仍未写回（回源缓慢或短码不存在）时才直接查询数据库
+     */
+    private CachedUrl loadWithClusterLease(String shortCode, Supplier<CachedUrl> loader) {
+        RLock lock = redissonClient.getLock(LOCK_KEY_PREFIX + shortCode);
+        boolean locked = false;
+        try {
+            locked = lock.tryLock(waitMillis, leaseMillis, TimeUnit.MILLISECONDS);
+            if (!locked) {
+                clusterLockTimeouts.increment();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("获取短码加载租约失败, 直接加载, shortCode: {}, 异常信息: {}", shortCode, e.getMessage());
+        }
+        try {
+            CachedUrl cachedUrl = getFromRedis(shortCode);
+            if (cachedUrl != null) {
+                clusterRedisHits.increment();
+                return cachedUrl;
+            }
+            cachedUrl = loader.get();
+            if (cachedUrl != null) {
+                putToRedis(shortCode, cachedUrl);
+            }
+            return cachedUrl;
+        } finally {
+            if (locked) {
+                try {
+                    lock.unlock();
+                } catch (Exception e) {
+                    // 租约已过期自动释放
+                    log.debug("释放短码加载租约失败, shortCode: {}, 异常信息: {}", shortCode, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 查询Redis，异常时按未命中处理
+     */
+    private CachedUrl getFromRedis(String shortCode) {
+        try {
+            return shortUrlRedisCache.get(shortCode);
+        } catch (Exception e) {
+            log.warn("租约内查询Redis失败, 回源数据库, shortCode: {}, 异常信息: {}", shortCode, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 写回Redis，失败时只记录日志，加载结果仍正常返回
+     */
+    private void putToRedis(String shortCode, CachedUrl cachedUrl) {
+        try {
+            shortUrlRedisCache.put(shortCode, cachedUrl);
+        } catch (Exception e) {
+            log.warn("租约内写回Redis失败, shortCode: {}, 异常信息: {}", shortCode, e.getMessage());
+        }
+    }
+
+    /**
+     * 请求合并统计
+     */
+    @Data
+    public static class SingleFlightStats {
+        private long leaderLoads;
+        private long coalescedLoads;
+        private long clusterLockTimeouts;
+        private long clusterRedisHits;
+        private int inFlight;
+        private boolean clusterEnabled;
+    }
+}
@@ -0,0 +1,285 @@
+package com.chy.shorturl.cache.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * URL前缀字典（不可变快照）
+ * 将"协议+域名+路径前缀"替换为字典ID，编码格式为：标记字节0x01 + ID + 剩余部分。
+ * 字节形式（本地紧凑存储、堆外缓存）的ID为7位分组的varint；
+ * 字符串形式（Redis）的ID为单个字符，经UTF-8序列化后ID小于128占1字节、小于2048占2字节，同样是变长编码。
+ * 合法的http(s) URL不会以0x01开头，未命中字典的URL原样保存，与压缩前写入的数据兼容。
+ * 字典只追加不修改，同一ID在各节点和各版本中始终对应同一前缀；解码遇到本节点尚未加载的ID时返回null，由调用方视为未命中
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public final class UrlDictionary {
+
+    /**
+     * 压缩值的标记
+     */
+    public static final char MARKER = '\u0001';
+
+    /**
+     * 字符串形式中ID的上限，避开UTF-16代理区
+     */
+    public static final int MAX_ID = 0xD7FF;
+
+    /**
+     * 空字典，不压缩任何URL
+     */
+    public static final UrlDictionary EMPTY = new UrlDictionary(Map.of());
+
+    private static final byte MARKER_BYTE = (byte) MARKER;
+
+    /**
+     * 解码时拼接前缀和剩余部分的线程内缓冲区，避免每次分配中间数组
+     */
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[512]);
+
+    private final String[] prefixes;
+    private final byte[][] prefixBytes;
+    private final Map<String, Integer> ids;
+
+    /**
+     * @param entries 字典ID到前缀，ID为1到MAX_ID
+     */
+    public UrlDictionary(Map<Integer, String> entries) {
+        int maxId = 0;
+        for (Integer id : entries.keySet()) {
+            if (id < 1 || id > MAX_ID) {
+                throw new IllegalArgumentException("字典ID不合法: " + id);
+            }
+            maxId = Math.max(maxId, id);
+        }
+        this.prefixes = new String[maxId + 1];
+        this.prefixBytes = new byte[maxId + 1][];
+        this.ids = new HashMap<>(entries.size() * 2);
+        for (Map.Entry<Integer, String> entry : entries.entrySet()) {
+            prefixes[entry.getKey()] = entry.getValue();
+            prefixBytes[entry.getKey()] = entry.getValue().getBytes(StandardCharsets.UTF_8);
+            ids.put(entry.getValue(), entry.getKey());
+        }
+    }
+
+    /**
+     * 在当前字典基础上追加条目
+     *
+     * @param entries 新增的字典ID到前缀
+     * @return 新字典
+     */
+    public UrlDictionary with(Map<Integer, String> entries) {
+        if (entries.isEmpty()) {
+            return this;
+        }
+        Map<Integer, String> merged = new HashMap<>(ids.size() + entries.size());
+        ids.forEach((prefix, id) -> merged.put(id, prefix));
+        merged.putAll(entries);
+        return new UrlDictionary(merged);
+    }
+
+    /**
+     * 条目数
+     */
+    public int size() {
+        return ids.size();
+    }
+
+    /**
+     * 所有前缀
+     */
+    public Set<String> prefixes() {
+        return Collections.unmodifiableSet(ids.keySet());
+    }
+
+    /**
+     * 最大的字典ID，空字典为0
+     */
+    public int maxId() {
+        return prefixes.length - 1;
+    }
+
+    /**
+     * 查找URL最长的字典前缀，前缀均以'/'结尾
+     *
+     * @param url 原始URL
+     * @return 字典ID，未命中返回-1
+     */
+    public int match(String url) {
+        if (ids.isEmpty()) {
+            return -1;
+        }
+        int hostStart = url.indexOf("://");
+        if (hostStart < 0) {
+            return -1;
+        }
+        int firstSlash = url.indexOf('/', hostStart + 3);
+        for (int end = url.lastIndexOf('/'); end >= firstSlash && firstSlash > 0; end = url.lastIndexOf('/', end - 1)) {
+            Integer id = ids.get(url.substring(0, end + 1));
+            if (id != null) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 压缩为字符串形式
+     *
+     * @param url 原始URL
+     * @return 压缩值，未命中字典时返回原始URL
+     */
+    public String compress(String url) {
+        int id = match(url);
+        if (id < 0) {
+            return url;
+        }
+        return MARKER + String.valueOf((char) id) + url.substring(prefixes[id].length());
+    }
+
+    /**
+     * 解压字符串形式，未压缩的值原样返回
+     *
+     * @param value 压缩值
+     * @return 原始URL，字典ID未加载时返回null
+     */
+    public String decompress(String value) {
+        return decompress(value, 0);
+    }
+
+    /**
+     * 解压字符串中从指定位置开始的压缩值，省去调用方截取子串
+     *
+     * @param value 包含压缩值的字符串
+     * @param start 压缩值的起始位置
+     * @return 原始URL，字典ID未加载时返回null
+     */
+    public String decompress(String value, int start) {
+        if (value.length() - start < 2 || value.charAt(start) != MARKER) {
+            return start == 0 ? value : value.substring(start);
+        }
+        int id = value.charAt(start + 1);
+        if (id >= prefixes.length || prefixes[id] == null) {
+            return null;
+        }
+        return prefixes[id].concat(value.substring(start + 2));
+    }
+
+    /**
+     * 编码为字节形式
+     *
+     * @param url 原始URL
+     * @return 编码后的字节，未命中字典时为原始URL的UTF-8字节
+     */
+    public byte[] encode(String url) {
+        int id = match(url);
+        if (id < 0) {
+            return url.getBytes(StandardCharsets.UTF_8);
+        }
+        byte[] suffix = url.substring(prefixes[id].length()).getBytes(StandardCharsets.UTF_8);
+        int idBytes = id < 0x80 ? 1 : id < 0x4000 ? 2 : 3;
+        byte[] value = new byte[1 + idBytes + suffix.length];
+        value[0] = MARKER_BYTE;
+        int pos = 1;
+        int remaining = id;
+        while (remaining >= 0x80) {
+            value[pos++] = (byte) (remaining | 0x80);
+            remaining >>>= 7;
+        }
+        value[pos++] = (byte) remaining;
+        System.arraycopy(suffix, 0, value, pos, suffix.length);
+        return value;
+    }
+
+    /**
+     * 解码字节形式，除结果字符串外不分配对象
+     *
+     * @param value 编码后的字节
+     * @return 原始URL，字典ID未加载或数据不完整时返回null
+     */
+    public String decode(byte[] value) {
+        if (value.length == 0 || value[0] != MARKER_BYTE) {
+            return new String(value, StandardCharsets.UTF_8);
+        }
+        int id = 0;
+        int shift = 0;
+        int pos = 1;
+        while (true) {
+            if (pos >= value.length || shift > 14) {
+                return null;
+            }
+            byte b = value[pos++];
+            id |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                break;
+            }
+            shift += 7;
+        }
+        if (id >= prefixBytes.length || prefixBytes[id] == null) {
+            return null;
+        }
+        byte[] prefix = prefixBytes[id];
+        int suffixLength = value.length - pos;
+        int length = prefix.length + suffixLength;
+        byte[] scratch = SCRATCH.get();
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+            SCRATCH.set(scratch);
+        }
+        System.arraycopy(prefix, 0, scratch, 0, prefix.length);
+        System.arraycopy(value, pos, scratch, prefix.length, suffixLength);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 从URL样本中选出节省字节最多的前缀
+     * 候选前缀为域名之后每个'/'处截断的部分（最多取前maxDepth级路径），
+     * 收益按出现次数×(前缀UTF-8长度-编码开销)估计，已在字典中的前缀不重复选取
+     *
+     * @param urls     URL样本
+     * @param existing 已有前缀
+     * @param limit    最多选取的条数
+     * @param minCount 最少出现次数
+     * @param maxDepth 最大路径层级
+     * @return 按收益从高到低排列的前缀
+     */
+    public static List<String> train(Collection<String> urls, Set<String> existing, int limit, int minCount, int maxDepth) {
+        Map<String, int[]> counts = new HashMap<>();
+        for (String url : urls) {
+            int hostStart = url.indexOf("://");
+            if (hostStart < 0 || url.isEmpty() || url.charAt(0) == MARKER) {
+                continue;
+            }
+            int end = url.indexOf('/', hostStart + 3);
+            for (int depth = 0; end > 0 && depth <= maxDepth; depth++) {
+                counts.computeIfAbsent(url.substring(0, end + 1), k -> new int[1])[0]++;
+                end = url.indexOf('/', end + 1);
+            }
+        }
+        List<Map.Entry<String, Long>> candidates = new ArrayList<>();
+        for (Map.Entry<String, int[]> entry : counts.entrySet()) {
+            int count = entry.getValue()[0];
+            String prefix = entry.getKey();
+            if (count < minCount || existing.contains(prefix)) {
+                continue;
+            }
+            long saving = (long) count * (prefix.getBytes(StandardCharsets.UTF_8).length - 3);
+            if (saving > 0) {
+                candidates.add(Map.entry(prefix, saving));
+            }
+        }
+        candidates.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        List<String> result = new ArrayList<>(Math.min(limit, candidates.size()));
+        for (int i = 0; i < candidates.size() && result.size() < limit; i++) {
+            result.add(candidates.get(i).getKey());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,198 @@
+package com.chy.shorturl.cache.codec;
+
+import com.chy.shorturl.entity.UrlPrefixDict;
+import com.chy.shorturl.mapper.UrlMappingMapper;
+import com.chy.shorturl.mapper.UrlPrefixDictMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * URL前缀字典管理
+ * 字典保存在url_prefix_dict表中，各节点启动时加载并定时同步，保证Redis中其他节点写入的压缩值能够解码；
+ * 可选在启动时从url_mapping最近的数据中训练，新前缀以INSERT IGNORE追加，ID由数据库分配。
+ * 未启用时使用空字典：不再压缩新写入的值，已压缩的值遇到未加载的ID按未命中处理，回源数据库（数据库中保存原始URL）
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+@Component
+public class UrlDictionaryManager {
+
+    private final UrlPrefixDictMapper urlPrefixDictMapper;
+    private final UrlMappingMapper urlMappingMapper;
+
+    private final LongAdder originalBytes = new LongAdder();
+    private final LongAdder encodedBytes = new LongAdder();
+    private final LongAdder unknownIdCount = new LongAdder();
+
+    @Value("${shorturl.url-dictionary.enabled:false}")
+    private boolean enabled;
+
+    @Value("${shorturl.url-dictionary.train-on-startup:false}")
+    private boolean trainOnStartup;
+
+    @Value("${shorturl.url-dictionary.train-sample-size:100000}")
+    private int trainSampleSize;
+
+    @Value("${shorturl.url-dictionary.max-entries:1024}")
+    private int maxEntries;
+
+    @Value("${shorturl.url-dictionary.min-count:20}")
+    private int minCount;
+
+    @Value("${shorturl.url-dictionary.max-depth:3}")
+    private int maxDepth;
+
+    private volatile UrlDictionary dictionary = UrlDictionary.EMPTY;
+
+    public UrlDictionaryManager(UrlPrefixDictMapper urlPrefixDictMapper, UrlMappingMapper urlMappingMapper) {
+        this.urlPrefixDictMapper = urlPrefixDictMapper;
+        this.urlMappingMapper = urlMappingMapper;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            refresh();
+            if (trainOnStartup) {
+                train();
+            }
+            log.info("加载URL前缀字典, 条目数: {}, 最大ID: {}", dictionary.size(), dictionary.maxId());
+        } catch (Exception e) {
+            // 字典不可用时不压缩，不影响启动
+            log.error("加载URL前缀字典失败: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 当前字典，未启用时为空字典
+     */
+    public UrlDictionary current() {
+        return dictionary;
+    }
+
+    /**
+     * 压缩为字符串形式（Redis）
+     *
+     * @param url 原始URL
+     * @return 压缩值
+     */
+    public String compress(String url) {
+        String value = dictionary.compress(url);
+        if (enabled) {
+            originalBytes.add(url.length());
+            encodedBytes.add(value.length());
+        }
+        return value;
+    }
+
+    /**
+     * 解压字符串形式（Redis）
+     *
+     * @param value 包含压缩值的字符串
+     * @param start 压缩值的起始位置
+     * @return 原始URL，字典ID未加载时返回null
+     */
+    public String decompress(String value, int start) {
+        String url = dictionary.decompress(value, start);
+        if (url == null) {
+            unknownIdCount.increment();
+        }
+        return url;
+    }
+
+    /**
+     * 加载其他节点新增的字典条目，由定时任务调用
+     * 多节点同时训练时，较大的自增ID可能先于较小的ID提交，按已加载的最大ID增量查询会永久漏掉较小的ID，
+     * 因此每次读取全表（最多MAX_ID行）；表只追加不修改，条目数不变时沿用当前字典
+     */
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+        List<UrlPrefixDict> rows = urlPrefixDictMapper.findUpTo(UrlDictionary.MAX_ID);
+        int added = rows.size() - dictionary.size();
+        if (added <= 0) {
+            return;
+        }
+        Map<Integer, String> entries = new HashMap<>(rows.size() * 2);
+        for (UrlPrefixDict row : rows) {
+            entries.put(row.getId(), row.getPrefix());
+        }
+        dictionary = new UrlDictionary(entries);
+        log.info("URL前缀字典新增{}条, 当前条目数: {}", added, dictionary.size());
+    }
+
+    /**
+     * 从最近创建的URL中训练新前缀并写入字典表，然后重新加载
+     *
+     * @return 新增的前缀数
+     */
+    public synchronized int train() {
+        int limit = Math.min(maxEntries, UrlDictionary.MAX_ID) - dictionary.size();
+        if (!enabled || limit <= 0) {
+            return 0;
+        }
+        long startTime = System.currentTimeMillis();
+        List<String> urls = urlMappingMapper.sampleOriginalUrls(trainSampleSize);
+        List<String> prefixes = UrlDictionary.train(urls, dictionary.prefixes(), limit, minCount, maxDepth);
+        int inserted = 0;
+        for (String prefix : prefixes) {
+            inserted += urlPrefixDictMapper.insertIgnore(prefix);
+        }
+        refresh();
+        log.info("URL前缀字典训练完成, 样本数: {}, 新增前缀: {}, 耗时: {}ms",
+                urls.size(), inserted, System.currentTimeMillis() - startTime);
+        return inserted;
+    }
+
+    /**
+     * 获取统计信息，压缩率为写入Redis的值按字符数统计
+     */
+    public DictionaryStats getStats() {
+        UrlDictionary current = dictionary;
+        DictionaryStats stats = new DictionaryStats();
+        stats.setEnabled(enabled);
+        stats.setSize(current.size());
+        stats.setMaxId(current.maxId());
+        long original = originalBytes.sum();
+        long encoded = encodedBytes.sum();
+        stats.setOriginalChars(original);
+        stats.setEncodedChars(encoded);
+        stats.setCompressionRatio(original == 0 ? 1.0 : (double) encoded / original);
+        stats.setUnknownIdCount(unknownIdCount.sum());
+        return stats;
+    }
+
+    /**
+     * URL前缀字典统计
+     */
+    @Data
+    public static class DictionaryStats {
+        private boolean enabled;
+        private int size;
+        private int maxId;
+        private long originalChars;
+        private long encodedChars;
+        /**
+         * 压缩后长度/原始长度
+         */
+        private double compressionRatio;
+        /**
+         * 遇到本节点尚未加载的字典ID的次数
+         */
+        private long unknownIdCount;
+    }
+}
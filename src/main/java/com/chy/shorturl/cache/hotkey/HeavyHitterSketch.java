@@ -0,0 +1,141 @@
+package com.chy.shorturl.cache.hotkey;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-Min Sketch加Top-K候选集的热点检测结构
+ * 每次记录对depth行计数器各做一次无锁原子自增，取各行最小值作为频次估计（只会高估）；
+ * 估计值达到候选集门槛的键才进入候选集：已在候选集中的键无锁更新，新键加锁插入并在候选集已满时替换频次最低的键。
+ * 一个实例只统计一个时间窗口，窗口结束后由调用方替换为新实例
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public class HeavyHitterSketch {
+
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x94D049BB133111EBL, 0xBF58476D1CE4E5B9L
+    };
+
+    private final AtomicLongArray table;
+    private final int depth;
+    private final int widthMask;
+    private final int capacity;
+    private final long minCount;
+
+    private final ConcurrentHashMap<String, Long> candidates;
+
+    /**
+     * 候选集已满时新键需要超过的频次，未满时为minCount
+     */
+    private volatile long threshold;
+
+    /**
+     * @param depth    行数，1到8
+     * @param width    每行计数器数，向上取整为2的幂
+     * @param capacity 候选集容量（Top-K中的K）
+     * @param minCount 进入候选集的最低频次
+     */
+    public HeavyHitterSketch(int depth, int width, int capacity, long minCount) {
+        if (depth < 1 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("行数不合法: " + depth);
+        }
+        int tableWidth = width <= 1 ? 1 : Integer.highestOneBit(width - 1) << 1;
+        this.table = new AtomicLongArray(depth * tableWidth);
+        this.depth = depth;
+        this.widthMask = tableWidth - 1;
+        this.capacity = capacity;
+        this.minCount = Math.max(1, minCount);
+        this.threshold = this.minCount;
+        this.candidates = new ConcurrentHashMap<>(capacity * 2);
+    }
+
+    /**
+     * 记录一次访问
+     *
+     * @param key 键
+     */
+    public void add(String key) {
+        int hash = key.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            long count = table.incrementAndGet(row * (widthMask + 1) + index(hash, row));
+            estimate = Math.min(estimate, count);
+        }
+        if (estimate < threshold) {
+            return;
+        }
+        long current = estimate;
+        if (candidates.computeIfPresent(key, (k, v) -> Math.max(v, current)) == null) {
+            offer(key, estimate);
+        }
+    }
+
+    /**
+     * 估计频次
+     *
+     * @param key 键
+     * @return 频次估计值（不低于真实值）
+     */
+    public long estimate(String key) {
+        int hash = key.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, table.get(row * (widthMask + 1) + index(hash, row)));
+        }
+        return estimate;
+    }
+
+    /**
+     * 按频次从高到低返回候选集
+     *
+     * @return 键和频次估计值
+     */
+    public List<Map.Entry<String, Long>> topK() {
+        List<Map.Entry<String, Long>> result = new ArrayList<>(candidates.size());
+        candidates.forEach((key, count) -> result.add(Map.entry(key, count)));
+        result.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        return result;
+    }
+
+    private synchronized void offer(String key, long estimate) {
+        if (candidates.computeIfPresent(key, (k, v) -> Math.max(v, estimate)) != null) {
+            return;
+        }
+        if (candidates.size() < capacity) {
+            candidates.put(key, estimate);
+            if (candidates.size() == capacity) {
+                threshold = Math.max(minCount, minEntry().getValue() + 1);
+            }
+            return;
+        }
+        Map.Entry<String, Long> min = minEntry();
+        if (estimate <= min.getValue()) {
+            return;
+        }
+        candidates.remove(min.getKey());
+        candidates.put(key, estimate);
+        threshold = Math.max(minCount, minEntry().getValue() + 1);
+    }
+
+    private Map.Entry<String, Long> minEntry() {
+        Map.Entry<String, Long> min = null;
+        for (Map.Entry<String, Long> entry : candidates.entrySet()) {
+            if (min == null || entry.getValue() < min.getValue()) {
+                min = entry;
+            }
+        }
+        return min;
+    }
+
+    private int index(int hash, int row) {
+        long h = (hash ^ SEEDS[row]) * SEEDS[(row + 4) % SEEDS.length];
+        h ^= h >>> 31;
+        return (int) h & widthMask;
+    }
+}
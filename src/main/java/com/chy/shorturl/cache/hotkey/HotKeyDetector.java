@@ -0,0 +1,217 @@
+package com.chy.shorturl.cache.hotkey;
+
+import com.chy.shorturl.cache.CachedUrl;
+import com.chy.shorturl.cache.tiered.TieredCache;
+import jakarta.annotation.PostConstruct;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 热点短码检测器
+ * 跳转命中时按采样率记录到当前窗口的HeavyHitterSketch，每个窗口结束时计算Top-K短码的访问速率：
+ * 速率达到promote-qps的短码放入分层缓存的固定区（不淘汰，查询时先于本地缓存），
+ * 已固定的短码速率低于demote-qps时移出，两个阈值之间的短码保持原状，避免在阈值附近反复进出。
+ * 每个窗口都会用分层缓存中的最新值重新放入固定区，链接修改后最多滞后一个窗口（删除和失效通知会立即移出）
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+@Component
+public class HotKeyDetector {
+
+    private final TieredCache shortUrlTieredCache;
+
+    private final LongAdder promotions = new LongAdder();
+    private final LongAdder demotions = new LongAdder();
+
+    @Value("${shorturl.hot-key.enabled:false}")
+    private boolean enabled;
+
+    @Value("${shorturl.hot-key.sample-rate:1}")
+    private int sampleRate;
+
+    @Value("${shorturl.hot-key.top-k:100}")
+    private int topK;
+
+    @Value("${shorturl.hot-key.sketch-depth:4}")
+    private int sketchDepth;
+
+    @Value("${shorturl.hot-key.sketch-width:4096}")
+    private int sketchWidth;
+
+    @Value("${shorturl.hot-key.promote-qps:500}")
+    private double promoteQps;
+
+    @Value("${shorturl.hot-key.demote-qps:100}")
+    private double demoteQps;
+
+    @Value("${shorturl.hot-key.max-pinned:64}")
+    private int maxPinned;
+
+    private volatile HeavyHitterSketch current;
+    private volatile long windowStartMillis;
+    private volatile List<HotKey> lastTopK = List.of();
+    private volatile long lastWindowMillis;
+
+    public HotKeyDetector(TieredCache shortUrlTieredCache) {
+        this.shortUrlTieredCache = shortUrlTieredCache;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        current = newSketch();
+        windowStartMillis = System.currentTimeMillis();
+        log.info("启动热点检测, 采样率: 1/{}, Top-K: {}, 放入阈值: {}次/秒, 移出阈值: {}次/秒, 固定区上限: {}",
+                sampleRate, topK, promoteQps, demoteQps, maxPinned);
+    }
+
+    /**
+     * 记录一次访问
+     *
+     * @param shortCode 短码
+     */
+    public void record(String shortCode) {
+        HeavyHitterSketch sketch = current;
+        if (sketch == null) {
+            return;
+        }
+        if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return;
+        }
+        sketch.add(shortCode);
+    }
+
+    /**
+     * 结束当前窗口：计算速率，调整固定区，并开始新窗口，由定时任务调用
+     */
+    public synchronized void rotate() {
+        HeavyHitterSketch sketch = current;
+        if (sketch == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long elapsedMillis = Math.max(1, now - windowStartMillis);
+        current = newSketch();
+        windowStartMillis = now;
+
+        List<HotKey> hotKeys = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : sketch.topK()) {
+            HotKey hotKey = new HotKey();
+            hotKey.setShortCode(entry.getKey());
+            hotKey.setCount(entry.getValue() * sampleRate);
+            hotKey.setQps(hotKey.getCount() * 1000.0 / elapsedMillis);
+            hotKeys.add(hotKey);
+        }
+
+        Set<String> keep = new HashSet<>();
+        Set<String> pinnedKeys = new HashSet<>(shortUrlTieredCache.pinnedKeys());
+        for (HotKey hotKey : hotKeys) {
+            String shortCode = hotKey.getShortCode();
+            boolean wasPinned = pinnedKeys.contains(shortCode);
+            boolean promote = hotKey.getQps() >= promoteQps && (wasPinned || keep.size() < maxPinned);
+            boolean stay = wasPinned && hotKey.getQps() >= demoteQps && keep.size() < maxPinned;
+            if ((promote || stay) && pin(shortCode, now)) {
+                keep.add(shortCode);
+                hotKey.setPinned(true);
+                if (!wasPinned) {
+                    promotions.increment();
+                    log.info("热点短码放入固定区, shortCode: {}, 速率: {}次/秒", shortCode, String.format("%.0f", hotKey.getQps()));
+                }
+            }
+        }
+        for (String shortCode : pinnedKeys) {
+            if (!keep.contains(shortCode)) {
+                shortUrlTieredCache.unpin(shortCode);
+                demotions.increment();
+                log.info("短码热度下降移出固定区, shortCode: {}", shortCode);
+            }
+        }
+        lastTopK = hotKeys;
+        lastWindowMillis = elapsedMillis;
+    }
+
+    /**
+     * 获取统计信息，速率为上一个完整窗口的数据
+     */
+    public HotKeyStats getStats() {
+        HotKeyStats stats = new HotKeyStats();
+        stats.setEnabled(enabled);
+        stats.setSampleRate(sampleRate);
+        stats.setPromoteQps(promoteQps);
+        stats.setDemoteQps(demoteQps);
+        stats.setWindowMillis(lastWindowMillis);
+        stats.setPinnedSize(shortUrlTieredCache.pinnedKeys().size());
+        stats.setMaxPinned(maxPinned);
+        stats.setPromotions(promotions.sum());
+        stats.setDemotions(demotions.sum());
+        stats.setTopK(lastTopK);
+        return stats;
+    }
+
+    /**
+     * 用分层缓存中的最新值放入固定区，不存在或已过期时不放入
+     */
+    private boolean pin(String shortCode, long nowMillis) {
+        try {
+            CachedUrl cachedUrl = shortUrlTieredCache.get(shortCode);
+            if (cachedUrl == null || cachedUrl.isExpired(nowMillis)) {
+                shortUrlTieredCache.unpin(shortCode);
+                return false;
+            }
+            shortUrlTieredCache.pin(shortCode, cachedUrl);
+            return true;
+        } catch (Exception e) {
+            log.warn("热点短码放入固定区失败, shortCode: {}, 异常信息: {}", shortCode, e.getMessage());
+            return false;
+        }
+    }
+
+    private HeavyHitterSketch newSketch() {
+        return new HeavyHitterSketch(sketchDepth, sketchWidth, topK, 2);
+    }
+
+    /**
+     * 热点短码
+     */
+    @Data
+    public static class HotKey {
+        private String shortCode;
+        /**
+         * 窗口内访问次数估计值（已按采样率放大）
+         */
+        private long count;
+        private double qps;
+        private boolean pinned;
+    }
+
+    /**
+     * 热点检测统计
+     */
+    @Data
+    public static class HotKeyStats {
+        private boolean enabled;
+        private int sampleRate;
+        private double promoteQps;
+        private double demoteQps;
+        private long windowMillis;
+        private int pinnedSize;
+        private int maxPinned;
+        private long promotions;
+        private long demotions;
+        private List<HotKey> topK;
+    }
+}
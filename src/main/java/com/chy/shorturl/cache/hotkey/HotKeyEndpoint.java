@@ -0,0 +1,27 @@
+package com.chy.shorturl.cache.hotkey;
+
+import com.chy.shorturl.cache.hotkey.HotKeyDetector.HotKeyStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * 热点短码监控端点：/actuator/hotkeys
+ * 返回上一个窗口的Top-K短码、访问速率以及是否已放入固定区
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Component
+@Endpoint(id = "hotkeys")
+@RequiredArgsConstructor
+public class HotKeyEndpoint {
+
+    private final HotKeyDetector hotKeyDetector;
+
+    @ReadOperation
+    public HotKeyStats hotKeys() {
+        return hotKeyDetector.getStats();
+    }
+}
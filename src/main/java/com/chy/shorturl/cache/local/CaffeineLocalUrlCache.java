@@ -0,0 +1,62 @@
+package com.chy.shorturl.cache.local;
+
+import com.chy.shorturl.cache.CachedUrl;
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 基于Caffeine的短链接本地缓存
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@RequiredArgsConstructor
+public class CaffeineLocalUrlCache implements LocalUrlCache {
+
+    private final Cache<String, CachedUrl> cache;
+
+    @Override
+    public CachedUrl getIfPresent(String shortCode) {
+        return cache.getIfPresent(shortCode);
+    }
+
+    @Override
+    public Map<String, CachedUrl> getAllPresent(Collection<String> shortCodes) {
+        return cache.getAllPresent(shortCodes);
+    }
+
+    @Override
+    public void put(String shortCode, CachedUrl cachedUrl) {
+        cache.put(shortCode, cachedUrl);
+    }
+
+    @Override
+    public void putAll(Map<String, CachedUrl> cachedUrls) {
+        cache.putAll(cachedUrls);
+    }
+
+    @Override
+    public void invalidate(String shortCode) {
+        cache.invalidate(shortCode);
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public Map<String, CachedUrl> hottest(int limit) {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.hottest(limit))
+                .orElseGet(() -> Map.copyOf(cache.asMap()));
+    }
+
+    @Override
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+}
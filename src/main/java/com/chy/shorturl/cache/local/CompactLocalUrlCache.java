@@ -0,0 +1,90 @@
+package com.chy.shorturl.cache.local;
+
+import com.chy.shorturl.cache.CachedUrl;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 基于紧凑存储的短链接本地缓存
+ * 无法解码为62进制数值的短码（如包含其他字符的自定义短码）不进入本地缓存，直接回源Redis
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public class CompactLocalUrlCache implements LocalUrlCache {
+
+    private final CompactUrlStore store;
+    private final long maxTtlMillis;
+
+    /**
+     * @param store        紧凑存储
+     * @param maxTtlMillis 配置的缓存时间（毫秒）
+     */
+    public CompactLocalUrlCache(CompactUrlStore store, long maxTtlMillis) {
+        this.store = store;
+        this.maxTtlMillis = maxTtlMillis;
+    }
+
+    @Override
+    public CachedUrl getIfPresent(String shortCode) {
+        return store.get(shortCode, System.currentTimeMillis());
+    }
+
+    @Override
+    public Map<String, CachedUrl> getAllPresent(Collection<String> shortCodes) {
+        long now = System.currentTimeMillis();
+        Map<String, CachedUrl> result = new HashMap<>(shortCodes.size() * 2);
+        for (String shortCode : shortCodes) {
+            CachedUrl cachedUrl = store.get(shortCode, now);
+            if (cachedUrl != null) {
+                result.put(shortCode, cachedUrl);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void put(String shortCode, CachedUrl cachedUrl) {
+        long now = System.currentTimeMillis();
+        long ttlMillis = cachedUrl.ttlMillis(maxTtlMillis, now);
+        if (ttlMillis > 0) {
+            store.put(shortCode, cachedUrl, now + ttlMillis);
+        } else {
+            store.remove(shortCode);
+        }
+    }
+
+    @Override
+    public void putAll(Map<String, CachedUrl> cachedUrls) {
+        cachedUrls.forEach(this::put);
+    }
+
+    @Override
+    public void invalidate(String shortCode) {
+        store.remove(shortCode);
+    }
+
+    @Override
+    public void invalidateAll() {
+        store.clear();
+    }
+
+    @Override
+    public Map<String, CachedUrl> hottest(int limit) {
+        return store.hottest(limit, System.currentTimeMillis());
+    }
+
+    @Override
+    public long estimatedSize() {
+        return store.size();
+    }
+
+    /**
+     * 获取紧凑存储
+     */
+    public CompactUrlStore getStore() {
+        return store;
+    }
+}
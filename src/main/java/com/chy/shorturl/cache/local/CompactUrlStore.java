@@ -0,0 +1,472 @@
+package com.chy.shorturl.cache.local;
+
+import com.chy.shorturl.cache.CachedUrl;
+import com.chy.shorturl.cache.codec.UrlDictionary;
+import com.chy.shorturl.common.util.Base62Util;
+import lombok.Data;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 紧凑的短码到URL存储
+ * 短码按62进制解码为long作为键（短码长度另存，区分前导零），原始URL以UTF-8 byte[]保存，
+ * 使用线性探测的开放寻址原始类型数组，不为每个条目创建节点对象；
+ * 容量满时按CLOCK算法淘汰：命中置访问位，指针扫过时清除访问位，再次扫到仍未被访问的条目被淘汰。
+ * 按哈希分段，读操作使用StampedLock乐观读，无锁且不装箱；写操作持有所在分段的写锁
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public class CompactUrlStore {
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private static final byte OCCUPIED = (byte) 0x80;
+    private static final int LENGTH_MASK = 0x0F;
+
+    private final Segment[] segments;
+    private final int segmentShift;
+    private final long maxEntries;
+    private final Supplier<UrlDictionary> dictionary;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder unsupportedCount = new LongAdder();
+
+    /**
+     * @param maxEntries  最大条目数
+     * @param concurrency 分段数，向上取整为2的幂
+     */
+    public CompactUrlStore(long maxEntries, int concurrency) {
+        this(maxEntries, concurrency, () -> UrlDictionary.EMPTY);
+    }
+
+    /**
+     * @param maxEntries  最大条目数
+     * @param concurrency 分段数，向上取整为2的幂
+     * @param dictionary  URL前缀字典，只追加条目，写入时使用的ID在之后的字典中始终可解码
+     */
+    public CompactUrlStore(long maxEntries, int concurrency, Supplier<UrlDictionary> dictionary) {
+        this.dictionary = dictionary;
+        int segmentCount = concurrency <= 1 ? 1 : Integer.highestOneBit(concurrency - 1) << 1;
+        int entriesPerSegment = (int) Math.max(1, (maxEntries + segmentCount - 1) / segmentCount);
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(entriesPerSegment);
+        }
+        this.segmentShift = 64 - Integer.numberOfTrailingZeros(segmentCount);
+        this.maxEntries = (long) entriesPerSegment * segmentCount;
+    }
+
+    /**
+     * 查询短码
+     *
+     * @param shortCode 短码
+     * @param nowMillis 当前时间（epoch毫秒）
+     * @return 缓存值，不存在、已超过缓存时间或短码无法编码时返回null
+     */
+    public CachedUrl get(CharSequence shortCode, long nowMillis) {
+        long key = Base62Util.decode(shortCode);
+        if (key < 0) {
+            unsupportedCount.increment();
+            return null;
+        }
+        int length = shortCode.length();
+        long hash = hash(key, length);
+        CachedUrl cachedUrl = segmentFor(hash).get(key, length, (int) hash, nowMillis, dictionary.get());
+        if (cachedUrl == null) {
+            missCount.increment();
+        } else {
+            hitCount.increment();
+        }
+        return cachedUrl;
+    }
+
+    /**
+     * 写入短码
+     *
+     * @param shortCode      短码
+     * @param cachedUrl      缓存值
+     * @param deadlineMillis 缓存截止时间（epoch毫秒）
+     * @return 短码无法编码为long时返回false
+     */
+    public boolean put(CharSequence shortCode, CachedUrl cachedUrl, long deadlineMillis) {
+        long key = Base62Util.decode(shortCode);
+        if (key < 0) {
+            unsupportedCount.increment();
+            return false;
+        }
+        int length = shortCode.length();
+        long hash = hash(key, length);
+        byte[] value = dictionary.get().encode(cachedUrl.getOriginalUrl());
+        if (segmentFor(hash).put(key, length, (int) hash, value, cachedUrl.getExpireAt(), deadlineMillis)) {
+            evictionCount.increment();
+        }
+        return true;
+    }
+
+    /**
+     * 删除短码
+     *
+     * @param shortCode 短码
+     */
+    public void remove(CharSequence shortCode) {
+        long key = Base62Util.decode(shortCode);
+        if (key < 0) {
+            return;
+        }
+        int length = shortCode.length();
+        long hash = hash(key, length);
+        segmentFor(hash).remove(key, length, (int) hash);
+    }
+
+    /**
+     * 清空所有条目
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * 获取最近被访问的条目，访问位为1的条目优先，不足时用其余未超过缓存时间的条目补足
+     *
+     * @param limit     最大条目数
+     * @param nowMillis 当前时间（epoch毫秒）
+     * @return 短码到缓存值的有序映射
+     */
+    public Map<String, CachedUrl> hottest(int limit, long nowMillis) {
+        Map<String, CachedUrl> result = new LinkedHashMap<>();
+        for (boolean referencedOnly : new boolean[]{true, false}) {
+            for (Segment segment : segments) {
+                if (result.size() >= limit) {
+                    return result;
+                }
+                segment.collect(result, limit, referencedOnly, nowMillis, dictionary.get());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 当前条目数
+     */
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    /**
+     * 获取统计信息
+     */
+    public CompactStoreStats getStats() {
+        CompactStoreStats stats = new CompactStoreStats();
+        long arrayBytes = 0;
+        long valueBytes = 0;
+        for (Segment segment : segments) {
+            arrayBytes += segment.arrayBytes();
+            valueBytes += segment.valueBytes;
+        }
+        long size = size();
+        stats.setSize(size);
+        stats.setMaxEntries(maxEntries);
+        stats.setSegmentCount(segments.length);
+        stats.setHitCount(hitCount.sum());
+        stats.setMissCount(missCount.sum());
+        stats.setEvictionCount(evictionCount.sum());
+        stats.setUnsupportedCount(unsupportedCount.sum());
+        stats.setArrayBytes(arrayBytes);
+        stats.setValueBytes(valueBytes);
+        stats.setBytesPerEntry(size == 0 ? 0 : (double) (arrayBytes + valueBytes) / size);
+        return stats;
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments.length == 1 ? segments[0] : segments[(int) (hash >>> segmentShift)];
+    }
+
+    /**
+     * 键和短码长度的64位混合哈希（MurmurHash3 fmix64），高位选择分段，低位选择槽位
+     */
+    private static long hash(long key, int length) {
+        long h = key * 31 + length;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * 存储分段，容量固定，数组在构造后不再替换，乐观读不会越界
+     */
+    private static final class Segment {
+        private final StampedLock lock = new StampedLock();
+        private final long[] keys;
+        /**
+         * 占用标记（最高位）和短码长度（低4位）
+         */
+        private final byte[] flags;
+        /**
+         * CLOCK访问位，读操作无锁写入，偶尔写到相邻的新条目上也只影响淘汰顺序
+         */
+        private final byte[] referenced;
+        private final long[] expireAts;
+        private final long[] deadlines;
+        private final byte[][] values;
+        private final int capacity;
+        private final int maxSize;
+
+        private int size;
+        private int hand;
+        /**
+         * 值数组占用的字节数（含数组头，按8字节对齐）
+         */
+        private long valueBytes;
+
+        Segment(int maxSize) {
+            int capacity = Math.max(2, (int) Math.ceil(maxSize / LOAD_FACTOR));
+            this.keys = new long[capacity];
+            this.flags = new byte[capacity];
+            this.referenced = new byte[capacity];
+            this.expireAts = new long[capacity];
+            this.deadlines = new long[capacity];
+            this.values = new byte[capacity][];
+            this.capacity = capacity;
+            this.maxSize = maxSize;
+        }
+
+        CachedUrl get(long key, int length, int hash, long nowMillis, UrlDictionary dictionary) {
+            long stamp = lock.tryOptimisticRead();
+            int index = find(key, length, hash);
+            byte[] value = index < 0 ? null : values[index];
+            long expireAt = index < 0 ? 0 : expireAts[index];
+            long deadline = index < 0 ? 0 : deadlines[index];
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    index = find(key, length, hash);
+                    value = index < 0 ? null : values[index];
+                    expireAt = index < 0 ? 0 : expireAts[index];
+                    deadline = index < 0 ? 0 : deadlines[index];
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            if (index < 0 || value == null || deadline <= nowMillis) {
+                return null;
+            }
+            referenced[index] = 1;
+            String url = dictionary.decode(value);
+            return url == null ? null : new CachedUrl(url, expireAt);
+        }
+
+        /**
+         * 在读锁下收集条目，短码由解码值和长度还原
+         */
+        void collect(Map<String, CachedUrl> result, int limit, boolean referencedOnly, long nowMillis, UrlDictionary dictionary) {
+            long stamp = lock.readLock();
+            try {
+                for (int index = 0; index < capacity && result.size() < limit; index++) {
+                    if (flags[index] == 0 || deadlines[index] <= nowMillis || (referencedOnly && referenced[index] == 0)) {
+                        continue;
+                    }
+                    String url = dictionary.decode(values[index]);
+                    if (url != null) {
+                        String shortCode = Base62Util.encode(keys[index], flags[index] & LENGTH_MASK);
+                        result.putIfAbsent(shortCode, new CachedUrl(url, expireAts[index]));
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * @return 是否淘汰了其他条目
+         */
+        boolean put(long key, int length, int hash, byte[] value, long expireAt, long deadline) {
+            long stamp = lock.writeLock();
+            try {
+                int index = find(key, length, hash);
+                if (index >= 0) {
+                    valueBytes += arrayBytes(value) - arrayBytes(values[index]);
+                    values[index] = value;
+                    expireAts[index] = expireAt;
+                    deadlines[index] = deadline;
+                    referenced[index] = 1;
+                    return false;
+                }
+                boolean evicted = false;
+                if (size >= maxSize) {
+                    evictOne(System.currentTimeMillis());
+                    evicted = true;
+                }
+                index = home(hash);
+                while (flags[index] != 0) {
+                    index = next(index);
+                }
+                keys[index] = key;
+                flags[index] = (byte) (OCCUPIED | length);
+                referenced[index] = 0;
+                values[index] = value;
+                expireAts[index] = expireAt;
+                deadlines[index] = deadline;
+                valueBytes += arrayBytes(value);
+                size++;
+                return evicted;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void remove(long key, int length, int hash) {
+            long stamp = lock.writeLock();
+            try {
+                int index = find(key, length, hash);
+                if (index >= 0) {
+                    delete(index);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void clear() {
+            long stamp = lock.writeLock();
+            try {
+                Arrays.fill(flags, (byte) 0);
+                Arrays.fill(referenced, (byte) 0);
+                Arrays.fill(values, null);
+                size = 0;
+                hand = 0;
+                valueBytes = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * 哈希映射到槽位：乘法取高位，容量无需为2的幂，避免向上取整浪费槽位
+         */
+        private int home(int hash) {
+            return (int) (((hash & 0xFFFFFFFFL) * capacity) >>> 32);
+        }
+
+        private int next(int index) {
+            return index + 1 == capacity ? 0 : index + 1;
+        }
+
+        /**
+         * 线性探测查找，最多探测一整圈，避免乐观读期间因并发修改而死循环
+         */
+        private int find(long key, int length, int hash) {
+            int index = home(hash);
+            for (int probes = 0; probes < capacity; probes++) {
+                byte flag = flags[index];
+                if (flag == 0) {
+                    return -1;
+                }
+                if (keys[index] == key && (flag & LENGTH_MASK) == length) {
+                    return index;
+                }
+                index = next(index);
+            }
+            return -1;
+        }
+
+        /**
+         * CLOCK淘汰：优先淘汰已超过缓存时间的条目，其次是访问位为0的条目
+         */
+        private void evictOne(long nowMillis) {
+            while (true) {
+                int index = hand;
+                hand = next(hand);
+                if (flags[index] == 0) {
+                    continue;
+                }
+                if (deadlines[index] > nowMillis && referenced[index] != 0) {
+                    referenced[index] = 0;
+                    continue;
+                }
+                delete(index);
+                // 后移删除可能把后面的条目移到当前位置，指针回退以便检查它
+                hand = index;
+                return;
+            }
+        }
+
+        /**
+         * 后移删除：把同一探测链上后续的条目前移填补空位，不使用墓碑
+         */
+        private void delete(int index) {
+            valueBytes -= arrayBytes(values[index]);
+            size--;
+            int hole = index;
+            int next = index;
+            while (true) {
+                next = next(next);
+                if (flags[next] == 0) {
+                    break;
+                }
+                int home = home((int) hash(keys[next], flags[next] & LENGTH_MASK));
+                boolean stays = hole <= next ? (hole < home && home <= next) : (hole < home || home <= next);
+                if (stays) {
+                    continue;
+                }
+                keys[hole] = keys[next];
+                flags[hole] = flags[next];
+                referenced[hole] = referenced[next];
+                values[hole] = values[next];
+                expireAts[hole] = expireAts[next];
+                deadlines[hole] = deadlines[next];
+                hole = next;
+            }
+            flags[hole] = 0;
+            referenced[hole] = 0;
+            values[hole] = null;
+        }
+
+        private static long arrayBytes(byte[] value) {
+            return (16L + value.length + 7) & ~7L;
+        }
+
+        /**
+         * 槽位数组占用的字节数（按压缩指针估算，不含byte[]值）
+         */
+        long arrayBytes() {
+            return 6 * 16 + (long) capacity * (8 + 1 + 1 + 8 + 8 + 4);
+        }
+    }
+
+    /**
+     * 紧凑存储统计
+     */
+    @Data
+    public static class CompactStoreStats {
+        private long size;
+        private long maxEntries;
+        private int segmentCount;
+        private long hitCount;
+        private long missCount;
+        private long evictionCount;
+        /**
+         * 无法解码为long而未缓存的短码次数
+         */
+        private long unsupportedCount;
+        private long arrayBytes;
+        private long valueBytes;
+        private double bytesPerEntry;
+    }
+}
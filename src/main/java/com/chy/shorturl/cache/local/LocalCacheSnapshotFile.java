@@ -0,0 +1,174 @@
+package com.chy.shorturl.cache.local;
+
+import com.chy.shorturl.cache.CachedUrl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * 本地缓存快照文件
+ * 文件格式（大端序）：
+ * 头部32字节：魔数'SURL'(4) 版本(2) 保留(2) 创建时间epoch毫秒(8) 条目数(4) 数据区长度(8) 数据区CRC32C(4)；
+ * 数据区逐条保存：短码长度(1) 短码ASCII字节 链接过期时间(8) URL字节数(4) URL的UTF-8字节。
+ * 写入时先写临时文件再原子替换，读取时通过mmap映射文件，魔数、版本、长度或校验和不匹配的文件整体丢弃
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public final class LocalCacheSnapshotFile {
+
+    static final int MAGIC = 0x5355524C;
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 32;
+
+    private LocalCacheSnapshotFile() {
+        // 工具类禁止实例化
+    }
+
+    /**
+     * 写入快照
+     *
+     * @param path       快照文件路径
+     * @param entries    短码到缓存值的映射，按热度从高到低排列
+     * @param nowMillis  当前时间（epoch毫秒）
+     * @return 写入的条目数（跳过已过期和短码过长的条目）
+     * @throws IOException 写入失败
+     */
+    public static int write(Path path, Map<String, CachedUrl> entries, long nowMillis) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(entries.size() * 96);
+        DataOutputStream out = new DataOutputStream(payload);
+        int count = 0;
+        for (Map.Entry<String, CachedUrl> entry : entries.entrySet()) {
+            byte[] code = entry.getKey().getBytes(StandardCharsets.US_ASCII);
+            CachedUrl cachedUrl = entry.getValue();
+            if (code.length > Byte.MAX_VALUE || cachedUrl.isExpired(nowMillis)) {
+                continue;
+            }
+            byte[] url = cachedUrl.getOriginalUrl().getBytes(StandardCharsets.UTF_8);
+            out.writeByte(code.length);
+            out.write(code);
+            out.writeLong(cachedUrl.getExpireAt());
+            out.writeInt(url.length);
+            out.write(url);
+            count++;
+        }
+        out.flush();
+        byte[] data = payload.toByteArray();
+
+        CRC32C crc = new CRC32C();
+        crc.update(data);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC)
+                .putShort(VERSION)
+                .putShort((short) 0)
+                .putLong(nowMillis)
+                .putInt(count)
+                .putLong(data.length)
+                .putInt((int) crc.getValue())
+                .flip();
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer body = ByteBuffer.wrap(data);
+            while (header.hasRemaining() || body.hasRemaining()) {
+                channel.write(new ByteBuffer[]{header, body});
+            }
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return count;
+    }
+
+    /**
+     * 通过mmap读取快照
+     *
+     * @param path        快照文件路径
+     * @param nowMillis   当前时间（epoch毫秒）
+     * @param maxAgeMillis 快照最大年龄（毫秒），超过视为过时
+     * @return 未过期的条目，按写入顺序排列
+     * @throws IOException                文件读取失败
+     * @throws InvalidSnapshotException 文件损坏、版本不兼容或已过时
+     */
+    public static Map<String, CachedUrl> read(Path path, long nowMillis, long maxAgeMillis) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES || fileSize > Integer.MAX_VALUE) {
+                throw new InvalidSnapshotException("文件大小不合法: " + fileSize);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+
+            if (buffer.getInt() != MAGIC) {
+                throw new InvalidSnapshotException("魔数不匹配");
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new InvalidSnapshotException("版本不兼容: " + version);
+            }
+            buffer.getShort();
+            long createdAt = buffer.getLong();
+            int count = buffer.getInt();
+            long payloadLength = buffer.getLong();
+            int checksum = buffer.getInt();
+            if (payloadLength != fileSize - HEADER_BYTES || count < 0) {
+                throw new InvalidSnapshotException("数据区长度不匹配: " + payloadLength);
+            }
+            if (nowMillis - createdAt > maxAgeMillis || createdAt > nowMillis) {
+                throw new InvalidSnapshotException("快照已过时, 创建时间: " + createdAt);
+            }
+
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(HEADER_BYTES, (int) payloadLength));
+            if ((int) crc.getValue() != checksum) {
+                throw new InvalidSnapshotException("校验和不匹配");
+            }
+
+            Map<String, CachedUrl> entries = new LinkedHashMap<>(Math.max(16, count * 2));
+            try {
+                for (int i = 0; i < count; i++) {
+                    byte[] code = new byte[buffer.get()];
+                    buffer.get(code);
+                    long expireAt = buffer.getLong();
+                    byte[] url = new byte[buffer.getInt()];
+                    buffer.get(url);
+                    CachedUrl cachedUrl = new CachedUrl(new String(url, StandardCharsets.UTF_8), expireAt);
+                    if (!cachedUrl.isExpired(nowMillis)) {
+                        entries.put(new String(code, StandardCharsets.US_ASCII), cachedUrl);
+                    }
+                }
+            } catch (BufferUnderflowException | NegativeArraySizeException e) {
+                throw new InvalidSnapshotException("条目数据不完整");
+            }
+            if (buffer.hasRemaining()) {
+                throw new InvalidSnapshotException("条目数与数据区长度不符");
+            }
+            return entries;
+        }
+    }
+
+    /**
+     * 快照文件不可用
+     */
+    public static class InvalidSnapshotException extends IOException {
+        public InvalidSnapshotException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.chy.shorturl.cache.local;
+
+import com.chy.shorturl.cache.CachedUrl;
+import com.chy.shorturl.cache.ShortUrlRedisCache;
+import com.chy.shorturl.cache.local.LocalCacheSnapshotFile.InvalidSnapshotException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本地缓存快照管理
+ * 优雅停机时将本地缓存中最热的N个条目写入快照文件；启动时在ApplicationRunner中同步加载，
+ * Runner执行完毕后Spring Boot才会将就绪状态切换为ACCEPTING_TRAFFIC，因此就绪探针报告UP前本地缓存已预热。
+ * 快照加载成功后即删除，避免进程异常退出后重复加载旧快照。
+ * 停机期间被删除或修改的链接不会收到失效广播，因此加载前先用Redis批量校验，只有Redis中仍存在的条目才写入本地缓存，且以Redis中的值为准
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+@Component
+public class LocalCacheSnapshotManager implements ApplicationRunner {
+
+    private final LocalUrlCache localUrlCache;
+    private final ShortUrlRedisCache shortUrlRedisCache;
+
+    @Value("${shorturl.cache.snapshot.enabled:false}")
+    private boolean enabled;
+
+    @Value("${shorturl.cache.snapshot.path:data/local-cache.snapshot}")
+    private String path;
+
+    @Value("${shorturl.cache.snapshot.size:100000}")
+    private int size;
+
+    @Value("${shorturl.cache.snapshot.max-age-seconds:3600}")
+    private long maxAgeSeconds;
+
+    @Value("${shorturl.cache.snapshot.verify-batch-size:1000}")
+    private int verifyBatchSize;
+
+    public LocalCacheSnapshotManager(LocalUrlCache localUrlCache, ShortUrlRedisCache shortUrlRedisCache) {
+        this.localUrlCache = localUrlCache;
+        this.shortUrlRedisCache = shortUrlRedisCache;
+    }
+
+    /**
+     * 启动时加载快照
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        Path snapshot = Paths.get(path);
+        long startTime = System.currentTimeMillis();
+        try {
+            Map<String, CachedUrl> entries = LocalCacheSnapshotFile.read(snapshot, startTime,
+                    TimeUnit.SECONDS.toMillis(maxAgeSeconds));
+            Map<String, CachedUrl> live = verify(entries);
+            localUrlCache.putAll(live);
+            log.info("本地缓存快照加载完成, 快照条目数: {}, 校验后加载: {}, 耗时: {}ms",
+                    entries.size(), live.size(), System.currentTimeMillis() - startTime);
+            deleteQuietly(snapshot);
+        } catch (NoSuchFileException e) {
+            log.info("本地缓存快照不存在, 跳过预热: {}", snapshot.toAbsolutePath());
+        } catch (InvalidSnapshotException e) {
+            log.warn("本地缓存快照不可用, 已丢弃: {}", e.getMessage());
+            deleteQuietly(snapshot);
+        } catch (Exception e) {
+            log.warn("本地缓存快照加载失败, 已丢弃: {}", e.getMessage(), e);
+            deleteQuietly(snapshot);
+        }
+    }
+
+    /**
+     * 优雅停机时保存快照，在容器销毁Bean之前执行
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void onContextClosed() {
+        if (!enabled) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        try {
+            int count = LocalCacheSnapshotFile.write(Paths.get(path), localUrlCache.hottest(size), startTime);
+            log.info("本地缓存快照保存完成, 条目数: {}, 耗时: {}ms", count, System.currentTimeMillis() - startTime);
+        } catch (Exception e) {
+            log.warn("本地缓存快照保存失败: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 按批从Redis读取快照中的短码，丢弃Redis中已不存在的条目
+     * Redis不可用时抛出异常，整个快照被丢弃，宁可冷启动也不提供可能已删除的链接
+     *
+     * @param entries 快照条目
+     * @return Redis中仍存在的条目及其最新值
+     */
+    private Map<String, CachedUrl> verify(Map<String, CachedUrl> entries) {
+        Map<String, CachedUrl> live = new HashMap<>(entries.size() * 2);
+        List<String> batch = new ArrayList<>(verifyBatchSize);
+        for (String shortCode : entries.keySet()) {
+            batch.add(shortCode);
+            if (batch.size() >= verifyBatchSize) {
+                live.putAll(shortUrlRedisCache.multiGet(batch));
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            live.putAll(shortUrlRedisCache.multiGet(batch));
+        }
+        return live;
+    }
+
+    private void deleteQuietly(Path snapshot) {
+        try {
+            Files.deleteIfExists(snapshot);
+        } catch (Exception e) {
+            log.warn("删除本地缓存快照失败: {}", e.getMessage());
+        }
+    }
+}
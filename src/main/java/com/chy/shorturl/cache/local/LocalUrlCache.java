@@ -0,0 +1,72 @@
+package com.chy.shorturl.cache.local;
+
+import com.chy.shorturl.cache.CachedUrl;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 短链接本地缓存（L1）
+ * 默认基于Caffeine实现，也可切换为原始类型数组实现的紧凑存储
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public interface LocalUrlCache {
+
+    /**
+     * 查询缓存
+     *
+     * @param shortCode 短码
+     * @return 缓存值，不存在返回null
+     */
+    CachedUrl getIfPresent(String shortCode);
+
+    /**
+     * 批量查询缓存
+     *
+     * @param shortCodes 短码集合
+     * @return 命中的短码到缓存值的映射
+     */
+    Map<String, CachedUrl> getAllPresent(Collection<String> shortCodes);
+
+    /**
+     * 写入缓存，缓存时间不超过链接有效期
+     *
+     * @param shortCode 短码
+     * @param cachedUrl 缓存值
+     */
+    void put(String shortCode, CachedUrl cachedUrl);
+
+    /**
+     * 批量写入缓存
+     *
+     * @param cachedUrls 短码到缓存值的映射
+     */
+    void putAll(Map<String, CachedUrl> cachedUrls);
+
+    /**
+     * 删除缓存
+     *
+     * @param shortCode 短码
+     */
+    void invalidate(String shortCode);
+
+    /**
+     * 清空缓存
+     */
+    void invalidateAll();
+
+    /**
+     * 获取最热的条目，用于停机时保存快照
+     *
+     * @param limit 最大条目数
+     * @return 短码到缓存值的映射，按热度从高到低排列
+     */
+    Map<String, CachedUrl> hottest(int limit);
+
+    /**
+     * 当前条目数（估算值）
+     */
+    long estimatedSize();
+}
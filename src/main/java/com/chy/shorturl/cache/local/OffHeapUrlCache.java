@@ -0,0 +1,140 @@
+package com.chy.shorturl.cache.local;
+
+import com.chy.shorturl.cache.CachedUrl;
+import com.chy.shorturl.cache.codec.UrlDictionaryManager;
+import com.chy.shorturl.cache.local.OffHeapUrlStore.OffHeapStoreStats;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 堆外二级本地缓存（L1.5），位于Caffeine本地缓存与Redis之间
+ * 本地缓存未命中时先查堆外存储，命中则提升到本地缓存；从Redis或数据库加载后同时写入堆外存储。
+ * 容量按GB配置，数据不在Java堆上，可容纳数千万条映射而不增加GC压力；
+ * 需保证-XX:MaxDirectMemorySize不小于配置的容量
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+@Component
+public class OffHeapUrlCache {
+
+    private final UrlDictionaryManager urlDictionaryManager;
+
+    @Value("${shorturl.cache.off-heap.enabled:false}")
+    private boolean enabled;
+
+    @Value("${shorturl.cache.off-heap.capacity-mb:1024}")
+    private long capacityMb;
+
+    @Value("${shorturl.cache.off-heap.slot-bytes:256}")
+    private int slotBytes;
+
+    @Value("${shorturl.cache.off-heap.concurrency:64}")
+    private int concurrency;
+
+    @Value("${shorturl.cache.off-heap.expire-seconds:86400}")
+    private long expireSeconds;
+
+    private volatile OffHeapUrlStore store;
+
+    public OffHeapUrlCache(UrlDictionaryManager urlDictionaryManager) {
+        this.urlDictionaryManager = urlDictionaryManager;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        store = new OffHeapUrlStore(capacityMb * 1024 * 1024, slotBytes, concurrency, urlDictionaryManager::current);
+        OffHeapStoreStats stats = store.getStats();
+        log.info("初始化堆外缓存, 容量: {}MB, 槽位: {}字节, 最大条目数: {}, 分段数: {}, 耗时: {}ms",
+                capacityMb, slotBytes, stats.getMaxEntries(), stats.getSegmentCount(),
+                System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * 释放对直接内存的引用，由GC回收
+     */
+    @PreDestroy
+    public void destroy() {
+        store = null;
+    }
+
+    /**
+     * 是否启用堆外缓存
+     */
+    public boolean isEnabled() {
+        return store != null;
+    }
+
+    /**
+     * 查询缓存
+     *
+     * @param shortCode 短码
+     * @return 缓存值，未启用或不存在返回null
+     */
+    public CachedUrl getIfPresent(String shortCode) {
+        OffHeapUrlStore current = store;
+        return current == null ? null : current.get(shortCode, System.currentTimeMillis());
+    }
+
+    /**
+     * 写入缓存，缓存时间不超过链接有效期
+     *
+     * @param shortCode 短码
+     * @param cachedUrl 缓存值
+     */
+    public void put(String shortCode, CachedUrl cachedUrl) {
+        OffHeapUrlStore current = store;
+        if (current == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long ttlMillis = cachedUrl.ttlMillis(TimeUnit.SECONDS.toMillis(expireSeconds), now);
+        if (ttlMillis > 0) {
+            current.put(shortCode, cachedUrl, now + ttlMillis);
+        } else {
+            current.remove(shortCode);
+        }
+    }
+
+    /**
+     * 删除缓存
+     *
+     * @param shortCode 短码
+     */
+    public void invalidate(String shortCode) {
+        OffHeapUrlStore current = store;
+        if (current != null) {
+            current.remove(shortCode);
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        OffHeapUrlStore current = store;
+        if (current != null) {
+            current.clear();
+        }
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return 统计信息，未启用返回null
+     */
+    public OffHeapStoreStats getStats() {
+        OffHeapUrlStore current = store;
+        return current == null ? null : current.getStats();
+    }
+}
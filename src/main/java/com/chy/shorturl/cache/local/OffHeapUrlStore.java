@@ -0,0 +1,436 @@
+package com.chy.shorturl.cache.local;
+
+import com.chy.shorturl.cache.CachedUrl;
+import com.chy.shorturl.cache.codec.UrlDictionary;
+import com.chy.shorturl.common.util.Base62Util;
+import lombok.Data;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 堆外短码到URL存储
+ * 数据保存在allocateDirect分配的直接内存中，不受GC扫描和复制的影响，可按GB配置容量；
+ * 每个条目占用一个定长槽位，槽位布局：
+ * [0]占用标记和短码长度 [1]CLOCK访问位 [2-3]URL字节数 [4-11]短码解码后的long
+ * [12-19]链接过期时间 [20-27]缓存截止时间 [28-]URL的UTF-8字节，超出槽位容量的URL不缓存。
+ * 按哈希分段，每段一块直接内存（单块不超过2GB），线性探测开放寻址、后移删除、CLOCK淘汰；
+ * 读操作使用StampedLock乐观读，写操作持有所在分段的写锁
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public class OffHeapUrlStore {
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private static final byte OCCUPIED = (byte) 0x80;
+    private static final int LENGTH_MASK = 0x0F;
+
+    private static final int FLAG_OFFSET = 0;
+    private static final int REFERENCED_OFFSET = 1;
+    private static final int URL_LENGTH_OFFSET = 2;
+    private static final int KEY_OFFSET = 4;
+    private static final int EXPIRE_AT_OFFSET = 12;
+    private static final int DEADLINE_OFFSET = 20;
+    private static final int HEADER_BYTES = 28;
+
+    private final Segment[] segments;
+    private final int segmentShift;
+    private final int slotBytes;
+    private final long capacityBytes;
+    private final Supplier<UrlDictionary> dictionary;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder oversizeCount = new LongAdder();
+    private final LongAdder unsupportedCount = new LongAdder();
+
+    /**
+     * @param capacityBytes 直接内存总容量（字节）
+     * @param slotBytes     槽位大小（字节），URL的UTF-8字节数超过slotBytes-28时不缓存
+     * @param concurrency   分段数，向上取整为2的幂，并保证单段不超过2GB
+     */
+    public OffHeapUrlStore(long capacityBytes, int slotBytes, int concurrency) {
+        this(capacityBytes, slotBytes, concurrency, () -> UrlDictionary.EMPTY);
+    }
+
+    /**
+     * @param capacityBytes 直接内存总容量（字节）
+     * @param slotBytes     槽位大小（字节），编码后的URL字节数超过slotBytes-28时不缓存
+     * @param concurrency   分段数，向上取整为2的幂，并保证单段不超过2GB
+     * @param dictionary    URL前缀字典，只追加条目，写入时使用的ID在之后的字典中始终可解码
+     */
+    public OffHeapUrlStore(long capacityBytes, int slotBytes, int concurrency, Supplier<UrlDictionary> dictionary) {
+        this.dictionary = dictionary;
+        if (slotBytes <= HEADER_BYTES || slotBytes > HEADER_BYTES + 0xFFFF) {
+            throw new IllegalArgumentException("槽位大小不合法: " + slotBytes);
+        }
+        int segmentCount = concurrency <= 1 ? 1 : Integer.highestOneBit(concurrency - 1) << 1;
+        while (capacityBytes / segmentCount > Integer.MAX_VALUE - slotBytes) {
+            segmentCount <<= 1;
+        }
+        int slotsPerSegment = (int) Math.max(2, capacityBytes / segmentCount / slotBytes);
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(slotsPerSegment, slotBytes);
+        }
+        this.segmentShift = 64 - Integer.numberOfTrailingZeros(segmentCount);
+        this.slotBytes = slotBytes;
+        this.capacityBytes = (long) slotsPerSegment * slotBytes * segmentCount;
+    }
+
+    /**
+     * 查询短码
+     *
+     * @param shortCode 短码
+     * @param nowMillis 当前时间（epoch毫秒）
+     * @return 缓存值，不存在、已超过缓存时间或短码无法编码时返回null
+     */
+    public CachedUrl get(CharSequence shortCode, long nowMillis) {
+        long key = Base62Util.decode(shortCode);
+        if (key < 0) {
+            unsupportedCount.increment();
+            return null;
+        }
+        int length = shortCode.length();
+        long hash = hash(key, length);
+        CachedUrl cachedUrl = segmentFor(hash).get(key, length, (int) hash, nowMillis, dictionary.get());
+        if (cachedUrl == null) {
+            missCount.increment();
+        } else {
+            hitCount.increment();
+        }
+        return cachedUrl;
+    }
+
+    /**
+     * 写入短码
+     *
+     * @param shortCode      短码
+     * @param cachedUrl      缓存值
+     * @param deadlineMillis 缓存截止时间（epoch毫秒）
+     * @return 短码无法编码或URL超出槽位容量时返回false
+     */
+    public boolean put(CharSequence shortCode, CachedUrl cachedUrl, long deadlineMillis) {
+        long key = Base62Util.decode(shortCode);
+        if (key < 0) {
+            unsupportedCount.increment();
+            return false;
+        }
+        byte[] value = dictionary.get().encode(cachedUrl.getOriginalUrl());
+        int length = shortCode.length();
+        long hash = hash(key, length);
+        Segment segment = segmentFor(hash);
+        if (value.length > slotBytes - HEADER_BYTES) {
+            oversizeCount.increment();
+            // 已缓存的旧值可能已过时，一并删除
+            segment.remove(key, length, (int) hash);
+            return false;
+        }
+        if (segment.put(key, length, (int) hash, value, cachedUrl.getExpireAt(), deadlineMillis)) {
+            evictionCount.increment();
+        }
+        return true;
+    }
+
+    /**
+     * 删除短码
+     *
+     * @param shortCode 短码
+     */
+    public void remove(CharSequence shortCode) {
+        long key = Base62Util.decode(shortCode);
+        if (key < 0) {
+            return;
+        }
+        int length = shortCode.length();
+        long hash = hash(key, length);
+        segmentFor(hash).remove(key, length, (int) hash);
+    }
+
+    /**
+     * 清空所有条目，只重置占用标记，不释放直接内存
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * 当前条目数
+     */
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    /**
+     * 获取统计信息
+     */
+    public OffHeapStoreStats getStats() {
+        OffHeapStoreStats stats = new OffHeapStoreStats();
+        long maxEntries = 0;
+        for (Segment segment : segments) {
+            maxEntries += segment.maxSize;
+        }
+        long hits = hitCount.sum();
+        long misses = missCount.sum();
+        stats.setSize(size());
+        stats.setMaxEntries(maxEntries);
+        stats.setCapacityBytes(capacityBytes);
+        stats.setSlotBytes(slotBytes);
+        stats.setSegmentCount(segments.length);
+        stats.setHitCount(hits);
+        stats.setMissCount(misses);
+        stats.setHitRate(hits + misses == 0 ? 0 : (double) hits / (hits + misses));
+        stats.setEvictionCount(evictionCount.sum());
+        stats.setOversizeCount(oversizeCount.sum());
+        stats.setUnsupportedCount(unsupportedCount.sum());
+        return stats;
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments.length == 1 ? segments[0] : segments[(int) (hash >>> segmentShift)];
+    }
+
+    /**
+     * 键和短码长度的64位混合哈希（MurmurHash3 fmix64），高位选择分段，低位选择槽位
+     */
+    private static long hash(long key, int length) {
+        long h = key * 31 + length;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * 存储分段，直接内存在构造时一次分配，容量固定，乐观读不会越界
+     */
+    private static final class Segment {
+        private final StampedLock lock = new StampedLock();
+        private final ByteBuffer buffer;
+        private final int capacity;
+        private final int slotBytes;
+        private final int maxSize;
+
+        private int size;
+        private int hand;
+
+        Segment(int capacity, int slotBytes) {
+            this.buffer = ByteBuffer.allocateDirect(capacity * slotBytes);
+            this.capacity = capacity;
+            this.slotBytes = slotBytes;
+            this.maxSize = Math.max(1, (int) (capacity * LOAD_FACTOR));
+        }
+
+        CachedUrl get(long key, int length, int hash, long nowMillis, UrlDictionary dictionary) {
+            long stamp = lock.tryOptimisticRead();
+            CachedUrl cachedUrl = read(key, length, hash, nowMillis, dictionary);
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    cachedUrl = read(key, length, hash, nowMillis, dictionary);
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return cachedUrl;
+        }
+
+        /**
+         * 读取并复制槽位内容，乐观读期间可能读到不一致的数据，由调用方校验后丢弃
+         */
+        private CachedUrl read(long key, int length, int hash, long nowMillis, UrlDictionary dictionary) {
+            int index = find(key, length, hash);
+            if (index < 0) {
+                return null;
+            }
+            int offset = index * slotBytes;
+            if (buffer.getLong(offset + DEADLINE_OFFSET) <= nowMillis) {
+                return null;
+            }
+            int urlLength = Math.min(buffer.getShort(offset + URL_LENGTH_OFFSET) & 0xFFFF, slotBytes - HEADER_BYTES);
+            byte[] value = new byte[urlLength];
+            buffer.get(offset + HEADER_BYTES, value);
+            long expireAt = buffer.getLong(offset + EXPIRE_AT_OFFSET);
+            buffer.put(offset + REFERENCED_OFFSET, (byte) 1);
+            // 乐观读期间读到的不一致数据可能无法解码，返回null后由调用方校验并重读
+            String url = dictionary.decode(value);
+            return url == null ? null : new CachedUrl(url, expireAt);
+        }
+
+        /**
+         * @return 是否淘汰了其他条目
+         */
+        boolean put(long key, int length, int hash, byte[] value, long expireAt, long deadline) {
+            long stamp = lock.writeLock();
+            try {
+                int index = find(key, length, hash);
+                boolean existing = index >= 0;
+                boolean evicted = false;
+                if (!existing) {
+                    if (size >= maxSize) {
+                        evictOne(System.currentTimeMillis());
+                        evicted = true;
+                    }
+                    index = home(hash);
+                    while (flag(index) != 0) {
+                        index = next(index);
+                    }
+                    size++;
+                }
+                int offset = index * slotBytes;
+                buffer.put(offset + FLAG_OFFSET, (byte) (OCCUPIED | length));
+                buffer.put(offset + REFERENCED_OFFSET, (byte) (existing ? 1 : 0));
+                buffer.putShort(offset + URL_LENGTH_OFFSET, (short) value.length);
+                buffer.putLong(offset + KEY_OFFSET, key);
+                buffer.putLong(offset + EXPIRE_AT_OFFSET, expireAt);
+                buffer.putLong(offset + DEADLINE_OFFSET, deadline);
+                buffer.put(offset + HEADER_BYTES, value);
+                return evicted;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void remove(long key, int length, int hash) {
+            long stamp = lock.writeLock();
+            try {
+                int index = find(key, length, hash);
+                if (index >= 0) {
+                    delete(index);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void clear() {
+            long stamp = lock.writeLock();
+            try {
+                for (int index = 0; index < capacity; index++) {
+                    buffer.put(index * slotBytes + FLAG_OFFSET, (byte) 0);
+                    buffer.put(index * slotBytes + REFERENCED_OFFSET, (byte) 0);
+                }
+                size = 0;
+                hand = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private byte flag(int index) {
+            return buffer.get(index * slotBytes + FLAG_OFFSET);
+        }
+
+        private int home(int hash) {
+            return (int) (((hash & 0xFFFFFFFFL) * capacity) >>> 32);
+        }
+
+        private int next(int index) {
+            return index + 1 == capacity ? 0 : index + 1;
+        }
+
+        /**
+         * 线性探测查找，最多探测一整圈，避免乐观读期间因并发修改而死循环
+         */
+        private int find(long key, int length, int hash) {
+            int index = home(hash);
+            for (int probes = 0; probes < capacity; probes++) {
+                byte flag = flag(index);
+                if (flag == 0) {
+                    return -1;
+                }
+                if ((flag & LENGTH_MASK) == length && buffer.getLong(index * slotBytes + KEY_OFFSET) == key) {
+                    return index;
+                }
+                index = next(index);
+            }
+            return -1;
+        }
+
+        /**
+         * CLOCK淘汰：优先淘汰已超过缓存时间的条目，其次是访问位为0的条目
+         */
+        private void evictOne(long nowMillis) {
+            while (true) {
+                int index = hand;
+                hand = next(hand);
+                int offset = index * slotBytes;
+                if (buffer.get(offset + FLAG_OFFSET) == 0) {
+                    continue;
+                }
+                if (buffer.getLong(offset + DEADLINE_OFFSET) > nowMillis && buffer.get(offset + REFERENCED_OFFSET) != 0) {
+                    buffer.put(offset + REFERENCED_OFFSET, (byte) 0);
+                    continue;
+                }
+                delete(index);
+                // 后移删除可能把后面的条目移到当前位置，指针回退以便检查它
+                hand = index;
+                return;
+            }
+        }
+
+        /**
+         * 后移删除：把同一探测链上后续的条目前移填补空位，不使用墓碑
+         */
+        private void delete(int index) {
+            size--;
+            int hole = index;
+            int next = index;
+            while (true) {
+                next = next(next);
+                byte flag = flag(next);
+                if (flag == 0) {
+                    break;
+                }
+                int nextOffset = next * slotBytes;
+                int home = home((int) hash(buffer.getLong(nextOffset + KEY_OFFSET), flag & LENGTH_MASK));
+                boolean stays = hole <= next ? (hole < home && home <= next) : (hole < home || home <= next);
+                if (stays) {
+                    continue;
+                }
+                int usedBytes = HEADER_BYTES + (buffer.getShort(nextOffset + URL_LENGTH_OFFSET) & 0xFFFF);
+                buffer.put(hole * slotBytes, buffer, nextOffset, usedBytes);
+                hole = next;
+            }
+            buffer.put(hole * slotBytes + FLAG_OFFSET, (byte) 0);
+            buffer.put(hole * slotBytes + REFERENCED_OFFSET, (byte) 0);
+        }
+    }
+
+    /**
+     * 堆外存储统计
+     */
+    @Data
+    public static class OffHeapStoreStats {
+        private long size;
+        private long maxEntries;
+        private long capacityBytes;
+        private int slotBytes;
+        private int segmentCount;
+        private long hitCount;
+        private long missCount;
+        private double hitRate;
+        private long evictionCount;
+        /**
+         * URL超出槽位容量而未缓存的次数
+         */
+        private long oversizeCount;
+        /**
+         * 无法解码为long而未缓存的短码次数
+         */
+        private long unsupportedCount;
+    }
+}
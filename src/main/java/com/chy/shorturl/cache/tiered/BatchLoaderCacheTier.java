@@ -0,0 +1,40 @@
+package com.chy.shorturl.cache.tiered;
+
+import com.chy.shorturl.cache.BatchUrlLoader;
+import com.chy.shorturl.cache.CachedUrl;
+import com.chy.shorturl.cache.ShortUrlRedisCache;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 批量加载层：开启批量加载时取代Redis层和数据库层，
+ * 与同一时间窗口内其他短码的加载合并为一次MGET和一次IN查询，数据库命中时由加载器回填Redis
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@RequiredArgsConstructor
+public class BatchLoaderCacheTier implements CacheTier {
+
+    private final BatchUrlLoader batchUrlLoader;
+    private final ShortUrlRedisCache shortUrlRedisCache;
+
+    @Override
+    public String getName() {
+        return "batchLoader";
+    }
+
+    @Override
+    public CachedUrl get(String shortCode) {
+        return batchUrlLoader.load(shortCode);
+    }
+
+    @Override
+    public void put(String shortCode, CachedUrl cachedUrl) {
+        shortUrlRedisCache.put(shortCode, cachedUrl);
+    }
+
+    @Override
+    public void invalidate(String shortCode) {
+        shortUrlRedisCache.delete(shortCode);
+    }
+}
@@ -0,0 +1,56 @@
+package com.chy.shorturl.cache.tiered;
+
+import com.chy.shorturl.cache.CachedUrl;
+
+/**
+ * 分层缓存中位于Caffeine本地缓存之后的一层
+ * 由TieredCache按顺序查询，靠前的层未命中时查询下一层，命中后回填之前的各层；
+ * 各层写入时自行按CachedUrl.ttlMillis取本层缓存时间与链接剩余有效期中的较小值，保证各层过期时间一致
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public interface CacheTier {
+
+    /**
+     * 层名称，用于统计
+     */
+    String getName();
+
+    /**
+     * 是否为本进程内的镜像层（如堆外缓存）
+     * 后台刷新时跳过本地层直接查询远端，避免用本地副本刷新本地副本，刷新结果再回填本地层
+     */
+    default boolean isLocal() {
+        return false;
+    }
+
+    /**
+     * 查询
+     *
+     * @param shortCode 短码
+     * @return 缓存值（可能已过期），不存在返回null
+     */
+    CachedUrl get(String shortCode);
+
+    /**
+     * 回填
+     *
+     * @param shortCode 短码
+     * @param cachedUrl 缓存值
+     */
+    void put(String shortCode, CachedUrl cachedUrl);
+
+    /**
+     * 删除
+     *
+     * @param shortCode 短码
+     */
+    void invalidate(String shortCode);
+
+    /**
+     * 清空，仅在本进程内的镜像层上调用
+     */
+    default void invalidateAll() {
+    }
+}
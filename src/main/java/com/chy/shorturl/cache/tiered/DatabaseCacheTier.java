@@ -0,0 +1,75 @@
+package com.chy.shorturl.cache.tiered;
+
+import com.chy.shorturl.cache.CachedUrl;
+import com.chy.shorturl.cache.ShortCodeBloomFilter;
+import com.chy.shorturl.cache.SingleFlightLoader;
+import com.chy.shorturl.entity.UrlMapping;
+import com.chy.shorturl.mapper.UrlMappingMapper;
+import com.chy.shorturl.strategy.ShortUrlGenerateStrategy;
+
+/**
+ * 数据库层，作为分层缓存的数据源，不接受回填
+ * 布隆过滤器判定不存在时不查询数据库；查询经SingleFlightLoader执行，开启集群模式时同一短码集群内串行回源，
+ * 租约内先复查Redis、回源结果在释放租约前写回Redis；
+ * 开启主键读写时优先按短码还原的主键点查，未命中（如启用前写入的数据）再走短码索引
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public class DatabaseCacheTier implements CacheTier {
+
+    private final UrlMappingMapper urlMappingMapper;
+    private final ShortCodeBloomFilter shortCodeBloomFilter;
+    private final SingleFlightLoader singleFlightLoader;
+    private final ShortUrlGenerateStrategy shortUrlGenerateStrategy;
+    private final boolean pkLookupEnabled;
+
+    public DatabaseCacheTier(UrlMappingMapper urlMappingMapper,
+                             ShortCodeBloomFilter shortCodeBloomFilter,
+                             SingleFlightLoader singleFlightLoader,
+                             ShortUrlGenerateStrategy shortUrlGenerateStrategy,
+                             boolean pkLookupEnabled) {
+        this.urlMappingMapper = urlMappingMapper;
+        this.shortCodeBloomFilter = shortCodeBloomFilter;
+        this.singleFlightLoader = singleFlightLoader;
+        this.shortUrlGenerateStrategy = shortUrlGenerateStrategy;
+        this.pkLookupEnabled = pkLookupEnabled;
+    }
+
+    @Override
+    public String getName() {
+        return "database";
+    }
+
+    @Override
+    public CachedUrl get(String shortCode) {
+        if (!shortCodeBloomFilter.mightContain(shortCode)) {
+            return null;
+        }
+        return singleFlightLoader.load(shortCode, () -> query(shortCode));
+    }
+
+    @Override
+    public void put(String shortCode, CachedUrl cachedUrl) {
+        // 数据源，无需回填
+    }
+
+    @Override
+    public void invalidate(String shortCode) {
+        // 数据源，无需删除
+    }
+
+    private CachedUrl query(String shortCode) {
+        UrlMapping urlMapping = null;
+        if (pkLookupEnabled) {
+            long id = shortUrlGenerateStrategy.decodeId(shortCode);
+            if (id > 0) {
+                urlMapping = urlMappingMapper.findUrlById(id, shortCode);
+            }
+        }
+        if (urlMapping == null) {
+            urlMapping = urlMappingMapper.findByShortCode(shortCode);
+        }
+        return urlMapping == null ? null : CachedUrl.of(urlMapping);
+    }
+}
@@ -0,0 +1,47 @@
+package com.chy.shorturl.cache.tiered;
+
+import com.chy.shorturl.cache.CachedUrl;
+import com.chy.shorturl.cache.local.LocalUrlCache;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 紧凑存储层：本地缓存选用COMPACT实现时，紧凑存储作为容量较大的本地层位于Caffeine之后
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@RequiredArgsConstructor
+public class LocalStoreCacheTier implements CacheTier {
+
+    private final LocalUrlCache localUrlCache;
+
+    @Override
+    public String getName() {
+        return "compactStore";
+    }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
+
+    @Override
+    public CachedUrl get(String shortCode) {
+        return localUrlCache.getIfPresent(shortCode);
+    }
+
+    @Override
+    public void put(String shortCode, CachedUrl cachedUrl) {
+        localUrlCache.put(shortCode, cachedUrl);
+    }
+
+    @Override
+    public void invalidate(String shortCode) {
+        localUrlCache.invalidate(shortCode);
+    }
+
+    @Override
+    public void invalidateAll() {
+        localUrlCache.invalidateAll();
+    }
+}
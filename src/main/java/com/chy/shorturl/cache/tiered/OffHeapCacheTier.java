@@ -0,0 +1,47 @@
+package com.chy.shorturl.cache.tiered;
+
+import com.chy.shorturl.cache.CachedUrl;
+import com.chy.shorturl.cache.local.OffHeapUrlCache;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 堆外缓存层（L1.5）
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@RequiredArgsConstructor
+public class OffHeapCacheTier implements CacheTier {
+
+    private final OffHeapUrlCache offHeapUrlCache;
+
+    @Override
+    public String getName() {
+        return "offHeap";
+    }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
+
+    @Override
+    public CachedUrl get(String shortCode) {
+        return offHeapUrlCache.getIfPresent(shortCode);
+    }
+
+    @Override
+    public void put(String shortCode, CachedUrl cachedUrl) {
+        offHeapUrlCache.put(shortCode, cachedUrl);
+    }
+
+    @Override
+    public void invalidate(String shortCode) {
+        offHeapUrlCache.invalidate(shortCode);
+    }
+
+    @Override
+    public void invalidateAll() {
+        offHeapUrlCache.invalidateAll();
+    }
+}
@@ -0,0 +1,37 @@
+package com.chy.shorturl.cache.tiered;
+
+import com.chy.shorturl.cache.CachedUrl;
+import com.chy.shorturl.cache.ShortUrlRedisCache;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Redis缓存层
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@RequiredArgsConstructor
+public class RedisCacheTier implements CacheTier {
+
+    private final ShortUrlRedisCache shortUrlRedisCache;
+
+    @Override
+    public String getName() {
+        return "redis";
+    }
+
+    @Override
+    public CachedUrl get(String shortCode) {
+        return shortUrlRedisCache.get(shortCode);
+    }
+
+    @Override
+    public void put(String shortCode, CachedUrl cachedUrl) {
+        shortUrlRedisCache.put(shortCode, cachedUrl);
+    }
+
+    @Override
+    public void invalidate(String shortCode) {
+        shortUrlRedisCache.delete(shortCode);
+    }
+}
@@ -0,0 +1,398 @@
+package com.chy.shorturl.cache.tiered;
+
+import com.chy.shorturl.cache.CachedUrl;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 刷新前置的分层缓存
+ * 第一层为Caffeine AsyncLoadingCache，之后按顺序挂接任意CacheTier（如堆外缓存、Redis、数据库）。
+ * 未命中时在首个请求的调用线程中逐层查询，命中后回填之前的各层，同一键的其他请求等待该次加载完成，不占用任何线程池；
+ * 条目写入超过refreshAfterWrite后的首次读取立即返回旧值，同时在刷新线程池中跳过本地层重新加载（stale-while-revalidate），
+ * 刷新线程池已满时放弃本次刷新而不是在调用线程中执行，热点链接的读取永远不会阻塞在重新加载上。
+ * 各层过期时间均取本层缓存时间与链接剩余有效期中的较小值，第一层的过期时间由构建器的Expiry决定。
+ * 第一层之前还有一个不淘汰的固定区，由热点检测器放入和移出，删除和失效操作同样作用于固定区
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+public class TieredCache {
+
+    private final AsyncLoadingCache<String, CachedUrl> cache;
+    private final ConcurrentHashMap<String, CachedUrl> pinned = new ConcurrentHashMap<>();
+    private final List<CacheTier> tiers;
+    private final List<TierMetrics> tierMetrics;
+    private final Executor refreshExecutor;
+    private final Duration refreshAfterWrite;
+
+    private final LongAdder pinnedHitCount = new LongAdder();
+    private final LongAdder refreshCount = new LongAdder();
+    private final LongAdder refreshRejectedCount = new LongAdder();
+    private final LongAdder refreshFailureCount = new LongAdder();
+
+    /**
+     * @param builder           第一层的Caffeine构建器（已配置容量、过期策略和统计）
+     * @param tiers             后续各层，按查询顺序排列，最后一层为数据源
+     * @param refreshExecutor   后台刷新线程池，无法接收任务时应抛出RejectedExecutionException
+     * @param refreshAfterWrite 写入后多久触发后台刷新，应小于第一层的缓存时间
+     */
+    public TieredCache(Caffeine<? super String, ? super CachedUrl> builder, List<CacheTier> tiers,
+                       Executor refreshExecutor, Duration refreshAfterWrite) {
+        this.tiers = List.copyOf(tiers);
+        this.tierMetrics = new ArrayList<>(tiers.size());
+        for (CacheTier tier : this.tiers) {
+            tierMetrics.add(new TierMetrics(tier));
+        }
+        this.refreshExecutor = refreshExecutor;
+        this.refreshAfterWrite = refreshAfterWrite;
+        this.cache = builder.refreshAfterWrite(refreshAfterWrite).buildAsync(new TierLoader());
+    }
+
+    /**
+     * 查询固定区和第一层，不触发加载；超过刷新时间的条目返回旧值并触发后台刷新
+     *
+     * @param shortCode 短码
+     * @return 缓存值，不存在返回null
+     */
+    public CachedUrl getIfPresent(String shortCode) {
+        CachedUrl cachedUrl = pinned.get(shortCode);
+        if (cachedUrl != null) {
+            pinnedHitCount.increment();
+            return cachedUrl;
+        }
+        return cache.synchronous().getIfPresent(shortCode);
+    }
+
+    /**
+     * 查询，第一层未命中时逐层加载，阻塞直到加载完成
+     * 首个未命中的请求在本线程中加载，加载线程若阻塞在下游（如批量加载器）上也不会占住其他任务所需的线程池
+     *
+     * @param shortCode 短码
+     * @return 缓存值（可能已过期），各层均不存在返回null
+     */
+    public CachedUrl get(String shortCode) {
+        CompletableFuture<CachedUrl> created = new CompletableFuture<>();
+        CompletableFuture<CachedUrl> future = cache.get(shortCode, (key, executor) -> created);
+        if (future == created) {
+            try {
+                created.complete(load(shortCode, false));
+            } catch (Throwable e) {
+                created.completeExceptionally(e);
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    /**
+     * 从第一层和所有后续层删除
+     *
+     * @param shortCode 短码
+     */
+    public void invalidate(String shortCode) {
+        pinned.remove(shortCode);
+        cache.synchronous().invalidate(shortCode);
+        for (CacheTier tier : tiers) {
+            try {
+                tier.invalidate(shortCode);
+            } catch (RuntimeException e) {
+                log.warn("删除分层缓存失败, 层: {}, shortCode: {}, 异常信息: {}", tier.getName(), shortCode, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 从第一层和本地层删除，用于其他节点修改或删除链接后清除本节点的副本
+     *
+     * @param shortCode 短码
+     */
+    public void invalidateLocal(String shortCode) {
+        pinned.remove(shortCode);
+        cache.synchronous().invalidate(shortCode);
+        for (CacheTier tier : tiers) {
+            if (tier.isLocal()) {
+                tier.invalidate(shortCode);
+            }
+        }
+    }
+
+    /**
+     * 清空第一层和本地层，用于无法确认是否错过了失效通知时
+     */
+    public void invalidateAllLocal() {
+        pinned.clear();
+        cache.synchronous().invalidateAll();
+        for (CacheTier tier : tiers) {
+            if (tier.isLocal()) {
+                tier.invalidateAll();
+            }
+        }
+    }
+
+    /**
+     * 放入固定区，固定区中的条目不会被淘汰，也不会过期，需由调用方移出或重新放入
+     *
+     * @param shortCode 短码
+     * @param cachedUrl 缓存值
+     */
+    public void pin(String shortCode, CachedUrl cachedUrl) {
+        pinned.put(shortCode, cachedUrl);
+    }
+
+    /**
+     * 移出固定区
+     *
+     * @param shortCode 短码
+     */
+    public void unpin(String shortCode) {
+        pinned.remove(shortCode);
+    }
+
+    /**
+     * 固定区中的短码
+     */
+    public Set<String> pinnedKeys() {
+        return Collections.unmodifiableSet(pinned.keySet());
+    }
+
+    /**
+     * 第一层的同步视图，供本地缓存写入、快照和统计使用
+     */
+    public Cache<String, CachedUrl> synchronous() {
+        return cache.synchronous();
+    }
+
+    /**
+     * 获取统计信息
+     */
+    public TieredCacheStats getStats() {
+        CacheStats cacheStats = cache.synchronous().stats();
+        TieredCacheStats stats = new TieredCacheStats();
+        stats.setSize(cache.synchronous().estimatedSize());
+        stats.setHitCount(cacheStats.hitCount());
+        stats.setMissCount(cacheStats.missCount());
+        stats.setHitRate(cacheStats.hitRate());
+        stats.setLoadSuccessCount(cacheStats.loadSuccessCount());
+        stats.setLoadFailureCount(cacheStats.loadFailureCount());
+        stats.setAverageLoadMillis(cacheStats.averageLoadPenalty() / 1_000_000.0);
+        stats.setPinnedSize(pinned.size());
+        stats.setPinnedHitCount(pinnedHitCount.sum());
+        stats.setRefreshAfterWriteSeconds(refreshAfterWrite.toSeconds());
+        stats.setRefreshCount(refreshCount.sum());
+        stats.setRefreshRejectedCount(refreshRejectedCount.sum());
+        stats.setRefreshFailureCount(refreshFailureCount.sum());
+        List<TierStats> tierStats = new ArrayList<>(tierMetrics.size());
+        for (TierMetrics metrics : tierMetrics) {
+            tierStats.add(metrics.toStats());
+        }
+        stats.setTiers(tierStats);
+        return stats;
+    }
+
+    /**
+     * 逐层加载
+     *
+     * @param shortCode 短码
+     * @param refresh   是否为后台刷新，刷新时跳过本地层
+     * @return 缓存值（可能已过期），不存在返回null
+     */
+    private CachedUrl load(String shortCode, boolean refresh) {
+        int last = tiers.size() - 1;
+        for (int i = 0; i <= last; i++) {
+            CacheTier tier = tiers.get(i);
+            if (refresh && tier.isLocal()) {
+                continue;
+            }
+            TierMetrics metrics = tierMetrics.get(i);
+            long startNanos = System.nanoTime();
+            CachedUrl cachedUrl;
+            try {
+                cachedUrl = tier.get(shortCode);
+            } catch (RuntimeException e) {
+                metrics.recordError(System.nanoTime() - startNanos);
+                if (i == last) {
+                    throw e;
+                }
+                // 缓存层故障时继续查询下一层
+                log.warn("查询分层缓存失败, 层: {}, shortCode: {}, 异常信息: {}", tier.getName(), shortCode, e.getMessage());
+                continue;
+            }
+            metrics.record(cachedUrl != null, System.nanoTime() - startNanos);
+            if (cachedUrl != null) {
+                backfill(shortCode, cachedUrl, i);
+                return cachedUrl;
+            }
+        }
+        if (refresh) {
+            // 数据源中已不存在，本地层中的副本一并删除
+            for (CacheTier tier : tiers) {
+                if (tier.isLocal()) {
+                    tier.invalidate(shortCode);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 回填命中层之前的各层，已过期的值由各层自行跳过
+     */
+    private void backfill(String shortCode, CachedUrl cachedUrl, int hitIndex) {
+        for (int i = 0; i < hitIndex; i++) {
+            CacheTier tier = tiers.get(i);
+            try {
+                tier.put(shortCode, cachedUrl);
+            } catch (RuntimeException e) {
+                log.warn("回填分层缓存失败, 层: {}, shortCode: {}, 异常信息: {}", tier.getName(), shortCode, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 第一层的异步加载器
+     */
+    private class TierLoader implements AsyncCacheLoader<String, CachedUrl> {
+
+        /**
+         * 仅在未经get的加载路径（如同步视图的加载）中使用，get在调用线程中加载
+         */
+        @Override
+        public CompletableFuture<CachedUrl> asyncLoad(String key, Executor executor) {
+            return CompletableFuture.supplyAsync(() -> load(key, false), executor);
+        }
+
+        @Override
+        public CompletableFuture<CachedUrl> asyncReload(String key, CachedUrl oldValue, Executor executor) {
+            CompletableFuture<CachedUrl> future;
+            try {
+                future = CompletableFuture.supplyAsync(() -> load(key, true), refreshExecutor);
+            } catch (RejectedExecutionException e) {
+                // 取消的刷新由Caffeine静默丢弃并保留旧值，下次读取时再尝试
+                refreshRejectedCount.increment();
+                future = new CompletableFuture<>();
+                future.cancel(false);
+                return future;
+            }
+            refreshCount.increment();
+            return future.whenComplete((value, error) -> {
+                if (error != null) {
+                    refreshFailureCount.increment();
+                }
+            });
+        }
+    }
+
+    /**
+     * 单层的命中、未命中、异常次数和耗时
+     */
+    private static final class TierMetrics {
+        private final String name;
+        private final boolean local;
+        private final LongAdder hitCount = new LongAdder();
+        private final LongAdder missCount = new LongAdder();
+        private final LongAdder errorCount = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        TierMetrics(CacheTier tier) {
+            this.name = tier.getName();
+            this.local = tier.isLocal();
+        }
+
+        void record(boolean hit, long elapsedNanos) {
+            (hit ? hitCount : missCount).increment();
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulate(elapsedNanos);
+        }
+
+        void recordError(long elapsedNanos) {
+            errorCount.increment();
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulate(elapsedNanos);
+        }
+
+        TierStats toStats() {
+            long hits = hitCount.sum();
+            long misses = missCount.sum();
+            long requests = hits + misses + errorCount.sum();
+            TierStats stats = new TierStats();
+            stats.setName(name);
+            stats.setLocal(local);
+            stats.setHitCount(hits);
+            stats.setMissCount(misses);
+            stats.setErrorCount(errorCount.sum());
+            stats.setHitRate(requests == 0 ? 0 : (double) hits / requests);
+            stats.setAverageLatencyMillis(requests == 0 ? 0 : totalNanos.sum() / 1_000_000.0 / requests);
+            stats.setMaxLatencyMillis(TimeUnit.NANOSECONDS.toMicros(maxNanos.get()) / 1000.0);
+            return stats;
+        }
+    }
+
+    /**
+     * 分层缓存统计，命中率等字段针对第一层
+     */
+    @Data
+    public static class TieredCacheStats {
+        private long size;
+        private long hitCount;
+        private long missCount;
+        private double hitRate;
+        private long loadSuccessCount;
+        private long loadFailureCount;
+        private double averageLoadMillis;
+        /**
+         * 固定区条目数和命中次数，固定区命中不计入第一层的命中次数
+         */
+        private int pinnedSize;
+        private long pinnedHitCount;
+        private long refreshAfterWriteSeconds;
+        /**
+         * 已提交的后台刷新次数
+         */
+        private long refreshCount;
+        /**
+         * 刷新线程池已满而放弃的刷新次数
+         */
+        private long refreshRejectedCount;
+        private long refreshFailureCount;
+        private List<TierStats> tiers;
+    }
+
+    /**
+     * 单层统计
+     */
+    @Data
+    public static class TierStats {
+        private String name;
+        private boolean local;
+        private long hitCount;
+        private long missCount;
+        private long errorCount;
+        private double hitRate;
+        private double averageLatencyMillis;
+        private double maxLatencyMillis;
+    }
+}
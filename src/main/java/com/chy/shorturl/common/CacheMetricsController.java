@@ -1,6 +1,29 @@
 package com.chy.shorturl.common;
 
+import com.chy.shorturl.cache.BatchUrlLoader;
+import com.chy.shorturl.cache.BatchUrlLoader.BatchLoaderStats;
+import com.chy.shorturl.cache.CacheInvalidationBus;
+import com.chy.shorturl.cache.CacheInvalidationBus.InvalidationStats;
+import com.chy.shorturl.cache.CacheWarmer;
+import com.chy.shorturl.cache.CacheWarmer.WarmUpStats;
+import com.chy.shorturl.cache.CachedUrl;
+import com.chy.shorturl.cache.SingleFlightLoader;
+import com.chy.shorturl.cache.codec.UrlDictionaryManager;
+import com.chy.shorturl.cache.codec.UrlDictionaryManager.DictionaryStats;
+import com.chy.shorturl.cache.local.CompactLocalUrlCache;
+import com.chy.shorturl.cache.local.CompactUrlStore.CompactStoreStats;
+import com.chy.shorturl.cache.local.LocalUrlCache;
+import com.chy.shorturl.cache.local.OffHeapUrlCache;
+import com.chy.shorturl.cache.local.OffHeapUrlStore.OffHeapStoreStats;
+import com.chy.shorturl.cache.SingleFlightLoader.SingleFlightStats;
+import com.chy.shorturl.cache.tiered.TieredCache;
+import com.chy.shorturl.cache.tiered.TieredCache.TieredCacheStats;
+import com.chy.shorturl.strategy.pool.ShortCodePool;
+import com.chy.shorturl.strategy.pool.ShortCodePool.CodePoolStats;
+import com.chy.shorturl.write.GroupCommitWriter;
+import com.chy.shorturl.write.GroupCommitWriter.GroupCommitStats;
 import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
 import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
@@ -22,25 +45,128 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class CacheMetricsController {
 
-    private final Cache<String, String> shortUrlLocalCache;
+    private final Cache<String, CachedUrl> shortUrlLocalCache;
     private final Cache<String, Object> metadataLocalCache;
+    private final Cache<String, Boolean> shortUrlNegativeCache;
+    private final LocalUrlCache localUrlCache;
+    private final OffHeapUrlCache offHeapUrlCache;
+    private final TieredCache shortUrlTieredCache;
+    private final CacheWarmer cacheWarmer;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final UrlDictionaryManager urlDictionaryManager;
+    private final SingleFlightLoader singleFlightLoader;
+    private final BatchUrlLoader batchUrlLoader;
+    private final ShortCodePool shortCodePool;
+    private final GroupCommitWriter groupCommitWriter;
 
     /**
      * 获取缓存统计信息
      */
     @GetMapping("/stats")
     public Result<Map<String, CacheMetrics>> getCacheStats() {
-        Map<String, CacheMetrics> result = new HashMap<>(2);
+        Map<String, CacheMetrics> result = new HashMap<>(4);
         
         // 短链接缓存统计
         result.put("shortUrlCache", createCacheMetrics(shortUrlLocalCache));
         
+        // 空值缓存统计
+        result.put("negativeCache", createCacheMetrics(shortUrlNegativeCache));
+        
         // 元数据缓存统计
         result.put("metadataCache", createCacheMetrics(metadataLocalCache));
         
+        // 堆外缓存统计
+        OffHeapStoreStats offHeapStats = offHeapUrlCache.getStats();
+        if (offHeapStats != null) {
+            result.put("offHeapCache", createCacheMetrics(offHeapStats));
+        }
+        
         return Result.success(result);
     }
     
+    /**
+     * 获取分层缓存统计信息，包括后台刷新次数和各层的命中率、耗时
+     */
+    @GetMapping("/tiered")
+    public Result<TieredCacheStats> getTieredCacheStats() {
+        return Result.success(shortUrlTieredCache.getStats());
+    }
+    
+    /**
+     * 获取堆外缓存统计信息，未启用时返回null
+     */
+    @GetMapping("/off-heap")
+    public Result<OffHeapStoreStats> getOffHeapStats() {
+        return Result.success(offHeapUrlCache.getStats());
+    }
+    
+    /**
+     * 获取紧凑存储统计信息，本地缓存未使用紧凑存储时返回null
+     */
+    @GetMapping("/compact-store")
+    public Result<CompactStoreStats> getCompactStoreStats() {
+        if (localUrlCache instanceof CompactLocalUrlCache compactLocalUrlCache) {
+            return Result.success(compactLocalUrlCache.getStore().getStats());
+        }
+        return Result.success(null);
+    }
+    
+    /**
+     * 获取启动预热统计信息
+     */
+    @GetMapping("/warm-up")
+    public Result<WarmUpStats> getWarmUpStats() {
+        return Result.success(cacheWarmer.getStats());
+    }
+    
+    /**
+     * 获取跨节点缓存失效总线统计信息
+     */
+    @GetMapping("/invalidation")
+    public Result<InvalidationStats> getInvalidationStats() {
+        return Result.success(cacheInvalidationBus.getStats());
+    }
+    
+    /**
+     * 获取URL前缀字典统计信息
+     */
+    @GetMapping("/url-dictionary")
+    public Result<DictionaryStats> getUrlDictionaryStats() {
+        return Result.success(urlDictionaryManager.getStats());
+    }
+    
+    /**
+     * 获取缓存未命中请求合并统计信息
+     */
+    @GetMapping("/single-flight")
+    public Result<SingleFlightStats> getSingleFlightStats() {
+        return Result.success(singleFlightLoader.getStats());
+    }
+    
+    /**
+     * 获取缓存未命中批量加载统计信息
+     */
+    @GetMapping("/batch-loader")
+    public Result<BatchLoaderStats> getBatchLoaderStats() {
+        return Result.success(batchUrlLoader.getStats());
+    }
+    
+    /**
+     * 获取预生成短码池统计信息
+     */
+    @GetMapping("/code-pool")
+    public Result<CodePoolStats> getCodePoolStats() {
+        return Result.success(shortCodePool.getStats());
+    }
+    
+    /**
+     * 获取组提交写入统计信息
+     */
+    @GetMapping("/group-commit")
+    public Result<GroupCommitStats> getGroupCommitStats() {
+        return Result.success(groupCommitWriter.getStats());
+    }
+    
     /**
      * 创建缓存统计指标
      */
@@ -58,9 +184,42 @@ public class CacheMetricsController {
         metrics.setEvictionCount(stats.evictionCount());
         metrics.setTotalLoadTime(stats.totalLoadTime() / 1_000_000.0); // 纳秒转毫秒
         
+        // W-TinyLFU准入淘汰统计：准入时被拒绝的新条目同样计入淘汰，按权重限制时权重单位为估算字节数
+        metrics.setEvictionWeight(stats.evictionWeight());
+        cache.policy().eviction().ifPresent(eviction -> fillEvictionMetrics(metrics, eviction));
+        
         return metrics;
     }
     
+    /**
+     * 根据堆外缓存统计创建缓存统计指标，容量单位为条目数
+     */
+    private CacheMetrics createCacheMetrics(OffHeapStoreStats stats) {
+        CacheMetrics metrics = new CacheMetrics();
+        metrics.setSize(stats.getSize());
+        metrics.setHitCount(stats.getHitCount());
+        metrics.setMissCount(stats.getMissCount());
+        metrics.setHitRate(stats.getHitRate());
+        metrics.setMissRate(1 - stats.getHitRate());
+        metrics.setEvictionCount(stats.getEvictionCount());
+        metrics.setMaximum(stats.getMaxEntries());
+        metrics.setWeightedSize(stats.getSize());
+        metrics.setUsageRate(stats.getMaxEntries() == 0 ? 0 : (double) stats.getSize() / stats.getMaxEntries());
+        return metrics;
+    }
+    
+    /**
+     * 填充容量上限与当前占用
+     */
+    private void fillEvictionMetrics(CacheMetrics metrics, Policy.Eviction<?, ?> eviction) {
+        metrics.setWeighted(eviction.isWeighted());
+        metrics.setMaximum(eviction.getMaximum());
+        long weightedSize = eviction.weightedSize().orElse(metrics.getSize());
+        metrics.setWeightedSize(weightedSize);
+        metrics.setUsageRate(eviction.getMaximum() == 0 ? 0 : (double) weightedSize / eviction.getMaximum());
+        metrics.setAverageWeight(metrics.getSize() == 0 ? 0 : (double) weightedSize / metrics.getSize());
+    }
+    
     /**
      * 缓存统计指标
      */
@@ -75,5 +234,11 @@ public class CacheMetricsController {
         private long loadFailureCount;
         private long evictionCount;
         private double totalLoadTime; // 毫秒
+        private boolean weighted; // 是否按权重（估算字节数）限制容量
+        private long maximum; // 容量上限，按权重限制时为字节数
+        private long weightedSize; // 当前占用，按权重限制时为字节数
+        private double usageRate;
+        private double averageWeight; // 平均每条目权重
+        private long evictionWeight; // 累计淘汰的权重
     }
 } 
\ No newline at end of file
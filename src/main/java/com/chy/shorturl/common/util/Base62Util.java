@@ -0,0 +1,127 @@
+package com.chy.shorturl.common.util;
+
+import java.util.Arrays;
+
+/**
+ * 62进制编解码工具类
+ * 字符表为0-9、a-z、A-Z，编码直接写入定长字符数组，解码为查表运算，均不产生中间对象
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public class Base62Util {
+
+    /**
+     * 62进制字符表
+     */
+    public static final char[] ALPHABET = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    public static final int BASE = ALPHABET.length;
+
+    /**
+     * long最大值编码后的长度
+     */
+    public static final int MAX_ENCODED_LENGTH = 11;
+
+    /**
+     * 字符到数值的反查表，非法字符为-1
+     */
+    private static final byte[] INDEX = new byte[128];
+
+    static {
+        Arrays.fill(INDEX, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            INDEX[ALPHABET[i]] = (byte) i;
+        }
+    }
+
+    private Base62Util() {
+        // 工具类禁止实例化
+    }
+
+    /**
+     * 编码非负整数，结果长度不足minLength时左侧补'0'，超过时保留完整编码（不截断）
+     *
+     * @param value     非负整数
+     * @param minLength 最小长度
+     * @return 62进制字符串
+     */
+    public static String encode(long value, int minLength) {
+        int length = Math.max(encodedLength(value), minLength);
+        char[] chars = new char[length];
+        encode(value, chars, 0, length);
+        return new String(chars);
+    }
+
+    /**
+     * 编码非负整数，不补位
+     *
+     * @param value 非负整数
+     * @return 62进制字符串
+     */
+    public static String encode(long value) {
+        return encode(value, 1);
+    }
+
+    /**
+     * 将非负整数按定长编码写入字符数组，高位不足补'0'
+     *
+     * @param value  非负整数
+     * @param dest   目标数组
+     * @param offset 起始位置
+     * @param length 编码长度，须不小于encodedLength(value)
+     */
+    public static void encode(long value, char[] dest, int offset, int length) {
+        if (value < 0) {
+            throw new IllegalArgumentException("不支持负数: " + value);
+        }
+        for (int i = offset + length - 1; i >= offset; i--) {
+            dest[i] = ALPHABET[(int) (value % BASE)];
+            value /= BASE;
+        }
+        if (value != 0) {
+            throw new IllegalArgumentException("编码长度不足: " + length);
+        }
+    }
+
+    /**
+     * 非负整数编码后的最短长度
+     *
+     * @param value 非负整数
+     * @return 长度，0编码为1位
+     */
+    public static int encodedLength(long value) {
+        int length = 1;
+        while (value >= BASE) {
+            value /= BASE;
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * 解码62进制字符串
+     *
+     * @param code 62进制字符串
+     * @return 非负整数，包含非法字符、为空或超出long范围时返回-1
+     */
+    public static long decode(CharSequence code) {
+        int length = code.length();
+        if (length == 0 || length > MAX_ENCODED_LENGTH) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            char c = code.charAt(i);
+            int digit = c < INDEX.length ? INDEX[c] : -1;
+            if (digit < 0) {
+                return -1;
+            }
+            if (value > (Long.MAX_VALUE - digit) / BASE) {
+                return -1;
+            }
+            value = value * BASE + digit;
+        }
+        return value;
+    }
+}
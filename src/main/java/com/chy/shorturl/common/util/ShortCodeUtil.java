@@ -0,0 +1,61 @@
+package com.chy.shorturl.common.util;
+
+/**
+ * 短码工具类
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public class ShortCodeUtil {
+
+    /**
+     * 短码最大长度，与url_mapping.short_code字段长度一致
+     */
+    public static final int MAX_LENGTH = 16;
+
+    /**
+     * 合法字符表，覆盖所有生成策略使用的字符（62进制字符及URL安全的'-'、'_'）
+     */
+    private static final boolean[] VALID_CHARS = new boolean[128];
+
+    static {
+        for (char c = '0'; c <= '9'; c++) {
+            VALID_CHARS[c] = true;
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            VALID_CHARS[c] = true;
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            VALID_CHARS[c] = true;
+        }
+        VALID_CHARS['-'] = true;
+        VALID_CHARS['_'] = true;
+    }
+
+    private ShortCodeUtil() {
+        // 工具类禁止实例化
+    }
+
+    /**
+     * 校验短码格式（长度与字符集），不合法的短码无需进入缓存和数据库查询
+     *
+     * @param shortCode 短码
+     * @return 是否为合法格式
+     */
+    public static boolean isValidFormat(String shortCode) {
+        if (shortCode == null) {
+            return false;
+        }
+        int length = shortCode.length();
+        if (length == 0 || length > MAX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = shortCode.charAt(i);
+            if (c >= VALID_CHARS.length || !VALID_CHARS[c]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,75 @@
+package com.chy.shorturl.common.util;
+
+import com.google.common.hash.Hashing;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * URL哈希工具类
+ * 对规范化后的URL计算64位哈希，用于相同长链接的去重查询
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public class UrlHashUtil {
+
+    private UrlHashUtil() {
+        // 工具类禁止实例化
+    }
+
+    /**
+     * 计算URL哈希
+     *
+     * @param url 原始URL
+     * @return 规范化URL的64位MurmurHash3
+     */
+    public static long hash(String url) {
+        return Hashing.murmur3_128().hashString(normalize(url), StandardCharsets.UTF_8).asLong();
+    }
+
+    /**
+     * 规范化URL：去除首尾空白，协议和主机名转小写，去除默认端口，空路径补为"/"；
+     * 无法解析的URL仅去除首尾空白
+     *
+     * @param url 原始URL
+     * @return 规范化后的URL
+     */
+    public static String normalize(String url) {
+        String trimmed = url.trim();
+        try {
+            URI uri = new URI(trimmed);
+            if (uri.getScheme() == null || uri.getHost() == null) {
+                return trimmed;
+            }
+            String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+            int port = uri.getPort();
+            if (("http".equals(scheme) && port == 80) || ("https".equals(scheme) && port == 443)) {
+                port = -1;
+            }
+            String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+
+            StringBuilder sb = new StringBuilder(trimmed.length());
+            sb.append(scheme).append("://");
+            if (uri.getRawUserInfo() != null) {
+                sb.append(uri.getRawUserInfo()).append('@');
+            }
+            sb.append(uri.getHost().toLowerCase(Locale.ROOT));
+            if (port != -1) {
+                sb.append(':').append(port);
+            }
+            sb.append(path);
+            if (uri.getRawQuery() != null) {
+                sb.append('?').append(uri.getRawQuery());
+            }
+            if (uri.getRawFragment() != null) {
+                sb.append('#').append(uri.getRawFragment());
+            }
+            return sb.toString();
+        } catch (URISyntaxException e) {
+            return trimmed;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.chy.shorturl.strategy.impl.Md5ShortUrlStrategy;
 import com.chy.shorturl.strategy.impl.Murmur3ShortUrlStrategy;
 import com.chy.shorturl.strategy.impl.CounterShortUrlStrategy;
 import com.chy.shorturl.strategy.impl.Base64ShortUrlStrategy;
+import com.chy.shorturl.strategy.impl.PermutedCounterShortUrlStrategy;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -29,6 +30,7 @@ public class ShortUrlStrategyConfig {
     private final Murmur3ShortUrlStrategy murmur3Strategy;
     private final CounterShortUrlStrategy counterStrategy;
     private final Base64ShortUrlStrategy base64Strategy;
+    private final PermutedCounterShortUrlStrategy permutedCounterStrategy;
     
     @Value("${shorturl.strategy:RANDOM}")
     private String strategyType;
@@ -52,6 +54,8 @@ public class ShortUrlStrategyConfig {
                 return counterStrategy;
             case "BASE64":
                 return base64Strategy;
+            case "PERMUTED":
+                return permutedCounterStrategy;
             case "RANDOM":
             default:
                 return randomStrategy;
@@ -32,6 +32,18 @@ public class ThreadPoolConfig {
     @Value("${shorturl.thread.keep-alive-seconds:60}")
     private int keepAliveSeconds;
 
+    @Value("${shorturl.thread.refresh.size:4}")
+    private int refreshPoolSize;
+
+    @Value("${shorturl.thread.refresh.queue-capacity:1000}")
+    private int refreshQueueCapacity;
+
+    @Value("${shorturl.thread.batch-loader.size:4}")
+    private int batchLoaderPoolSize;
+
+    @Value("${shorturl.thread.batch-loader.queue-capacity:1000}")
+    private int batchLoaderQueueCapacity;
+
     @Value("${shorturl.thread.monitor.period-seconds:60}")
     private int monitorPeriodSeconds;
 
@@ -70,6 +82,41 @@ public class ThreadPoolConfig {
         return executor;
     }
     
+    /**
+     * 短链接缓存后台刷新线程池
+     * 队列已满时直接拒绝，由分层缓存放弃本次刷新并继续返回旧值，刷新永远不会在读取线程中执行
+     */
+    @Bean("shortUrlRefreshExecutor")
+    public ThreadPoolTaskExecutor shortUrlRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(refreshPoolSize);
+        executor.setMaxPoolSize(refreshPoolSize);
+        executor.setQueueCapacity(refreshQueueCapacity);
+        executor.setThreadNamePrefix("short-url-refresh-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        log.info("短链接缓存刷新线程池初始化完成, 线程数: {}, 队列容量: {}", refreshPoolSize, refreshQueueCapacity);
+        return executor;
+    }
+    
+    /**
+     * 批量加载分发线程池
+     * 与短链接线程池分开，等待批次结果的任务不会占满执行批次所需的线程；
+     * 队列已满时拒绝而不是在收集线程中执行，由批量加载器让该批次的请求失败
+     */
+    @Bean("batchLoaderExecutor")
+    public ThreadPoolTaskExecutor batchLoaderExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(batchLoaderPoolSize);
+        executor.setMaxPoolSize(batchLoaderPoolSize);
+        executor.setQueueCapacity(batchLoaderQueueCapacity);
+        executor.setThreadNamePrefix("batch-loader-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        log.info("批量加载分发线程池初始化完成, 线程数: {}, 队列容量: {}", batchLoaderPoolSize, batchLoaderQueueCapacity);
+        return executor;
+    }
+    
     /**
      * 启动线程池监控
      */
@@ -1,8 +1,32 @@
 package com.chy.shorturl.config.cache;
 
+import com.chy.shorturl.cache.BatchUrlLoader;
+import com.chy.shorturl.cache.CachedUrl;
+import com.chy.shorturl.cache.CachedUrlWeigher;
+import com.chy.shorturl.cache.ShortCodeBloomFilter;
+import com.chy.shorturl.cache.ShortUrlRedisCache;
+import com.chy.shorturl.cache.SingleFlightLoader;
+import com.chy.shorturl.cache.codec.UrlDictionaryManager;
+import com.chy.shorturl.cache.local.CaffeineLocalUrlCache;
+import com.chy.shorturl.cache.local.CompactLocalUrlCache;
+import com.chy.shorturl.cache.local.CompactUrlStore;
+import com.chy.shorturl.cache.local.LocalUrlCache;
+import com.chy.shorturl.cache.local.OffHeapUrlCache;
+import com.chy.shorturl.cache.tiered.BatchLoaderCacheTier;
+import com.chy.shorturl.cache.tiered.CacheTier;
+import com.chy.shorturl.cache.tiered.DatabaseCacheTier;
+import com.chy.shorturl.cache.tiered.LocalStoreCacheTier;
+import com.chy.shorturl.cache.tiered.OffHeapCacheTier;
+import com.chy.shorturl.cache.tiered.RedisCacheTier;
+import com.chy.shorturl.cache.tiered.TieredCache;
+import com.chy.shorturl.mapper.UrlMappingMapper;
+import com.chy.shorturl.strategy.ShortUrlGenerateStrategy;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
@@ -10,7 +34,11 @@ import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -27,9 +55,54 @@ public class CaffeineConfig {
     @Value("${shorturl.cache.local.shortUrl.size:10000}")
     private int shortUrlCacheSize;
     
+    /**
+     * 短链接本地缓存的字节预算，大于0时按条目估算字节数限制容量，取代按条目数限制
+     */
+    @Value("${shorturl.cache.local.shortUrl.max-bytes:0}")
+    private long shortUrlCacheMaxBytes;
+    
+    /**
+     * 短链接本地缓存实现：CAFFEINE、COMPACT（原始类型数组紧凑存储）
+     */
+    @Value("${shorturl.cache.local.shortUrl.store:CAFFEINE}")
+    private String shortUrlStore;
+    
+    @Value("${shorturl.cache.local.shortUrl.concurrency:16}")
+    private int shortUrlConcurrency;
+    
+    /**
+     * 选用紧凑存储时第一层Caffeine的容量，只作为热点前置层，全量条目由紧凑存储保存
+     */
+    @Value("${shorturl.cache.local.shortUrl.compact-front-size:1000}")
+    private int compactFrontSize;
+    
     @Value("${shorturl.cache.local.shortUrl.expire-seconds:3600}")
     private int shortUrlExpireSeconds;
     
+    /**
+     * 写入后超过该时间的条目在下次读取时返回旧值并后台刷新，应小于expire-seconds
+     */
+    @Value("${shorturl.cache.local.shortUrl.refresh-seconds:300}")
+    private int shortUrlRefreshSeconds;
+    
+    /**
+     * 是否按短码还原的主键点查，用于数据库层
+     */
+    @Value("${shorturl.pk-lookup.enabled:false}")
+    private boolean pkLookupEnabled;
+    
+    @Value("${shorturl.cache.local.negative.size:100000}")
+    private int negativeCacheSize;
+    
+    @Value("${shorturl.cache.local.negative.expire-seconds:60}")
+    private int negativeExpireSeconds;
+    
+    @Value("${shorturl.dedup.cache.size:100000}")
+    private int urlHashCacheSize;
+    
+    @Value("${shorturl.dedup.cache.expire-seconds:3600}")
+    private int urlHashExpireSeconds;
+    
     @Value("${shorturl.cache.local.metadata.size:1000}")
     private int metadataCacheSize;
     
@@ -37,17 +110,163 @@ public class CaffeineConfig {
     private int metadataExpireSeconds;
     
     /**
-     * 短链接本地缓存
+     * 紧凑存储实现，未选用时为null
+     */
+    private CompactLocalUrlCache compactLocalUrlCache;
+    
+    private final UrlDictionaryManager urlDictionaryManager;
+    
+    public CaffeineConfig(UrlDictionaryManager urlDictionaryManager) {
+        this.urlDictionaryManager = urlDictionaryManager;
+    }
+    
+    /**
+     * 短链接分层缓存
+     * 第一层为Caffeine异步加载缓存，每个条目的过期时间取配置的缓存时间与链接剩余有效期中的较小值，
+     * 配置了字节预算时按键和原始URL的估算字节数加权，原始URL长短不一时内存占用仍然可控；
+     * 之后依次为紧凑存储（选用COMPACT时）、堆外缓存（启用时）、Redis和数据库，开启批量加载时后两层合并为批量加载层。
+     * 选用紧凑存储时第一层只保留compact-front-size个热点条目，容量配置由紧凑存储使用，同一批条目不会在两层各存一份
+     */
+    @Bean
+    public TieredCache shortUrlTieredCache(OffHeapUrlCache offHeapUrlCache,
+                                           ShortUrlRedisCache shortUrlRedisCache,
+                                           BatchUrlLoader batchUrlLoader,
+                                           UrlMappingMapper urlMappingMapper,
+                                           ShortCodeBloomFilter shortCodeBloomFilter,
+                                           SingleFlightLoader singleFlightLoader,
+                                           ShortUrlGenerateStrategy shortUrlGenerateStrategy,
+                                           @Qualifier("shortUrlRefreshExecutor") ThreadPoolTaskExecutor refreshExecutor) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .initialCapacity(1000);
+        if (compactLocalUrlCache != null) {
+            builder.maximumSize(compactFrontSize);
+        } else if (shortUrlCacheMaxBytes > 0) {
+            builder.maximumWeight(shortUrlCacheMaxBytes)
+                    .weigher(new CachedUrlWeigher());
+        } else {
+            builder.maximumSize(shortUrlCacheSize);
+        }
+        
+        List<CacheTier> tiers = new ArrayList<>();
+        if (compactLocalUrlCache != null) {
+            tiers.add(new LocalStoreCacheTier(compactLocalUrlCache));
+        }
+        if (offHeapUrlCache.isEnabled()) {
+            tiers.add(new OffHeapCacheTier(offHeapUrlCache));
+        }
+        if (batchUrlLoader.isEnabled()) {
+            tiers.add(new BatchLoaderCacheTier(batchUrlLoader, shortUrlRedisCache));
+        } else {
+            tiers.add(new RedisCacheTier(shortUrlRedisCache));
+            tiers.add(new DatabaseCacheTier(urlMappingMapper, shortCodeBloomFilter, singleFlightLoader,
+                    shortUrlGenerateStrategy, pkLookupEnabled));
+        }
+        
+        if (shortUrlRefreshSeconds >= shortUrlExpireSeconds) {
+            log.warn("短链接本地缓存刷新时间({}秒)不小于缓存时间({}秒), 条目过期前不会触发后台刷新",
+                    shortUrlRefreshSeconds, shortUrlExpireSeconds);
+        }
+        TieredCache tieredCache = new TieredCache(
+                builder.expireAfter(shortUrlExpiry(TimeUnit.SECONDS.toMillis(shortUrlExpireSeconds))).recordStats(),
+                tiers, refreshExecutor, Duration.ofSeconds(shortUrlRefreshSeconds));
+        if (compactLocalUrlCache != null) {
+            log.info("初始化短链接分层缓存, 热点前置层容量: {}, 紧凑存储容量: {}, 过期时间: {}秒, 刷新时间: {}秒, 层: {}",
+                    compactFrontSize, shortUrlCacheSize, shortUrlExpireSeconds, shortUrlRefreshSeconds,
+                    tiers.stream().map(CacheTier::getName).toList());
+        } else if (shortUrlCacheMaxBytes > 0) {
+            log.info("初始化短链接分层缓存, 字节预算: {}MB, 过期时间: {}秒, 刷新时间: {}秒, 层: {}",
+                    shortUrlCacheMaxBytes / (1024 * 1024), shortUrlExpireSeconds, shortUrlRefreshSeconds,
+                    tiers.stream().map(CacheTier::getName).toList());
+        } else {
+            log.info("初始化短链接分层缓存, 容量: {}, 过期时间: {}秒, 刷新时间: {}秒, 层: {}",
+                    shortUrlCacheSize, shortUrlExpireSeconds, shortUrlRefreshSeconds,
+                    tiers.stream().map(CacheTier::getName).toList());
+        }
+        return tieredCache;
+    }
+    
+    /**
+     * 短链接本地缓存，即分层缓存第一层的同步视图
+     */
+    @Bean
+    public Cache<String, CachedUrl> shortUrlLocalCache(TieredCache shortUrlTieredCache) {
+        return shortUrlTieredCache.synchronous();
+    }
+    
+    /**
+     * 短链接本地缓存（L1），按配置选择Caffeine或紧凑存储实现
+     * 选用紧凑存储时，紧凑存储同时作为分层缓存中位于Caffeine之后的一层
+     */
+    @Bean
+    public LocalUrlCache localUrlCache(Cache<String, CachedUrl> shortUrlLocalCache) {
+        if (compactLocalUrlCache != null) {
+            return compactLocalUrlCache;
+        }
+        return new CaffeineLocalUrlCache(shortUrlLocalCache);
+    }
+    
+    @PostConstruct
+    public void initCompactStore() {
+        if ("COMPACT".equalsIgnoreCase(shortUrlStore)) {
+            CompactUrlStore store = new CompactUrlStore(shortUrlCacheSize, shortUrlConcurrency, urlDictionaryManager::current);
+            log.info("短链接本地缓存使用紧凑存储, 容量: {}, 分段数: {}", shortUrlCacheSize, store.getStats().getSegmentCount());
+            compactLocalUrlCache = new CompactLocalUrlCache(store, TimeUnit.SECONDS.toMillis(shortUrlExpireSeconds));
+        }
+    }
+    
+    /**
+     * 短链接缓存的单条目过期策略
+     *
+     * @param maxTtlMillis 配置的缓存时间（毫秒）
+     * @return 过期策略
+     */
+    static Expiry<String, CachedUrl> shortUrlExpiry(long maxTtlMillis) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(String key, CachedUrl value, long currentTime) {
+                long ttlMillis = value.ttlMillis(maxTtlMillis, System.currentTimeMillis());
+                return TimeUnit.MILLISECONDS.toNanos(Math.max(ttlMillis, 0));
+            }
+            
+            @Override
+            public long expireAfterUpdate(String key, CachedUrl value, long currentTime, long currentDuration) {
+                return expireAfterCreate(key, value, currentTime);
+            }
+            
+            @Override
+            public long expireAfterRead(String key, CachedUrl value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+    
+    /**
+     * 不存在短码的空值缓存，过期时间较短，避免新建短码长时间不可访问
+     */
+    @Bean
+    public Cache<String, Boolean> shortUrlNegativeCache() {
+        Cache<String, Boolean> cache = Caffeine.newBuilder()
+                .initialCapacity(1000)
+                .maximumSize(negativeCacheSize)
+                .expireAfterWrite(negativeExpireSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        log.info("初始化空值本地缓存, 容量: {}, 过期时间: {}秒", negativeCacheSize, negativeExpireSeconds);
+        return cache;
+    }
+    
+    /**
+     * URL哈希到短码的本地缓存，用于长链接去重
      */
     @Bean
-    public Cache<String, String> shortUrlLocalCache() {
-        Cache<String, String> cache = Caffeine.newBuilder()
+    public Cache<Long, String> urlHashLocalCache() {
+        Cache<Long, String> cache = Caffeine.newBuilder()
                 .initialCapacity(1000)
-                .maximumSize(shortUrlCacheSize)
-                .expireAfterWrite(shortUrlExpireSeconds, TimeUnit.SECONDS)
+                .maximumSize(urlHashCacheSize)
+                .expireAfterWrite(urlHashExpireSeconds, TimeUnit.SECONDS)
                 .recordStats()
                 .build();
-        log.info("初始化短链接本地缓存, 容量: {}, 过期时间: {}秒", shortUrlCacheSize, shortUrlExpireSeconds);
+        log.info("初始化URL哈希本地缓存, 容量: {}, 过期时间: {}秒", urlHashCacheSize, urlHashExpireSeconds);
         return cache;
     }
     
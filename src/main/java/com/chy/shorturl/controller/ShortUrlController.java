@@ -4,17 +4,29 @@ import com.chy.shorturl.common.Result;
 import com.chy.shorturl.common.aop.LogParam;
 import com.chy.shorturl.common.aop.LogParam.LogLevel;
 import com.chy.shorturl.common.util.LogUtil;
+import com.chy.shorturl.common.util.ShortCodeUtil;
 import com.chy.shorturl.service.UrlMappingService;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.view.RedirectView;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -29,6 +41,25 @@ import java.util.Map;
 public class ShortUrlController {
 
     private final UrlMappingService urlMappingService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 单次批量请求允许的最大URL数量
+     */
+    @Value("${shorturl.batch.max-size:10000}")
+    private int batchMaxSize;
+
+    /**
+     * 批量请求的分片大小，每个分片一个事务
+     */
+    @Value("${shorturl.batch.chunk-size:500}")
+    private int batchChunkSize;
+
+    /**
+     * 单次批量解析允许的最大短码数量
+     */
+    @Value("${shorturl.batch.resolve-max-size:5000}")
+    private int resolveMaxSize;
 
     /**
      * 生成短链接
@@ -53,6 +84,111 @@ public class ShortUrlController {
         }
     }
 
+    /**
+     * 批量生成短链接
+     * 按分片处理，每个分片一次多行插入和一次Redis管道写入，处理完一个分片即向客户端输出该分片的结果
+     *
+     * @param request 请求参数
+     * @return 流式输出的JSON结果，data为与请求顺序一致的结果数组
+     */
+    @PostMapping("/api/url/shorten/batch")
+    @LogParam(
+        desc = "批量生成短链接",
+        printRequest = false,
+        printResponse = false,
+        level = LogLevel.INFO
+    )
+    public ResponseEntity<?> shortenUrls(@Valid @RequestBody BatchShortenUrlRequest request) {
+        List<String> urls = request.getUrls();
+        if (urls.size() > batchMaxSize) {
+            return ResponseEntity.ok(Result.error(400, "批量数量超过上限: " + batchMaxSize));
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartObject();
+                generator.writeNumberField("code", 200);
+                generator.writeStringField("message", "success");
+                generator.writeArrayFieldStart("data");
+                for (int from = 0; from < urls.size(); from += batchChunkSize) {
+                    List<String> chunk = urls.subList(from, Math.min(from + batchChunkSize, urls.size()));
+                    writeChunk(generator, chunk, request.getExpireTime());
+                    generator.flush();
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * 生成一个分片的短链接并输出结果，分片失败时该分片的每一项都返回错误信息
+     */
+    private void writeChunk(JsonGenerator generator, List<String> chunk, Long expireTime) throws IOException {
+        List<String> shortUrls;
+        try {
+            shortUrls = urlMappingService.generateShortUrls(chunk, expireTime);
+        } catch (Exception e) {
+            log.error("批量生成短链接失败, 分片大小: {}, 异常信息: {}", chunk.size(), e.getMessage(), e);
+            for (String url : chunk) {
+                generator.writeObject(new ShortenUrlResult(url, null, "生成短链接失败"));
+            }
+            return;
+        }
+        for (int i = 0; i < chunk.size(); i++) {
+            generator.writeObject(new ShortenUrlResult(chunk.get(i), shortUrls.get(i), null));
+        }
+    }
+
+    /**
+     * 批量解析短码，一次请求代替逐个访问
+     *
+     * @param request 请求参数
+     * @return 短码到原始URL的映射，不存在或已过期的短码值为null
+     */
+    @PostMapping("/api/url/resolve/batch")
+    @LogParam(
+        desc = "批量解析短码",
+        printRequest = false,
+        level = LogLevel.DEBUG
+    )
+    public Result<Map<String, String>> resolveShortCodes(@Valid @RequestBody BatchResolveRequest request) {
+        if (request.getShortCodes().size() > resolveMaxSize) {
+            return Result.error(400, "批量数量超过上限: " + resolveMaxSize);
+        }
+        try {
+            return Result.success(urlMappingService.resolveShortCodes(request.getShortCodes()));
+        } catch (Exception e) {
+            log.error("批量解析短码失败: {}", e.getMessage());
+            return Result.error("批量解析短码失败");
+        }
+    }
+
+    /**
+     * 删除短链接，所有节点的本地缓存随之失效
+     *
+     * @param shortCode 短码
+     * @return 是否删除了未删除的记录
+     */
+    @DeleteMapping("/api/url/{shortCode}")
+    @LogParam(
+        desc = "删除短链接",
+        printResponse = true,
+        level = LogLevel.INFO
+    )
+    public Result<Boolean> deleteShortUrl(@PathVariable String shortCode) {
+        if (!ShortCodeUtil.isValidFormat(shortCode)) {
+            return Result.error(400, "短码格式不合法");
+        }
+        try {
+            return Result.success(urlMappingService.deleteShortUrl(shortCode));
+        } catch (Exception e) {
+            log.error("删除短链接失败: {}", e.getMessage());
+            return Result.error("删除短链接失败");
+        }
+    }
+
     /**
      * 重定向到原始URL
      *
@@ -66,6 +202,10 @@ public class ShortUrlController {
         level = LogLevel.DEBUG
     )
     public RedirectView redirect(@PathVariable String shortCode) {
+        // 格式不合法的短码直接返回404，不进入缓存和数据库查询
+        if (!ShortCodeUtil.isValidFormat(shortCode)) {
+            return new RedirectView("/error/404");
+        }
         try {
             String originalUrl = urlMappingService.getOriginalUrl(shortCode);
             if (originalUrl != null) {
@@ -128,4 +268,56 @@ public class ShortUrlController {
          */
         private String email;
     }
-} 
\ No newline at end of file
+
+    /**
+     * 批量请求参数
+     */
+    @Data
+    public static class BatchShortenUrlRequest {
+        /**
+         * 原始URL列表
+         */
+        @NotEmpty(message = "URL列表不能为空")
+        private List<@NotBlank(message = "URL不能为空") String> urls;
+
+        /**
+         * 过期时间（秒），对整批生效
+         */
+        private Long expireTime;
+    }
+
+    /**
+     * 批量解析请求参数
+     */
+    @Data
+    public static class BatchResolveRequest {
+        /**
+         * 短码列表
+         */
+        @NotEmpty(message = "短码列表不能为空")
+        private List<String> shortCodes;
+    }
+
+    /**
+     * 批量生成结果
+     */
+    @Data
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ShortenUrlResult {
+        /**
+         * 原始URL
+         */
+        private String url;
+
+        /**
+         * 短链接，生成失败时为空
+         */
+        private String shortUrl;
+
+        /**
+         * 错误信息，生成成功时为空
+         */
+        private String error;
+    }
+}
@@ -0,0 +1,42 @@
+package com.chy.shorturl.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 号段实体类
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Accessors(chain = true)
+@TableName("id_segment")
+public class IdSegment implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 业务标识，与计数器键名一致
+     */
+    @TableId(value = "biz_tag", type = IdType.INPUT)
+    private String bizTag;
+
+    /**
+     * 已分配的最大ID
+     */
+    private Long maxId;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updateTime;
+}
@@ -40,6 +40,11 @@ public class UrlMapping implements Serializable {
      */
     private String shortCode;
 
+    /**
+     * 规范化URL的64位哈希，用于相同长链接去重
+     */
+    private Long urlHash;
+
     /**
      * 过期时间
      */
@@ -0,0 +1,42 @@
+package com.chy.shorturl.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * URL前缀字典实体类
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Accessors(chain = true)
+@TableName("url_prefix_dict")
+public class UrlPrefixDict implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 字典ID，写入后不再修改
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private Integer id;
+
+    /**
+     * 协议+域名+路径前缀，以'/'结尾
+     */
+    private String prefix;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createTime;
+}
@@ -0,0 +1,55 @@
+package com.chy.shorturl.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.chy.shorturl.entity.IdSegment;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+/**
+ * 号段Mapper接口
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public interface IdSegmentMapper extends BaseMapper<IdSegment> {
+
+    /**
+     * 初始化号段记录，已存在时忽略
+     *
+     * @param bizTag 业务标识
+     * @return 影响行数
+     */
+    @Insert("INSERT IGNORE INTO id_segment (biz_tag, max_id, update_time) VALUES (#{bizTag}, 0, NOW())")
+    int insertIgnore(@Param("bizTag") String bizTag);
+
+    /**
+     * 分配号段，行锁保证多节点串行
+     *
+     * @param bizTag 业务标识
+     * @param step 号段长度
+     * @return 影响行数
+     */
+    @Update("UPDATE id_segment SET max_id = max_id + #{step}, update_time = NOW() WHERE biz_tag = #{bizTag}")
+    int incrementMaxId(@Param("bizTag") String bizTag, @Param("step") long step);
+
+    /**
+     * 记录外部分配的号段上界，只增不减
+     *
+     * @param bizTag 业务标识
+     * @param maxId 号段上界
+     * @return 影响行数
+     */
+    @Update("UPDATE id_segment SET max_id = #{maxId}, update_time = NOW() WHERE biz_tag = #{bizTag} AND max_id < #{maxId}")
+    int raiseMaxId(@Param("bizTag") String bizTag, @Param("maxId") long maxId);
+
+    /**
+     * 查询已分配的最大ID
+     *
+     * @param bizTag 业务标识
+     * @return 最大ID，记录不存在返回null
+     */
+    @Select("SELECT max_id FROM id_segment WHERE biz_tag = #{bizTag}")
+    Long findMaxId(@Param("bizTag") String bizTag);
+}
@@ -2,9 +2,17 @@ package com.chy.shorturl.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.chy.shorturl.entity.UrlMapping;
+import com.chy.shorturl.stat.AccessCountDelta;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.cursor.Cursor;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * URL映射Mapper接口
@@ -24,11 +32,138 @@ public interface UrlMappingMapper extends BaseMapper<UrlMapping> {
     UrlMapping findByShortCode(@Param("shortCode") String shortCode);
 
     /**
-     * 更新访问次数
+     * 逻辑删除短链接
+     *
+     * @param shortCode 短码
+     * @return 影响行数
+     */
+    @Update("UPDATE url_mapping SET is_deleted = 1, update_time = NOW() WHERE short_code = #{shortCode} AND is_deleted = 0")
+    int softDeleteByShortCode(@Param("shortCode") String shortCode);
+
+    /**
+     * 按主键点查，短码同时作为校验条件，只返回跳转所需的列
+     *
+     * @param id        由短码还原的主键ID
+     * @param shortCode 短码
+     * @return URL映射（仅包含original_url和expire_time）
+     */
+    @Select("SELECT original_url, expire_time FROM url_mapping WHERE id = #{id} AND short_code = #{shortCode} AND is_deleted = 0")
+    UrlMapping findUrlById(@Param("id") long id, @Param("shortCode") String shortCode);
+
+    /**
+     * 根据URL哈希查询未删除且未过期的映射（哈希可能冲突，调用方需比对原始URL）
+     *
+     * @param urlHash URL哈希
+     * @return URL映射列表
+     */
+    @Select("SELECT * FROM url_mapping WHERE url_hash = #{urlHash} AND is_deleted = 0 " +
+            "AND (expire_time IS NULL OR expire_time > NOW())")
+    List<UrlMapping> findByUrlHash(@Param("urlHash") long urlHash);
+
+    /**
+     * 根据短码批量查询（单条IN查询）
+     *
+     * @param shortCodes 短码集合
+     * @return URL映射列表
+     */
+    @Select({"<script>",
+            "SELECT * FROM url_mapping WHERE short_code IN",
+            "<foreach collection='shortCodes' item='shortCode' open='(' separator=',' close=')'>#{shortCode}</foreach>",
+            "AND is_deleted = 0",
+            "</script>"})
+    List<UrlMapping> findByShortCodes(@Param("shortCodes") Collection<String> shortCodes);
+
+    /**
+     * 批量插入URL映射（单条多行INSERT语句）
+     * id为NULL时由数据库自增生成
+     *
+     * @param urlMappings URL映射列表
+     * @return 影响行数
+     */
+    @Insert({"<script>",
+            "INSERT INTO url_mapping (id, original_url, short_code, url_hash, expire_time, access_count, create_time, update_time, is_deleted) VALUES",
+            "<foreach collection='urlMappings' item='item' separator=','>",
+            "(#{item.id}, #{item.originalUrl}, #{item.shortCode}, #{item.urlHash}, #{item.expireTime}, #{item.accessCount}, #{item.createTime}, #{item.updateTime}, #{item.isDeleted})",
+            "</foreach>",
+            "</script>"})
+    int insertBatch(@Param("urlMappings") List<UrlMapping> urlMappings);
+
+    /**
+     * 批量累加访问次数（单条UPDATE ... CASE语句）
      *
-     * @param id 主键ID
+     * @param deltas 访问次数增量列表
      * @return 影响行数
      */
-    @Update("UPDATE url_mapping SET access_count = access_count + 1 WHERE id = #{id}")
-    int incrementAccessCount(@Param("id") Long id);
-}
\ No newline at end of file
+    @Update({"<script>",
+            "UPDATE url_mapping SET access_count = access_count + CASE short_code",
+            "<foreach collection='deltas' item='item'> WHEN #{item.shortCode} THEN #{item.count} </foreach>",
+            "ELSE 0 END WHERE short_code IN",
+            "<foreach collection='deltas' item='item' open='(' separator=',' close=')'>#{item.shortCode}</foreach>",
+            "</script>"})
+    int batchIncrementAccessCount(@Param("deltas") List<AccessCountDelta> deltas);
+
+    /**
+     * 查询已被占用的短码（包括已逻辑删除的记录，它们仍占用唯一索引）
+     *
+     * @param shortCodes 候选短码集合
+     * @return 已存在的短码列表
+     */
+    @Select({"<script>",
+            "SELECT short_code FROM url_mapping WHERE short_code IN",
+            "<foreach collection='shortCodes' item='shortCode' open='(' separator=',' close=')'>#{shortCode}</foreach>",
+            "</script>"})
+    List<String> findExistingShortCodes(@Param("shortCodes") Collection<String> shortCodes);
+
+    /**
+     * 按主键分页查询短码（仅查询id和short_code）
+     *
+     * @param lastId 上一页最大主键ID
+     * @param limit  每页数量
+     * @return URL映射列表
+     */
+    @Select("SELECT id, short_code FROM url_mapping WHERE id > #{lastId} AND is_deleted = 0 ORDER BY id LIMIT #{limit}")
+    List<UrlMapping> findShortCodePage(@Param("lastId") long lastId, @Param("limit") int limit);
+
+    /**
+     * 流式查询访问次数最多的未过期映射（用于启动预热）
+     * fetchSize为Integer.MIN_VALUE时MySQL驱动逐行返回结果，不在内存中缓存整个结果集
+     *
+     * @param limit 最大行数
+     * @return 游标，需在事务内遍历
+     */
+    @Select("SELECT short_code, original_url, expire_time FROM url_mapping " +
+            "WHERE is_deleted = 0 AND (expire_time IS NULL OR expire_time > NOW()) " +
+            "ORDER BY access_count DESC LIMIT #{limit}")
+    @Options(fetchSize = Integer.MIN_VALUE)
+    Cursor<UrlMapping> streamTopAccessed(@Param("limit") int limit);
+
+    /**
+     * 流式查询最近创建的未过期映射（用于启动预热）
+     *
+     * @param limit 最大行数
+     * @return 游标，需在事务内遍历
+     */
+    @Select("SELECT short_code, original_url, expire_time FROM url_mapping " +
+            "WHERE is_deleted = 0 AND (expire_time IS NULL OR expire_time > NOW()) " +
+            "ORDER BY create_time DESC LIMIT #{limit}")
+    @Options(fetchSize = Integer.MIN_VALUE)
+    Cursor<UrlMapping> streamRecentlyCreated(@Param("limit") int limit);
+
+    /**
+     * 查询指定时间之后创建的短码
+     *
+     * @param since 起始创建时间
+     * @return 短码列表
+     */
+    @Select("SELECT short_code FROM url_mapping WHERE create_time >= #{since} AND is_deleted = 0")
+    List<String> findShortCodesCreatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * 取最近创建的原始URL作为字典训练样本
+     *
+     * @param limit 样本数
+     * @return 原始URL
+     */
+    @Select("SELECT original_url FROM url_mapping WHERE is_deleted = 0 ORDER BY id DESC LIMIT #{limit}")
+    List<String> sampleOriginalUrls(@Param("limit") int limit);
+}
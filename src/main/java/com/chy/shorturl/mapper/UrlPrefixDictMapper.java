@@ -0,0 +1,37 @@
+package com.chy.shorturl.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.chy.shorturl.entity.UrlPrefixDict;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+/**
+ * URL前缀字典Mapper接口
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public interface UrlPrefixDictMapper extends BaseMapper<UrlPrefixDict> {
+
+    /**
+     * 查询ID不超过指定值的全部字典条目
+     * 多节点并发插入时自增ID的提交顺序与大小无关，不能按已加载的最大ID增量查询
+     *
+     * @param maxId 可用的最大ID
+     * @return 字典条目
+     */
+    @Select("SELECT id, prefix FROM url_prefix_dict WHERE id <= #{maxId} ORDER BY id")
+    List<UrlPrefixDict> findUpTo(@Param("maxId") int maxId);
+
+    /**
+     * 新增前缀，已存在时忽略（多节点同时训练时以先写入的ID为准）
+     *
+     * @param prefix 前缀
+     * @return 影响行数
+     */
+    @Insert("INSERT IGNORE INTO url_prefix_dict (prefix, create_time) VALUES (#{prefix}, NOW())")
+    int insertIgnore(@Param("prefix") String prefix);
+}
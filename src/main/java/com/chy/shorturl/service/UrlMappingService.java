@@ -2,6 +2,9 @@ package com.chy.shorturl.service;
 
 import com.chy.shorturl.entity.UrlMapping;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * URL映射服务接口
  *
@@ -19,6 +22,15 @@ public interface UrlMappingService {
      */
     String generateShortUrl(String originalUrl, Long expireTime);
 
+    /**
+     * 批量生成短链接，一次多行插入并通过管道批量写入Redis
+     *
+     * @param originalUrls 原始URL列表
+     * @param expireTime   过期时间（可选）
+     * @return 短链接列表，与原始URL一一对应
+     */
+    List<String> generateShortUrls(List<String> originalUrls, Long expireTime);
+
     /**
      * 获取原始URL
      *
@@ -27,6 +39,22 @@ public interface UrlMappingService {
      */
     String getOriginalUrl(String shortCode);
 
+    /**
+     * 批量解析短码，依次查询本地缓存、Redis（MGET）和数据库（单条IN查询），并回填各级缓存
+     *
+     * @param shortCodes 短码列表
+     * @return 短码到原始URL的映射，按请求顺序排列，不存在或已过期的短码值为null
+     */
+    Map<String, String> resolveShortCodes(List<String> shortCodes);
+
+    /**
+     * 删除短链接：逻辑删除数据库记录，清除本节点各级缓存和Redis，并通知其他节点清除本地缓存
+     *
+     * @param shortCode 短码
+     * @return 是否删除了未删除的记录
+     */
+    boolean deleteShortUrl(String shortCode);
+
     /**
      * 根据短码查询URL映射
      *
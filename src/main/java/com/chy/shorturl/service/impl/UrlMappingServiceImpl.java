@@ -1,27 +1,43 @@
 package com.chy.shorturl.service.impl;
 
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.chy.shorturl.cache.CacheInvalidationBus;
+import com.chy.shorturl.cache.CachedUrl;
+import com.chy.shorturl.cache.ShortCodeBloomFilter;
+import com.chy.shorturl.cache.ShortUrlRedisCache;
+import com.chy.shorturl.cache.hotkey.HotKeyDetector;
+import com.chy.shorturl.cache.local.LocalUrlCache;
+import com.chy.shorturl.cache.local.OffHeapUrlCache;
+import com.chy.shorturl.cache.tiered.TieredCache;
 import com.chy.shorturl.entity.UrlMapping;
 import com.chy.shorturl.mapper.UrlMappingMapper;
 import com.chy.shorturl.service.UrlMappingService;
+import com.chy.shorturl.stat.AccessCountAccumulator;
+import com.chy.shorturl.stat.AccessCountDelta;
 import com.chy.shorturl.strategy.ShortUrlGenerateStrategy;
-import com.chy.shorturl.strategy.ShortUrlGenerateStrategy.ShortCodeValidator;
+import com.chy.shorturl.strategy.pool.ShortCodePool;
+import com.chy.shorturl.write.GroupCommitWriter;
 import com.github.benmanes.caffeine.cache.Cache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.scheduling.annotation.Async;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import com.chy.shorturl.common.util.LogUtil;
+import com.chy.shorturl.common.util.ShortCodeUtil;
+import com.chy.shorturl.common.util.UrlHashUtil;
 import com.chy.shorturl.common.aop.LogParam;
 
 /**
@@ -36,64 +52,259 @@ import com.chy.shorturl.common.aop.LogParam;
 public class UrlMappingServiceImpl extends ServiceImpl<UrlMappingMapper, UrlMapping> implements UrlMappingService {
 
     private final ShortUrlGenerateStrategy shortUrlGenerateStrategy;
-    private final StringRedisTemplate redisTemplate;
-    private final Cache<String, String> shortUrlLocalCache;
-    private final Cache<String, Object> metadataLocalCache;
-    
-    @Qualifier("shortUrlTaskExecutor")
-    private final ThreadPoolTaskExecutor taskExecutor;
+    private final ShortCodePool shortCodePool;
+    private final ShortUrlRedisCache shortUrlRedisCache;
+    private final LocalUrlCache shortUrlLocalCache;
+    private final OffHeapUrlCache offHeapUrlCache;
+    private final TieredCache shortUrlTieredCache;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final HotKeyDetector hotKeyDetector;
+    private final Cache<String, Boolean> shortUrlNegativeCache;
+    private final Cache<Long, String> urlHashLocalCache;
+    private final ShortCodeBloomFilter shortCodeBloomFilter;
+    private final AccessCountAccumulator accessCountAccumulator;
+    private final GroupCommitWriter groupCommitWriter;
+
+    /**
+     * 批量分配短码时与数据库冲突的最大重试轮数
+     */
+    private static final int MAX_ALLOCATE_ROUNDS = 10;
 
     @Value("${shorturl.domain}")
     private String domain;
 
-    @Value("${shorturl.cache-expire:86400}")
-    private long cacheExpireSeconds;
+    /**
+     * 是否开启长链接去重
+     */
+    @Value("${shorturl.dedup.enabled:false}")
+    private boolean dedupEnabled;
+
+    /**
+     * 是否按短码还原的主键读写（仅对计数器、置换计数器、雪花算法策略生效）
+     */
+    @Value("${shorturl.pk-lookup.enabled:false}")
+    private boolean pkLookupEnabled;
+
+    @Value("${shorturl.task.sync-count-batch-size:500}")
+    private int syncCountBatchSize;
 
     /**
      * 生成短链接
+     * 单行INSERT本身即为原子操作，不再包裹事务，避免组提交模式下等待期间占用数据库连接
      *
      * @param originalUrl 原始URL
      * @param expireTime  过期时间（秒）
      * @return 短链接
      */
     @Override
-    @Transactional(rollbackFor = Exception.class)
     @LogParam(desc = "短链接生成服务", printResponse = true)
     public String generateShortUrl(String originalUrl, Long expireTime) {
         log.info("生成短链接，原始URL: {}, 过期时间: {}, requestId: {}", originalUrl, expireTime, LogUtil.getRequestId());
         
-        // 生成短码
-        String shortCode = shortUrlGenerateStrategy.generateShortUrl(originalUrl, code -> findByShortCode(code) != null);
-        
-        // 构建短链接
-        String shortUrl = domain + "/" + shortCode;
-        
         // 设置过期时间
         LocalDateTime expireDateTime = null;
         if (expireTime != null && expireTime > 0) {
             expireDateTime = LocalDateTime.now().plusSeconds(expireTime);
         }
         
+        // 开启去重时，相同长链接已有未过期的映射则直接复用，不再写入
+        long urlHash = UrlHashUtil.hash(originalUrl);
+        if (dedupEnabled) {
+            String existing = findReusableShortCode(originalUrl, urlHash, CachedUrl.toEpochMilli(expireDateTime));
+            if (existing != null) {
+                return domain + "/" + existing;
+            }
+        }
+        
+        // 优先从预生成短码池获取，池未启用或已空时由生成策略现场生成并校验
+        String shortCode = shortCodePool.poll();
+        if (shortCode == null) {
+            shortCode = shortUrlGenerateStrategy.generateShortUrl(originalUrl, code -> findByShortCode(code) != null);
+        }
+        
+        // 构建短链接
+        String shortUrl = domain + "/" + shortCode;
+        
         // 保存映射关系到数据库
         UrlMapping urlMapping = new UrlMapping()
                 .setOriginalUrl(originalUrl)
                 .setShortCode(shortCode)
+                .setUrlHash(urlHash)
                 .setExpireTime(expireDateTime)
                 .setAccessCount(0L)
                 .setCreateTime(LocalDateTime.now())
                 .setUpdateTime(LocalDateTime.now())
-                .setIsDeleted(0);
+                .setIsDeleted(0)
+                .setId(decodePrimaryKey(shortCode));
         
-        save(urlMapping);
+        CachedUrl cachedUrl = CachedUrl.of(urlMapping);
+        if (groupCommitWriter.isEnabled()) {
+            // 与同一时间窗口内的其他请求合并为一次多行INSERT提交，Redis由写入器提交后异步批量写入
+            groupCommitWriter.write(urlMapping);
+        } else {
+            try {
+                save(urlMapping);
+            } catch (DuplicateKeyException e) {
+                if (urlMapping.getId() == null) {
+                    throw e;
+                }
+                // 由短码还原的主键与已有自增主键冲突，改由数据库自增生成，查询时回退到短码索引
+                urlMapping.setId(null);
+                save(urlMapping);
+            }
+            // 同步缓存到Redis，缓存时间不超过链接有效期
+            shortUrlRedisCache.put(shortCode, cachedUrl);
+        }
         
-        // 同步缓存到Redis和本地缓存
-        String cacheKey = "shorturl:" + shortCode;
-        redisTemplate.opsForValue().set(cacheKey, originalUrl, cacheExpireSeconds, TimeUnit.SECONDS);
-        shortUrlLocalCache.put(shortCode, originalUrl);
+        // 登记到布隆过滤器，清除可能存在的空值缓存，并写入本地缓存
+        shortCodeBloomFilter.put(shortCode);
+        shortUrlNegativeCache.invalidate(shortCode);
+        shortUrlLocalCache.put(shortCode, cachedUrl);
+        if (dedupEnabled) {
+            urlHashLocalCache.put(urlHash, shortCode);
+        }
         
         return shortUrl;
     }
     
+    /**
+     * 查找可复用的短码：原始URL规范化后相同、未过期，且有效期覆盖本次要求的过期时间
+     * 先查URL哈希本地缓存（再通过短链接缓存校验），未命中时按url_hash索引查询数据库
+     *
+     * @param originalUrl 原始URL
+     * @param urlHash     URL哈希
+     * @param expireAt    本次要求的过期时间（epoch毫秒），0表示永不过期
+     * @return 可复用的短码，不存在返回null
+     */
+    private String findReusableShortCode(String originalUrl, long urlHash, long expireAt) {
+        long now = System.currentTimeMillis();
+        String normalizedUrl = UrlHashUtil.normalize(originalUrl);
+        
+        String shortCode = urlHashLocalCache.getIfPresent(urlHash);
+        if (shortCode != null) {
+            CachedUrl cachedUrl = shortUrlLocalCache.getIfPresent(shortCode);
+            if (cachedUrl == null) {
+                cachedUrl = shortUrlRedisCache.get(shortCode);
+            }
+            if (cachedUrl != null && !cachedUrl.isExpired(now) && cachedUrl.covers(expireAt)
+                    && normalizedUrl.equals(UrlHashUtil.normalize(cachedUrl.getOriginalUrl()))) {
+                return shortCode;
+            }
+        }
+        
+        for (UrlMapping urlMapping : baseMapper.findByUrlHash(urlHash)) {
+            CachedUrl cachedUrl = CachedUrl.of(urlMapping);
+            if (!cachedUrl.isExpired(now) && cachedUrl.covers(expireAt)
+                    && normalizedUrl.equals(UrlHashUtil.normalize(urlMapping.getOriginalUrl()))) {
+                urlHashLocalCache.put(urlHash, urlMapping.getShortCode());
+                return urlMapping.getShortCode();
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * 批量生成短链接
+     * 先为整批生成短码并用IN查询剔除冲突，再以一条多行INSERT落库，最后通过管道一次写入Redis
+     *
+     * @param originalUrls 原始URL列表
+     * @param expireTime   过期时间（秒）
+     * @return 短链接列表，与原始URL一一对应
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public List<String> generateShortUrls(List<String> originalUrls, Long expireTime) {
+        List<String> shortCodes = allocateShortCodes(originalUrls);
+        
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expireDateTime = expireTime != null && expireTime > 0 ? now.plusSeconds(expireTime) : null;
+        List<UrlMapping> urlMappings = new ArrayList<>(originalUrls.size());
+        for (int i = 0; i < originalUrls.size(); i++) {
+            urlMappings.add(new UrlMapping()
+                    .setOriginalUrl(originalUrls.get(i))
+                    .setShortCode(shortCodes.get(i))
+                    .setUrlHash(UrlHashUtil.hash(originalUrls.get(i)))
+                    .setExpireTime(expireDateTime)
+                    .setAccessCount(0L)
+                    .setCreateTime(now)
+                    .setUpdateTime(now)
+                    .setIsDeleted(0)
+                    .setId(decodePrimaryKey(shortCodes.get(i))));
+        }
+        try {
+            baseMapper.insertBatch(urlMappings);
+        } catch (DuplicateKeyException e) {
+            if (!pkLookupEnabled) {
+                throw e;
+            }
+            // 由短码还原的主键与已有自增主键冲突，整批改由数据库自增生成
+            urlMappings.forEach(urlMapping -> urlMapping.setId(null));
+            baseMapper.insertBatch(urlMappings);
+        }
+        
+        // 登记布隆过滤器并清除空值缓存，再批量写入Redis和本地缓存
+        Map<String, CachedUrl> cachedUrls = new HashMap<>(urlMappings.size() * 2);
+        for (UrlMapping urlMapping : urlMappings) {
+            shortCodeBloomFilter.put(urlMapping.getShortCode());
+            cachedUrls.put(urlMapping.getShortCode(), CachedUrl.of(urlMapping));
+        }
+        shortUrlNegativeCache.invalidateAll(shortCodes);
+        shortUrlRedisCache.putAll(cachedUrls);
+        shortUrlLocalCache.putAll(cachedUrls);
+        
+        List<String> shortUrls = new ArrayList<>(shortCodes.size());
+        for (String shortCode : shortCodes) {
+            shortUrls.add(domain + "/" + shortCode);
+        }
+        return shortUrls;
+    }
+    
+    /**
+     * 为一批URL分配互不重复且数据库中不存在的短码
+     * 批内去重在内存中完成，与数据库的冲突每轮只用一次IN查询检查
+     *
+     * @param originalUrls 原始URL列表
+     * @return 短码列表，与原始URL一一对应
+     */
+    private List<String> allocateShortCodes(List<String> originalUrls) {
+        String[] shortCodes = new String[originalUrls.size()];
+        Set<String> assigned = new HashSet<>(originalUrls.size() * 2);
+        List<Integer> pending = new ArrayList<>(originalUrls.size());
+        for (int i = 0; i < originalUrls.size(); i++) {
+            // 短码池中的短码已校验并预留，可直接使用
+            String shortCode = shortCodePool.poll();
+            if (shortCode != null && assigned.add(shortCode)) {
+                shortCodes[i] = shortCode;
+            } else {
+                pending.add(i);
+            }
+        }
+        
+        Set<String> taken = new HashSet<>();
+        for (int round = 0; !pending.isEmpty(); round++) {
+            if (round >= MAX_ALLOCATE_ROUNDS) {
+                throw new IllegalStateException("批量分配短码失败, 冲突次数过多");
+            }
+            Map<String, Integer> candidates = new HashMap<>(pending.size() * 2);
+            for (Integer index : pending) {
+                String shortCode = shortUrlGenerateStrategy.generateShortUrl(originalUrls.get(index),
+                        code -> assigned.contains(code) || taken.contains(code));
+                assigned.add(shortCode);
+                candidates.put(shortCode, index);
+            }
+            pending.clear();
+            
+            List<String> existing = baseMapper.findExistingShortCodes(candidates.keySet());
+            for (String shortCode : existing) {
+                taken.add(shortCode);
+                assigned.remove(shortCode);
+                pending.add(candidates.remove(shortCode));
+            }
+            candidates.forEach((shortCode, index) -> shortCodes[index] = shortCode);
+        }
+        return Arrays.asList(shortCodes);
+    }
+    
     /**
      * 获取原始URL
      *
@@ -103,47 +314,144 @@ public class UrlMappingServiceImpl extends ServiceImpl<UrlMappingMapper, UrlMapp
     @Override
     @LogParam(desc = "短链接访问服务")
     public String getOriginalUrl(String shortCode) {
-        // 先从本地缓存获取
-        String originalUrl = shortUrlLocalCache.getIfPresent(shortCode);
-        if (originalUrl != null) {
-            // 异步增加访问次数
-            incrementAccessCountAsync(shortCode);
-            return originalUrl;
-        }
-        
-        // 本地缓存未命中，从Redis获取
-        String cacheKey = "shorturl:" + shortCode;
-        originalUrl = redisTemplate.opsForValue().get(cacheKey);
-        
-        if (originalUrl != null) {
-            // 放入本地缓存
-            shortUrlLocalCache.put(shortCode, originalUrl);
-            // 异步增加访问次数
-            incrementAccessCountAsync(shortCode);
-            return originalUrl;
+        // 先从热点固定区和本地缓存获取，超过刷新时间的条目直接返回旧值，由后台线程重新加载
+        CachedUrl cachedUrl = shortUrlTieredCache.getIfPresent(shortCode);
+        if (cachedUrl == null) {
+            // 命中空值缓存，说明短码近期已确认不存在
+            if (shortUrlNegativeCache.getIfPresent(shortCode) != null) {
+                return null;
+            }
+            
+            // 依次查询堆外缓存、Redis和数据库并回填，同一短码的并发加载合并为一次
+            cachedUrl = shortUrlTieredCache.get(shortCode);
+            if (cachedUrl == null) {
+                shortUrlNegativeCache.put(shortCode, Boolean.TRUE);
+                return null;
+            }
         }
         
-        // Redis缓存未命中，从数据库查询
-        UrlMapping urlMapping = findByShortCode(shortCode);
-        if (urlMapping == null) {
+        if (cachedUrl.isExpired(System.currentTimeMillis())) {
+            shortUrlTieredCache.invalidate(shortCode);
+            shortUrlNegativeCache.put(shortCode, Boolean.TRUE);
             return null;
         }
         
-        // 检查链接是否过期
-        if (urlMapping.getExpireTime() != null && urlMapping.getExpireTime().isBefore(LocalDateTime.now())) {
-            return null;
+        // 记录访问次数
+        recordAccess(shortCode);
+        return cachedUrl.getOriginalUrl();
+    }
+    
+    /**
+     * 批量解析短码
+     * 本地缓存getAllPresent命中的直接返回，其余一次MGET查询Redis，
+     * 仍未命中且布隆过滤器判定可能存在的再用一次IN查询数据库，最后批量回填Redis、本地缓存和空值缓存
+     *
+     * @param shortCodes 短码列表
+     * @return 短码到原始URL的映射，不存在或已过期的短码值为null
+     */
+    @Override
+    public Map<String, String> resolveShortCodes(List<String> shortCodes) {
+        long now = System.currentTimeMillis();
+        Map<String, String> result = new LinkedHashMap<>(shortCodes.size() * 2);
+        Set<String> pending = new HashSet<>(shortCodes.size() * 2);
+        for (String shortCode : shortCodes) {
+            result.put(shortCode, null);
+            // 格式不合法的短码一定不存在
+            if (ShortCodeUtil.isValidFormat(shortCode)) {
+                pending.add(shortCode);
+            }
         }
         
-        // 更新访问次数
-        incrementAccessCountAsync(shortCode);
+        // 本地缓存
+        shortUrlLocalCache.getAllPresent(pending).forEach((shortCode, cachedUrl) -> {
+            pending.remove(shortCode);
+            if (!cachedUrl.isExpired(now)) {
+                result.put(shortCode, cachedUrl.getOriginalUrl());
+            }
+        });
+        if (offHeapUrlCache.isEnabled()) {
+            pending.removeIf(shortCode -> {
+                CachedUrl cachedUrl = offHeapUrlCache.getIfPresent(shortCode);
+                if (cachedUrl == null) {
+                    return false;
+                }
+                result.put(shortCode, cachedUrl.getOriginalUrl());
+                shortUrlLocalCache.put(shortCode, cachedUrl);
+                return true;
+            });
+        }
+        pending.removeAll(shortUrlNegativeCache.getAllPresent(pending).keySet());
+        if (pending.isEmpty()) {
+            return result;
+        }
         
-        originalUrl = urlMapping.getOriginalUrl();
+        // Redis MGET
+        Map<String, CachedUrl> loaded = shortUrlRedisCache.multiGet(pending);
         
-        // 更新缓存
-        redisTemplate.opsForValue().set(cacheKey, originalUrl, cacheExpireSeconds, TimeUnit.SECONDS);
-        shortUrlLocalCache.put(shortCode, originalUrl);
+        // 数据库IN查询，回填Redis
+        List<String> dbCodes = new ArrayList<>();
+        for (String shortCode : pending) {
+            if (!loaded.containsKey(shortCode) && shortCodeBloomFilter.mightContain(shortCode)) {
+                dbCodes.add(shortCode);
+            }
+        }
+        if (!dbCodes.isEmpty()) {
+            Map<String, CachedUrl> fromDb = new HashMap<>(dbCodes.size() * 2);
+            for (UrlMapping urlMapping : baseMapper.findByShortCodes(dbCodes)) {
+                fromDb.put(urlMapping.getShortCode(), CachedUrl.of(urlMapping));
+            }
+            shortUrlRedisCache.putAll(fromDb);
+            loaded.putAll(fromDb);
+        }
         
-        return originalUrl;
+        // 回填本地缓存和空值缓存
+        Map<String, CachedUrl> found = new HashMap<>(loaded.size() * 2);
+        Map<String, Boolean> missing = new HashMap<>();
+        for (String shortCode : pending) {
+            CachedUrl cachedUrl = loaded.get(shortCode);
+            if (cachedUrl == null || cachedUrl.isExpired(now)) {
+                missing.put(shortCode, Boolean.TRUE);
+            } else {
+                found.put(shortCode, cachedUrl);
+                result.put(shortCode, cachedUrl.getOriginalUrl());
+            }
+        }
+        shortUrlLocalCache.putAll(found);
+        found.forEach(offHeapUrlCache::put);
+        shortUrlNegativeCache.putAll(missing);
+        return result;
+    }
+    
+    /**
+     * 删除短链接
+     * 数据库更新后再清除缓存，避免并发读取在删除前回填旧值；其他节点收到通知后清除本地缓存和本地层
+     *
+     * @param shortCode 短码
+     * @return 是否删除了未删除的记录
+     */
+    @Override
+    @LogParam(desc = "短链接删除服务", printResponse = true)
+    public boolean deleteShortUrl(String shortCode) {
+        boolean deleted = baseMapper.softDeleteByShortCode(shortCode) > 0;
+        shortUrlTieredCache.invalidate(shortCode);
+        shortUrlNegativeCache.put(shortCode, Boolean.TRUE);
+        cacheInvalidationBus.publish(shortCode);
+        log.info("删除短链接, shortCode: {}, 是否删除: {}, requestId: {}", shortCode, deleted, LogUtil.getRequestId());
+        return deleted;
+    }
+    
+    /**
+     * 由短码还原主键ID
+     *
+     * @param shortCode 短码
+     * @return 主键ID，未开启主键读写或当前策略不支持还原时返回null
+     */
+    private Long decodePrimaryKey(String shortCode) {
+        if (!pkLookupEnabled) {
+            return null;
+        }
+        long id = shortUrlGenerateStrategy.decodeId(shortCode);
+        return id > 0 ? id : null;
     }
     
     /**
@@ -158,36 +466,38 @@ public class UrlMappingServiceImpl extends ServiceImpl<UrlMappingMapper, UrlMapp
     }
     
     /**
-     * 异步增加访问次数
+     * 记录访问次数，仅在内存中累加，由定时任务批量同步到数据库；同时用于热点检测
      *
      * @param shortCode 短码
      */
-    private void incrementAccessCountAsync(String shortCode) {
-        // 使用元数据缓存记录待更新的访问次数
-        String countKey = "count:" + shortCode;
-        Long count = (Long) metadataLocalCache.get(countKey, k -> 0L);
-        metadataLocalCache.put(countKey, count + 1);
-        
-        // 使用线程池异步处理数据库更新
-        CompletableFuture.runAsync(() -> {
-            try {
-                UrlMapping urlMapping = findByShortCode(shortCode);
-                if (urlMapping != null) {
-                    baseMapper.incrementAccessCount(urlMapping.getId());
-                }
-            } catch (Exception e) {
-                log.error("异步增加访问次数失败: {}", e.getMessage(), e);
-            }
-        }, taskExecutor);
+    private void recordAccess(String shortCode) {
+        accessCountAccumulator.increment(shortCode);
+        hotKeyDetector.record(shortCode);
     }
     
     /**
      * 同步访问统计数据到数据库
-     * 这个方法可以由定时任务调用，批量更新访问计数
+     * 由定时任务和应用关闭时调用，每批使用一条UPDATE ... CASE语句批量更新访问计数；
+     * 同一时刻只允许一次同步，避免并发取出时重复累加
      */
-    @Async("shortUrlTaskExecutor")
-    public void syncAccessCountToDb() {
-        // 实际项目中，这里可以实现批量更新逻辑
-        log.info("同步访问统计数据到数据库");
+    public synchronized void syncAccessCountToDb() {
+        List<AccessCountDelta> deltas = accessCountAccumulator.drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+        
+        int failed = 0;
+        for (int from = 0; from < deltas.size(); from += syncCountBatchSize) {
+            List<AccessCountDelta> batch = deltas.subList(from, Math.min(from + syncCountBatchSize, deltas.size()));
+            try {
+                baseMapper.batchIncrementAccessCount(batch);
+            } catch (Exception e) {
+                // 写库失败的增量放回累加器，下次同步时重试
+                accessCountAccumulator.restore(batch);
+                failed += batch.size();
+                log.error("批量同步访问次数失败, 本批短码数: {}, 异常信息: {}", batch.size(), e.getMessage(), e);
+            }
+        }
+        log.info("同步访问统计数据到数据库, 短码数: {}, 失败数: {}", deltas.size(), failed);
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,94 @@
+package com.chy.shorturl.stat;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 访问次数内存累加器
+ * 每个短码对应一个分段计数的LongAdder，访问时仅做一次计数累加，由定时任务批量写入数据库
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Component
+public class AccessCountAccumulator {
+
+    private final ConcurrentHashMap<String, LongAdder> counters = new ConcurrentHashMap<>(1024);
+
+    /**
+     * 记录一次访问
+     *
+     * @param shortCode 短码
+     */
+    public void increment(String shortCode) {
+        add(shortCode, 1);
+    }
+
+    /**
+     * 累加访问次数
+     *
+     * @param shortCode 短码
+     * @param count     访问次数
+     */
+    public void add(String shortCode, long count) {
+        // 先无锁读取，只有短码首次出现时才创建计数器
+        LongAdder adder = counters.get(shortCode);
+        if (adder == null) {
+            adder = counters.computeIfAbsent(shortCode, k -> new LongAdder());
+        }
+        adder.add(count);
+        if (counters.get(shortCode) != adder) {
+            // 计数器在累加前后被drain移除：本次累加可能未被drain取走，将残留值转移到当前计数器
+            long moved = adder.sumThenReset();
+            if (moved != 0) {
+                add(shortCode, moved);
+            }
+        }
+    }
+
+    /**
+     * 取出所有待同步的访问次数
+     * sumThenReset逐个分段原子地取走计数，取出过程中的并发累加要么被本次取走、要么留到下次；
+     * 上一周期内没有访问的短码会被移除，避免计数器无限增长。
+     * 移除后再取一次，覆盖移除前落在该计数器上的累加；移除后才落上的累加由add发现计数器已被移除后自行转移
+     *
+     * @return 访问次数增量列表
+     */
+    public List<AccessCountDelta> drain() {
+        List<AccessCountDelta> deltas = new ArrayList<>(counters.size());
+        for (Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+            LongAdder adder = entry.getValue();
+            long count = adder.sumThenReset();
+            if (count == 0 && counters.remove(entry.getKey(), adder)) {
+                count = adder.sumThenReset();
+            }
+            if (count > 0) {
+                deltas.add(new AccessCountDelta(entry.getKey(), count));
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * 写库失败时将增量放回累加器，等待下次同步
+     *
+     * @param deltas 访问次数增量列表
+     */
+    public void restore(List<AccessCountDelta> deltas) {
+        for (AccessCountDelta delta : deltas) {
+            add(delta.getShortCode(), delta.getCount());
+        }
+    }
+
+    /**
+     * 当前累加中的短码数量
+     */
+    public int size() {
+        return counters.size();
+    }
+}
@@ -0,0 +1,25 @@
+package com.chy.shorturl.stat;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 访问次数增量
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Data
+@AllArgsConstructor
+public class AccessCountDelta {
+
+    /**
+     * 短码
+     */
+    private String shortCode;
+
+    /**
+     * 待累加的访问次数
+     */
+    private long count;
+}
@@ -17,6 +17,17 @@ public interface ShortUrlGenerateStrategy {
      */
     String generateShortUrl(String url, ShortCodeValidator validator);
     
+    /**
+     * 从短码还原生成时使用的数值，用于按主键直接定位记录
+     * 只有短码与数值一一对应的策略（计数器、置换计数器、雪花算法）需要实现
+     *
+     * @param shortCode 短码
+     * @return 数值，不支持还原或短码不合法时返回-1
+     */
+    default long decodeId(String shortCode) {
+        return -1;
+    }
+    
     /**
      * 短码验证器函数式接口
      */
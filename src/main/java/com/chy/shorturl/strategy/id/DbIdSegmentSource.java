@@ -0,0 +1,82 @@
+package com.chy.shorturl.strategy.id;
+
+import com.chy.shorturl.mapper.IdSegmentMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 基于数据库号段表的号段来源
+ * 每次分配在独立事务中执行UPDATE max_id = max_id + step，依靠行锁保证多节点分配的号段互不重叠
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+public class DbIdSegmentSource implements IdSegmentSource {
+
+    private final IdSegmentMapper idSegmentMapper;
+
+    /**
+     * 独立事务模板（REQUIRES_NEW），不受调用方事务回滚影响
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    private final String bizTag;
+
+    private volatile boolean initialized;
+
+    public DbIdSegmentSource(IdSegmentMapper idSegmentMapper, TransactionTemplate transactionTemplate, String bizTag) {
+        this.idSegmentMapper = idSegmentMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.bizTag = bizTag;
+    }
+
+    @Override
+    public long allocate(long step) {
+        ensureRecord();
+        Long max = transactionTemplate.execute(status -> {
+            if (idSegmentMapper.incrementMaxId(bizTag, step) == 0) {
+                throw new IllegalStateException("号段记录不存在: " + bizTag);
+            }
+            // 同一事务内持有行锁，读到的是本次更新后的值
+            return idSegmentMapper.findMaxId(bizTag);
+        });
+        if (max == null) {
+            throw new IllegalStateException("数据库号段分配失败: " + bizTag);
+        }
+        return max;
+    }
+
+    /**
+     * 查询已分配的最大ID
+     *
+     * @return 最大ID，记录不存在返回0
+     */
+    public long currentMaxId() {
+        Long max = idSegmentMapper.findMaxId(bizTag);
+        return max == null ? 0 : max;
+    }
+
+    /**
+     * 记录其他来源分配的号段上界，使数据库水位不低于实际已分配的ID
+     *
+     * @param maxId 号段上界
+     */
+    public void recordWatermark(long maxId) {
+        ensureRecord();
+        idSegmentMapper.raiseMaxId(bizTag, maxId);
+    }
+
+    /**
+     * 首次使用时初始化号段记录
+     */
+    private void ensureRecord() {
+        if (initialized) {
+            return;
+        }
+        if (idSegmentMapper.insertIgnore(bizTag) > 0) {
+            log.info("初始化号段记录: {}", bizTag);
+        }
+        initialized = true;
+    }
+}
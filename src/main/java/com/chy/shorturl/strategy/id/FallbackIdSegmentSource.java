@@ -0,0 +1,106 @@
+package com.chy.shorturl.strategy.id;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Redis优先、数据库兜底的号段来源
+ * <p>
+ * 正常情况下从Redis分配号段，并把号段上界记录到数据库作为水位；
+ * Redis不可用时改从数据库分配：切换前先把数据库水位抬升到本节点Redis水位加上恢复间隔，
+ * 间隔用于覆盖其他节点已从Redis取得、但水位尚未（或未能）记录到数据库的号段；
+ * Redis恢复后同样先把计数器抬升到数据库水位加上恢复间隔再继续使用，
+ * 间隔用于覆盖其他节点尚未切回Redis前继续从数据库分配的号段。
+ * 启动时同样以数据库水位作为Redis下限，防止Redis数据丢失后计数器从头开始。
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+public class FallbackIdSegmentSource implements IdSegmentSource {
+
+    private final RedisIdSegmentSource redisSource;
+    private final DbIdSegmentSource dbSource;
+
+    /**
+     * 切换到数据库兜底及Redis恢复时跳过的ID数量
+     */
+    private final long recoveryGap;
+
+    /**
+     * 是否需要在使用Redis前以数据库水位校准下限（启动时及从数据库兜底切回时）
+     */
+    private volatile boolean needsResync = true;
+
+    /**
+     * 当前是否处于数据库兜底状态
+     */
+    private volatile boolean degraded;
+
+    public FallbackIdSegmentSource(RedisIdSegmentSource redisSource, DbIdSegmentSource dbSource, long recoveryGap) {
+        this.redisSource = redisSource;
+        this.dbSource = dbSource;
+        this.recoveryGap = recoveryGap;
+    }
+
+    @Override
+    public synchronized long allocate(long step) {
+        long max;
+        try {
+            if (needsResync) {
+                resyncFloor();
+            }
+            max = redisSource.allocate(step);
+        } catch (Exception e) {
+            needsResync = true;
+            if (!degraded) {
+                log.warn("Redis号段分配失败, 切换到数据库号段: {}", e.getMessage());
+                // 其他节点可能持有尚未记录水位的Redis号段，本节点的Redis水位之上再跳过恢复间隔后才从数据库分配；
+                // 水位记录成功后才进入兜底状态，失败时下次分配会重新跳过
+                dbSource.recordWatermark(redisSource.getFloor() + recoveryGap);
+                degraded = true;
+            }
+            return dbSource.allocate(step);
+        }
+
+        if (degraded) {
+            log.info("Redis号段分配恢复");
+            degraded = false;
+        }
+        try {
+            dbSource.recordWatermark(max);
+        } catch (Exception e) {
+            // 水位记录失败不影响本次分配，切换到数据库兜底前会补记
+            log.warn("记录号段水位失败, 号段上界: {}, 异常信息: {}", max, e.getMessage());
+        }
+        return max;
+    }
+
+    /**
+     * 是否处于数据库兜底状态
+     */
+    public boolean isDegraded() {
+        return degraded;
+    }
+
+    /**
+     * 以数据库水位校准Redis下限
+     */
+    private void resyncFloor() {
+        long dbMax;
+        try {
+            dbMax = dbSource.currentMaxId();
+        } catch (Exception e) {
+            if (degraded) {
+                // 无法确认兜底期间数据库分配到的位置，继续留在兜底状态
+                throw e;
+            }
+            log.warn("读取数据库号段水位失败, 暂不校准Redis下限: {}", e.getMessage());
+            return;
+        }
+        // 首次启动仅以水位为下限；从兜底切回时额外跳过恢复间隔
+        long floor = degraded ? dbMax + recoveryGap : dbMax;
+        redisSource.raiseFloor(floor);
+        needsResync = false;
+        log.info("校准Redis号段下限: {}", floor);
+    }
+}
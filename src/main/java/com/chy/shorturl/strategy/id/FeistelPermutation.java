@@ -0,0 +1,125 @@
+package com.chy.shorturl.strategy.id;
+
+/**
+ * 基于带密钥Feistel网络的保格式置换
+ * 在[0, 2^(2h))上执行平衡Feistel网络（无论轮函数如何，Feistel网络本身都是双射），
+ * 再通过循环游走（cycle-walking）将结果限制在[0, domain)内，从而得到[0, domain)上的双射
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public final class FeistelPermutation {
+
+    /**
+     * Feistel轮数
+     */
+    private static final int ROUNDS = 4;
+
+    /**
+     * 置换空间大小
+     */
+    private final long domain;
+
+    /**
+     * 半块位数
+     */
+    private final int halfBits;
+
+    private final long halfMask;
+
+    private final long[] roundKeys = new long[ROUNDS];
+
+    /**
+     * @param domain 置换空间大小，置换结果落在[0, domain)内
+     * @param key    密钥
+     */
+    public FeistelPermutation(long domain, long key) {
+        if (domain < 2 || domain > (1L << 62)) {
+            throw new IllegalArgumentException("置换空间大小超出范围: " + domain);
+        }
+        this.domain = domain;
+        // 覆盖domain所需的位数，向上取偶数以便平分为左右两半
+        int bits = 64 - Long.numberOfLeadingZeros(domain - 1);
+        bits += bits & 1;
+        this.halfBits = bits / 2;
+        this.halfMask = (1L << halfBits) - 1;
+
+        long seed = key;
+        for (int i = 0; i < ROUNDS; i++) {
+            seed += 0x9E3779B97F4A7C15L;
+            roundKeys[i] = mix(seed);
+        }
+    }
+
+    /**
+     * 置换
+     *
+     * @param value [0, domain)内的值
+     * @return [0, domain)内的置换结果
+     */
+    public long permute(long value) {
+        if (value < 0 || value >= domain) {
+            throw new IllegalArgumentException("置换输入超出范围: " + value);
+        }
+        long result = value;
+        do {
+            result = encrypt(result);
+        } while (result >= domain);
+        return result;
+    }
+
+    /**
+     * 逆置换
+     *
+     * @param value [0, domain)内的置换结果
+     * @return 原始值
+     */
+    public long inverse(long value) {
+        if (value < 0 || value >= domain) {
+            throw new IllegalArgumentException("逆置换输入超出范围: " + value);
+        }
+        long result = value;
+        do {
+            result = decrypt(result);
+        } while (result >= domain);
+        return result;
+    }
+
+    /**
+     * 置换空间大小
+     */
+    public long getDomain() {
+        return domain;
+    }
+
+    private long encrypt(long value) {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+        for (int i = 0; i < ROUNDS; i++) {
+            long next = left ^ (mix(right ^ roundKeys[i]) & halfMask);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+
+    private long decrypt(long value) {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+        for (int i = ROUNDS - 1; i >= 0; i--) {
+            long prev = right ^ (mix(left ^ roundKeys[i]) & halfMask);
+            right = left;
+            left = prev;
+        }
+        return (left << halfBits) | right;
+    }
+
+    /**
+     * 轮函数（SplitMix64混合函数）
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,19 @@
+package com.chy.shorturl.strategy.id;
+
+/**
+ * 号段来源
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@FunctionalInterface
+public interface IdSegmentSource {
+
+    /**
+     * 原子分配一个号段
+     *
+     * @param step 号段长度
+     * @return 号段的最大ID（包含），号段为[返回值 - step + 1, 返回值]
+     */
+    long allocate(long step);
+}
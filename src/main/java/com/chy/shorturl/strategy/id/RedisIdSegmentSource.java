@@ -0,0 +1,71 @@
+package com.chy.shorturl.strategy.id;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 基于Redis INCRBY的号段来源
+ * 分配时携带下限：计数器低于下限（如Redis被清空或重启后数据丢失）时先抬升到下限，避免重复分配已用过的号段
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public class RedisIdSegmentSource implements IdSegmentSource {
+
+    /**
+     * 计数器低于下限时先设置为下限，再执行INCRBY
+     */
+    private static final RedisScript<Long> INCREMENT_WITH_FLOOR_SCRIPT = new DefaultRedisScript<>(
+            "local current = tonumber(redis.call('GET', KEYS[1]) or '0') " +
+            "local floor = tonumber(ARGV[2]) " +
+            "if current < floor then redis.call('SET', KEYS[1], ARGV[2]) end " +
+            "return redis.call('INCRBY', KEYS[1], ARGV[1])", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * Redis计数器键名
+     */
+    private final String counterKey;
+
+    /**
+     * 已知的最高水位：本节点从Redis取到的最大值或外部设置的下限
+     */
+    private final AtomicLong floor = new AtomicLong();
+
+    public RedisIdSegmentSource(StringRedisTemplate redisTemplate, String counterKey) {
+        this.redisTemplate = redisTemplate;
+        this.counterKey = counterKey;
+    }
+
+    @Override
+    public long allocate(long step) {
+        Long max = redisTemplate.execute(INCREMENT_WITH_FLOOR_SCRIPT, Collections.singletonList(counterKey),
+                String.valueOf(step), String.valueOf(floor.get()));
+        if (max == null) {
+            throw new IllegalStateException("Redis号段分配失败: " + counterKey);
+        }
+        raiseFloor(max);
+        return max;
+    }
+
+    /**
+     * 当前下限
+     */
+    public long getFloor() {
+        return floor.get();
+    }
+
+    /**
+     * 抬升下限，之后分配的号段一定大于该值
+     *
+     * @param value 下限
+     */
+    public void raiseFloor(long value) {
+        floor.accumulateAndGet(value, Math::max);
+    }
+}
@@ -0,0 +1,202 @@
+package com.chy.shorturl.strategy.id;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 双缓冲号段ID生成器
+ * 当前号段内通过CAS自增分配ID，不使用锁；当前号段消耗超过阈值时异步预取下一号段，
+ * 号段耗尽时直接切换到已预取的号段，只有预取尚未完成时才需要等待；
+ * 号段长度根据实际消耗速度自适应调整，使每个号段的使用时长接近目标值
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+public class SegmentIdGenerator {
+
+    private final IdSegmentSource source;
+    private final Executor prefetchExecutor;
+
+    private final long minStep;
+    private final long maxStep;
+
+    /**
+     * 消耗比例达到该值时预取下一号段
+     */
+    private final double prefetchRatio;
+
+    /**
+     * 每个号段期望的使用时长（纳秒）
+     */
+    private final long targetSegmentNanos;
+
+    /**
+     * 下一次预取使用的号段长度
+     */
+    private volatile long step;
+
+    /**
+     * 初始空号段，首次获取ID时触发加载；每个生成器独立持有，避免不同计数器共享预取结果
+     */
+    private final Segment initial = new Segment(0, -1, 0);
+
+    private final AtomicReference<Segment> current = new AtomicReference<>(initial);
+
+    public SegmentIdGenerator(IdSegmentSource source, Executor prefetchExecutor, long initialStep,
+                              long minStep, long maxStep, double prefetchRatio, long targetSegmentMillis) {
+        if (minStep < 1 || minStep > initialStep || initialStep > maxStep) {
+            throw new IllegalArgumentException("号段长度配置不合法");
+        }
+        this.source = source;
+        this.prefetchExecutor = prefetchExecutor;
+        this.step = initialStep;
+        this.minStep = minStep;
+        this.maxStep = maxStep;
+        this.prefetchRatio = prefetchRatio;
+        this.targetSegmentNanos = TimeUnit.MILLISECONDS.toNanos(targetSegmentMillis);
+    }
+
+    /**
+     * 获取下一个ID
+     *
+     * @return 唯一ID
+     */
+    public long nextId() {
+        while (true) {
+            Segment segment = current.get();
+            long id = segment.cursor.getAndIncrement();
+            if (id <= segment.max) {
+                if (id >= segment.prefetchAt && segment.successor.get() == null) {
+                    triggerPrefetch(segment);
+                }
+                return id;
+            }
+            switchSegment(segment);
+        }
+    }
+
+    /**
+     * 当前号段长度
+     */
+    public long getStep() {
+        return step;
+    }
+
+    /**
+     * 当前号段耗尽，切换到下一号段
+     */
+    private void switchSegment(Segment exhausted) {
+        if (current.get() != exhausted) {
+            // 其他线程已完成切换
+            return;
+        }
+        CompletableFuture<Segment> successor = triggerPrefetch(exhausted);
+        Segment next;
+        try {
+            next = successor.join();
+        } catch (CompletionException e) {
+            // 预取失败时清除，下次调用重新预取
+            exhausted.successor.compareAndSet(successor, null);
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+        if (current.compareAndSet(exhausted, next)) {
+            next.activatedAt = System.nanoTime();
+            adjustStep(exhausted);
+        }
+    }
+
+    /**
+     * 触发预取下一号段，同一号段只会预取一次
+     *
+     * @return 下一号段
+     */
+    private CompletableFuture<Segment> triggerPrefetch(Segment segment) {
+        CompletableFuture<Segment> successor = segment.successor.get();
+        if (successor != null) {
+            return successor;
+        }
+        CompletableFuture<Segment> created = new CompletableFuture<>();
+        if (!segment.successor.compareAndSet(null, created)) {
+            return segment.successor.get();
+        }
+        long allocateStep = step;
+        try {
+            prefetchExecutor.execute(() -> {
+                try {
+                    long max = source.allocate(allocateStep);
+                    created.complete(new Segment(max - allocateStep + 1, max, prefetchRatio));
+                } catch (Exception e) {
+                    log.error("预取号段失败, 号段长度: {}, 异常信息: {}", allocateStep, e.getMessage(), e);
+                    created.completeExceptionally(e);
+                }
+            });
+        } catch (Exception e) {
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    /**
+     * 根据上一号段的实际使用时长调整号段长度
+     */
+    private void adjustStep(Segment finished) {
+        if (finished == initial) {
+            return;
+        }
+        long elapsed = System.nanoTime() - finished.activatedAt;
+        long oldStep = step;
+        if (elapsed < targetSegmentNanos / 2 && oldStep < maxStep) {
+            step = Math.min(oldStep * 2, maxStep);
+        } else if (elapsed > targetSegmentNanos * 2 && oldStep > minStep) {
+            step = Math.max(oldStep / 2, minStep);
+        }
+        if (step != oldStep) {
+            log.info("调整号段长度, 上一号段使用时长: {}ms, 号段长度: {} -> {}",
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), oldStep, step);
+        }
+    }
+
+    /**
+     * 号段
+     */
+    private static final class Segment {
+
+        /**
+         * 下一个待分配ID
+         */
+        final AtomicLong cursor;
+
+        /**
+         * 号段最大ID（包含）
+         */
+        final long max;
+
+        /**
+         * 分配到该ID时开始预取下一号段
+         */
+        final long prefetchAt;
+
+        /**
+         * 下一号段
+         */
+        final AtomicReference<CompletableFuture<Segment>> successor = new AtomicReference<>();
+
+        /**
+         * 成为当前号段的时间
+         */
+        volatile long activatedAt;
+
+        Segment(long start, long max, double prefetchRatio) {
+            this.cursor = new AtomicLong(start);
+            this.max = max;
+            this.prefetchAt = start + (long) ((max - start + 1) * prefetchRatio);
+        }
+    }
+}
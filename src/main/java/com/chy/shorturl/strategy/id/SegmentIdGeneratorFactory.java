@@ -0,0 +1,91 @@
+package com.chy.shorturl.strategy.id;
+
+import com.chy.shorturl.mapper.IdSegmentMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 号段ID生成器工厂，统一号段相关配置
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+@Component
+public class SegmentIdGeneratorFactory {
+
+    private final StringRedisTemplate redisTemplate;
+    private final IdSegmentMapper idSegmentMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor taskExecutor;
+
+    /**
+     * 号段来源：REDIS、DB、REDIS_WITH_DB_FALLBACK
+     */
+    @Value("${shorturl.segment.source:REDIS}")
+    private String sourceType;
+
+    @Value("${shorturl.segment.initial-step:1000}")
+    private long initialStep;
+
+    @Value("${shorturl.segment.min-step:1000}")
+    private long minStep;
+
+    @Value("${shorturl.segment.max-step:100000}")
+    private long maxStep;
+
+    @Value("${shorturl.segment.prefetch-ratio:0.5}")
+    private double prefetchRatio;
+
+    @Value("${shorturl.segment.target-segment-millis:60000}")
+    private long targetSegmentMillis;
+
+    @Value("${shorturl.segment.recovery-gap:10000000}")
+    private long recoveryGap;
+
+    public SegmentIdGeneratorFactory(StringRedisTemplate redisTemplate,
+                                     IdSegmentMapper idSegmentMapper,
+                                     PlatformTransactionManager transactionManager,
+                                     @Qualifier("shortUrlTaskExecutor") ThreadPoolTaskExecutor taskExecutor) {
+        this.redisTemplate = redisTemplate;
+        this.idSegmentMapper = idSegmentMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * 创建号段ID生成器
+     *
+     * @param counterKey 计数器键名，同时作为数据库号段表的业务标识
+     * @return 号段ID生成器
+     */
+    public SegmentIdGenerator create(String counterKey) {
+        log.info("创建号段ID生成器, 计数器: {}, 号段来源: {}", counterKey, sourceType);
+        return new SegmentIdGenerator(createSource(counterKey), taskExecutor,
+                initialStep, minStep, maxStep, prefetchRatio, targetSegmentMillis);
+    }
+
+    /**
+     * 根据配置创建号段来源
+     */
+    private IdSegmentSource createSource(String counterKey) {
+        switch (sourceType.toUpperCase()) {
+            case "DB":
+                return new DbIdSegmentSource(idSegmentMapper, transactionTemplate, counterKey);
+            case "REDIS_WITH_DB_FALLBACK":
+                return new FallbackIdSegmentSource(new RedisIdSegmentSource(redisTemplate, counterKey),
+                        new DbIdSegmentSource(idSegmentMapper, transactionTemplate, counterKey), recoveryGap);
+            case "REDIS":
+            default:
+                return new RedisIdSegmentSource(redisTemplate, counterKey);
+        }
+    }
+}
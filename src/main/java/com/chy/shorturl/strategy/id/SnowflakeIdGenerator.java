@@ -0,0 +1,112 @@
+package com.chy.shorturl.strategy.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 无锁雪花ID生成器
+ * <p>
+ * 时间戳与毫秒内序列号打包在一个AtomicLong中，通过CAS更新，不使用锁也不自旋等待：
+ * 序列号溢出时直接进位到下一毫秒，时钟回拨时沿用上次的时间戳继续递增，
+ * 即"借用"未来的毫秒；借用超过上限时拒绝生成，避免与重启后的本节点冲突。
+ * <p>
+ * 位分配：1位符号位 + 41位时间戳 + 10位工作节点ID + 12位序列号
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public class SnowflakeIdGenerator {
+
+    /**
+     * 起始时间戳 2021-01-01 00:00:00
+     */
+    public static final long START_TIMESTAMP = 1609459200000L;
+
+    public static final int TIMESTAMP_BITS = 41;
+
+    public static final int WORKER_ID_BITS = 10;
+
+    public static final int SEQUENCE_BITS = 12;
+
+    /**
+     * ID总位数
+     */
+    public static final int TOTAL_BITS = TIMESTAMP_BITS + WORKER_ID_BITS + SEQUENCE_BITS;
+
+    public static final long MAX_WORKER_ID = ~(-1L << WORKER_ID_BITS);
+
+    private static final long SEQUENCE_MASK = ~(-1L << SEQUENCE_BITS);
+
+    private static final int TIMESTAMP_SHIFT = WORKER_ID_BITS + SEQUENCE_BITS;
+
+    private final long workerId;
+
+    /**
+     * 允许借用的未来毫秒数上限
+     */
+    private final long maxBorrowMillis;
+
+    private final LongSupplier clock;
+
+    /**
+     * 打包状态：高位为相对起始时间的时间戳，低SEQUENCE_BITS位为序列号
+     */
+    private final AtomicLong state;
+
+    /**
+     * @param workerId 工作节点ID
+     * @param minTimestamp 最小起始时间戳（毫秒），用于接续该工作节点上一持有者已用到的时间
+     * @param maxBorrowMillis 允许借用的未来毫秒数上限
+     * @param clock 时钟
+     */
+    public SnowflakeIdGenerator(long workerId, long minTimestamp, long maxBorrowMillis, LongSupplier clock) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("工作节点ID超出范围: " + workerId);
+        }
+        this.workerId = workerId;
+        this.maxBorrowMillis = maxBorrowMillis;
+        this.clock = clock;
+        long startTimestamp = Math.max(clock.getAsLong(), minTimestamp) - START_TIMESTAMP;
+        this.state = new AtomicLong(startTimestamp << SEQUENCE_BITS);
+    }
+
+    /**
+     * 生成下一个ID
+     *
+     * @return 雪花ID
+     */
+    public long nextId() {
+        long now = clock.getAsLong() - START_TIMESTAMP;
+        long current;
+        long next;
+        do {
+            current = state.get();
+            long lastTimestamp = current >>> SEQUENCE_BITS;
+            if (now > lastTimestamp) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                // 同一毫秒或时钟回拨：序列号加一，溢出时自然进位到下一毫秒
+                next = current + 1;
+                if ((next >>> SEQUENCE_BITS) - now > maxBorrowMillis) {
+                    throw new IllegalStateException("时钟回拨或生成速度超出上限, 已借用: "
+                            + ((next >>> SEQUENCE_BITS) - now) + "ms");
+                }
+            }
+        } while (!state.compareAndSet(current, next));
+
+        return ((next >>> SEQUENCE_BITS) << TIMESTAMP_SHIFT)
+                | (workerId << SEQUENCE_BITS)
+                | (next & SEQUENCE_MASK);
+    }
+
+    /**
+     * 最近一次生成ID使用的时间戳（毫秒，可能大于当前时间）
+     */
+    public long getLastTimestamp() {
+        return (state.get() >>> SEQUENCE_BITS) + START_TIMESTAMP;
+    }
+
+    public long getWorkerId() {
+        return workerId;
+    }
+}
@@ -0,0 +1,154 @@
+package com.chy.shorturl.strategy.id;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 雪花算法工作节点ID租约
+ * <p>
+ * 通过Redis SET NX PX抢占一个空闲的工作节点ID，定时续约；续约时一并记录该ID已用到的时间戳，
+ * 下一个持有者从该时间戳之后开始生成，避免借用未来毫秒的ID在节点替换后重复。
+ * 进程崩溃时租约自然过期（租约时长远大于借用上限），正常关闭时主动释放。
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+@Component
+public class WorkerIdLease {
+
+    private static final String LEASE_KEY_PREFIX = "shorturl:snowflake:worker:";
+
+    private static final String LAST_TIMESTAMP_SUFFIX = ":last";
+
+    /**
+     * 续约：仍由本节点持有时延长租约并记录时间戳，返回1；否则返回0
+     */
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[2]) " +
+            "redis.call('SET', KEYS[2], ARGV[3]) " +
+            "return 1 end return 0", Long.class);
+
+    /**
+     * 释放：仍由本节点持有时记录时间戳并删除租约
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+            "redis.call('SET', KEYS[2], ARGV[2]) " +
+            "redis.call('DEL', KEYS[1]) " +
+            "return 1 end return 0", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${shorturl.snowflake.lease-millis:30000}")
+    private long leaseMillis;
+
+    /**
+     * 当前持有的工作节点ID，未持有时为-1
+     */
+    private volatile long workerId = -1;
+
+    public WorkerIdLease(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * 抢占一个空闲的工作节点ID，从随机位置开始依次尝试
+     *
+     * @return 租约信息：工作节点ID及上一持有者用到的时间戳
+     */
+    public synchronized Acquired acquire() {
+        long total = SnowflakeIdGenerator.MAX_WORKER_ID + 1;
+        long offset = ThreadLocalRandom.current().nextLong(total);
+        for (long i = 0; i < total; i++) {
+            long candidate = (offset + i) % total;
+            Boolean success = redisTemplate.opsForValue()
+                    .setIfAbsent(leaseKey(candidate), nodeId, leaseMillis, TimeUnit.MILLISECONDS);
+            if (Boolean.TRUE.equals(success)) {
+                String last = redisTemplate.opsForValue().get(lastTimestampKey(candidate));
+                workerId = candidate;
+                log.info("获取雪花算法工作节点ID: {}, 上一持有者时间戳: {}", candidate, last);
+                return new Acquired(candidate, last == null ? 0 : Long.parseLong(last));
+            }
+        }
+        throw new IllegalStateException("没有空闲的雪花算法工作节点ID");
+    }
+
+    /**
+     * 续约并记录已用到的时间戳
+     *
+     * @param lastTimestamp 已用到的时间戳
+     * @return 是否仍持有租约
+     */
+    public boolean renew(long lastTimestamp) {
+        long current = workerId;
+        if (current < 0) {
+            return false;
+        }
+        Long result = redisTemplate.execute(RENEW_SCRIPT,
+                Arrays.asList(leaseKey(current), lastTimestampKey(current)),
+                nodeId, String.valueOf(leaseMillis), String.valueOf(lastTimestamp));
+        if (Long.valueOf(1).equals(result)) {
+            return true;
+        }
+        log.error("雪花算法工作节点ID租约已丢失: {}", current);
+        workerId = -1;
+        return false;
+    }
+
+    /**
+     * 释放租约
+     *
+     * @param lastTimestamp 已用到的时间戳
+     */
+    public synchronized void release(long lastTimestamp) {
+        long current = workerId;
+        if (current < 0) {
+            return;
+        }
+        redisTemplate.execute(RELEASE_SCRIPT,
+                Arrays.asList(leaseKey(current), lastTimestampKey(current)),
+                nodeId, String.valueOf(lastTimestamp));
+        workerId = -1;
+        log.info("释放雪花算法工作节点ID: {}", current);
+    }
+
+    /**
+     * 租约时长（毫秒）
+     */
+    public long getLeaseMillis() {
+        return leaseMillis;
+    }
+
+    private String leaseKey(long workerId) {
+        return LEASE_KEY_PREFIX + workerId;
+    }
+
+    private String lastTimestampKey(long workerId) {
+        return LEASE_KEY_PREFIX + workerId + LAST_TIMESTAMP_SUFFIX;
+    }
+
+    /**
+     * 租约信息
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Acquired {
+        private final long workerId;
+        private final long lastTimestamp;
+    }
+}
@@ -1,5 +1,6 @@
 package com.chy.shorturl.strategy.impl;
 
+import com.chy.shorturl.common.util.Base62Util;
 import com.chy.shorturl.strategy.ShortUrlGenerateStrategy;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
@@ -22,11 +23,6 @@ public class Murmur3ShortUrlStrategy implements ShortUrlGenerateStrategy {
     @Value("${shorturl.length:6}")
     private int urlLength;
     
-    /**
-     * 字符集，用于生成短链接
-     */
-    private static final char[] CHARS = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
-    
     /**
      * 基于原始URL和随机数生成短链接
      *
@@ -61,39 +57,18 @@ public class Murmur3ShortUrlStrategy implements ShortUrlGenerateStrategy {
         // 确保hash值为正数
         long positiveHash = hash & 0xFFFFFFFFL;
         
-        // 转换为短码字符串
-        return toBase62(positiveHash, urlLength);
-    }
-    
-    /**
-     * 将数值转为指定长度的62进制字符串
-     *
-     * @param number 数值
-     * @param length 期望长度
-     * @return 62进制字符串
-     */
-    private String toBase62(long number, int length) {
-        StringBuilder sb = new StringBuilder();
-        int base = CHARS.length;
-        
-        // 转换为62进制
-        do {
-            int index = (int) (number % base);
-            sb.append(CHARS[index]);
-            number /= base;
-        } while (number > 0);
-        
-        // 长度不足则补齐
-        while (sb.length() < length) {
-            sb.append(CHARS[ThreadLocalRandom.current().nextInt(CHARS.length)]);
+        // 转换为短码字符串：低位在前，长度不足时以随机字符补齐，超过指定长度时保留低位
+        char[] chars = new char[urlLength];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < urlLength; i++) {
+            if (positiveHash > 0 || i == 0) {
+                chars[i] = Base62Util.ALPHABET[(int) (positiveHash % Base62Util.BASE)];
+                positiveHash /= Base62Util.BASE;
+            } else {
+                chars[i] = Base62Util.ALPHABET[random.nextInt(Base62Util.BASE)];
+            }
         }
-        
-        // 长度超过则截断
-        if (sb.length() > length) {
-            return sb.substring(0, length);
-        }
-        
-        return sb.toString();
+        return new String(chars);
     }
     
     /**
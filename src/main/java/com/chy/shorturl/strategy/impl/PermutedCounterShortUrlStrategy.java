@@ -0,0 +1,124 @@
+package com.chy.shorturl.strategy.impl;
+
+import com.chy.shorturl.common.util.Base62Util;
+import com.chy.shorturl.strategy.ShortUrlGenerateStrategy;
+import com.chy.shorturl.strategy.id.FeistelPermutation;
+import com.chy.shorturl.strategy.id.SegmentIdGenerator;
+import com.chy.shorturl.strategy.id.SegmentIdGeneratorFactory;
+import com.google.common.hash.Hashing;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 基于置换计数器的短链接生成策略
+ * 号段计数器产生的递增ID经过带密钥的Feistel置换映射到62^N空间内，
+ * 置换是双射，因此短码非顺序、不可猜测且天然唯一，无需查询数据库校验。
+ * 唯一性只在同一密钥下成立，启动时将密钥指纹登记到Redis，与已登记的指纹不一致时拒绝启动
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PermutedCounterShortUrlStrategy implements ShortUrlGenerateStrategy {
+    
+    private final SegmentIdGeneratorFactory segmentIdGeneratorFactory;
+    
+    private final StringRedisTemplate redisTemplate;
+    
+    @Value("${shorturl.length:6}")
+    private int urlLength;
+    
+    /**
+     * 置换密钥，一旦签发过短码就不能再修改：
+     * 换密钥后计数器继续递增，新置换的结果可能与旧密钥下已签发的短码重复
+     */
+    @Value("${shorturl.permuted.secret:chy-short-url}")
+    private String secret;
+    
+    /**
+     * Redis计数器键名，与COUNTER策略分开计数
+     */
+    private static final String COUNTER_KEY = "shorturl:counter:permuted";
+    
+    /**
+     * 已签发短码所用密钥的指纹
+     */
+    private static final String KEY_FINGERPRINT_KEY = "shorturl:permuted:key-fingerprint";
+    
+    /**
+     * 62^10已接近long上限，短码最长10位
+     */
+    private static final int MAX_LENGTH = 10;
+    
+    private SegmentIdGenerator idGenerator;
+    
+    private FeistelPermutation permutation;
+    
+    @PostConstruct
+    public void init() {
+        if (urlLength < 1 || urlLength > MAX_LENGTH) {
+            throw new IllegalStateException("置换计数器策略的短码长度必须在1到" + MAX_LENGTH + "之间: " + urlLength);
+        }
+        long domain = 1;
+        for (int i = 0; i < urlLength; i++) {
+            domain *= Base62Util.BASE;
+        }
+        long key = Hashing.murmur3_128().hashString(secret, StandardCharsets.UTF_8).asLong();
+        checkKeyFingerprint(key);
+        permutation = new FeistelPermutation(domain, key);
+        idGenerator = segmentIdGeneratorFactory.create(COUNTER_KEY);
+        log.info("初始化置换计数器策略, 短码长度: {}, 短码空间: {}", urlLength, domain);
+    }
+    
+    /**
+     * 校验置换密钥与计数器签发过的短码所用密钥一致，首次启动时登记指纹
+     * Redis不可用时仅告警，不阻止启动（号段可能由数据库兜底）
+     *
+     * @param key 置换密钥
+     */
+    private void checkKeyFingerprint(long key) {
+        String fingerprint = Long.toHexString(Hashing.murmur3_32_fixed().hashLong(key).asInt() & 0xffffffffL);
+        String registered;
+        try {
+            redisTemplate.opsForValue().setIfAbsent(KEY_FINGERPRINT_KEY, fingerprint);
+            registered = redisTemplate.opsForValue().get(KEY_FINGERPRINT_KEY);
+        } catch (DataAccessException e) {
+            log.warn("无法校验置换密钥指纹, 请确认shorturl.permuted.secret未被修改: {}", e.getMessage());
+            return;
+        }
+        if (registered != null && !registered.equals(fingerprint)) {
+            throw new IllegalStateException("置换密钥与已签发短码所用密钥不一致, 修改密钥会产生重复短码, 已登记指纹: "
+                    + registered + ", 当前指纹: " + fingerprint);
+        }
+    }
+    
+    /**
+     * 基于置换计数器生成短链接，不调用验证器
+     *
+     * @param url 原始URL
+     * @param validator 短码验证器（置换结果天然唯一，无需校验）
+     * @return 生成的短链接
+     */
+    @Override
+    public String generateShortUrl(String url, ShortCodeValidator validator) {
+        long id = idGenerator.nextId();
+        if (id >= permutation.getDomain()) {
+            throw new IllegalStateException("短码空间已耗尽, 当前计数: " + id);
+        }
+        return Base62Util.encode(permutation.permute(id), urlLength);
+    }
+    
+    @Override
+    public long decodeId(String shortCode) {
+        return shortCode.length() == urlLength ? Base62Util.decode(shortCode) : -1;
+    }
+}
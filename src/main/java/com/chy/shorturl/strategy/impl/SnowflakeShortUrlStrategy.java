@@ -1,181 +1,124 @@
 package com.chy.shorturl.strategy.impl;
 
+import com.chy.shorturl.common.util.Base62Util;
 import com.chy.shorturl.strategy.ShortUrlGenerateStrategy;
+import com.chy.shorturl.strategy.id.SnowflakeIdGenerator;
+import com.chy.shorturl.strategy.id.WorkerIdLease;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
  * 雪花算法生成短链接
+ * 工作节点ID通过Redis租约分配，首次生成时获取；短码为雪花ID的定长62进制编码，
+ * 长度由ID位数决定（63位对应11个字符），不截断，因此短码与ID一一对应、天然唯一
  *
  * @author Henry.Yu
  * @date 2025/03/28
  */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class SnowflakeShortUrlStrategy implements ShortUrlGenerateStrategy {
     
-    @Value("${shorturl.length:6}")
-    private int urlLength;
-    
-    // 开始时间戳，用于减小时间戳的值 // 2021-01-01 00:00:00
-    private static final long START_TIMESTAMP = 1609459200000L;
-    
-    // 机器ID所占的位数
-    private static final long WORKER_ID_BITS = 5L;
-    
-    // 数据中心ID所占的位数
-    private static final long DATA_CENTER_ID_BITS = 5L;
-    
-    // 序列号所占的位数
-    private static final long SEQUENCE_BITS = 12L;
-    
-    // 工作机器ID的最大值
-    private static final long MAX_WORKER_ID = ~(-1L << WORKER_ID_BITS);
-    
-    // 数据中心ID的最大值
-    private static final long MAX_DATA_CENTER_ID = ~(-1L << DATA_CENTER_ID_BITS);
-    
-    // 序列号的最大值
-    private static final long MAX_SEQUENCE = ~(-1L << SEQUENCE_BITS);
-    
-    // 机器ID向左移12位
-    private static final long WORKER_ID_SHIFT = SEQUENCE_BITS;
-    
-    // 数据中心ID向左移17位(12+5)
-    private static final long DATA_CENTER_ID_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS;
-    
-    // 时间戳向左移22位(12+5+5)
-    private static final long TIMESTAMP_LEFT_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS + DATA_CENTER_ID_BITS;
-    
-    // 基于62进制的字符集
-    private static final char[] DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+    /**
+     * 短码长度：容纳全部ID位数所需的最少62进制字符数
+     */
+    public static final int CODE_LENGTH = (int) Math.ceil(SnowflakeIdGenerator.TOTAL_BITS / (Math.log(Base62Util.BASE) / Math.log(2)));
     
-    // 上次生成ID的时间戳
-    private long lastTimestamp = -1L;
+    private final WorkerIdLease workerIdLease;
     
-    // 序列号
-    private long sequence = 0L;
+    /**
+     * 允许借用的未来毫秒数上限
+     */
+    @Value("${shorturl.snowflake.max-borrow-millis:2000}")
+    private long maxBorrowMillis;
     
-    // 工作机器ID(0~31)
-    private final long workerId = 1L;
+    /**
+     * 当前工作节点的ID生成器，未获取租约时为null
+     */
+    private volatile SnowflakeIdGenerator idGenerator;
     
-    // 数据中心ID(0~31)
-    private final long dataCenterId = 1L;
+    /**
+     * 本地租约截止时间：超过该时间未续约成功则停止使用当前工作节点ID，
+     * 预留借用上限，保证本节点生成的时间戳不会超过Redis中租约的过期时间
+     */
+    private volatile long leaseDeadline;
     
     @Override
     public String generateShortUrl(String url, ShortCodeValidator validator) {
-        // 生成雪花ID
-        long id = nextId();
-        // 将雪花ID转为62进制编码
-        String shortCode = toBase62(id);
-        // 如果短码长度不满足要求，则补全或截断
-        if (shortCode.length() < urlLength) {
-            shortCode = padRight(shortCode, urlLength);
-        } else if (shortCode.length() > urlLength) {
-            shortCode = shortCode.substring(0, urlLength);
-        }
-        
-        // 如果短码已存在，则重新生成
-        if (validator.exists(shortCode)) {
-            return generateShortUrl(url, validator);
-        }
-        
-        return shortCode;
+        // 雪花ID全局唯一且短码不截断，无需校验冲突
+        return Base62Util.encode(currentGenerator().nextId(), CODE_LENGTH);
     }
     
     /**
-     * 生成下一个ID
-     *
-     * @return 雪花ID
+     * 续约工作节点ID租约
      */
-    private synchronized long nextId() {
-        long timestamp = timeGen();
-        
-        // 如果当前时间小于上一次ID生成的时间戳，说明系统时钟回退过，抛出异常
-        if (timestamp < lastTimestamp) {
-            throw new RuntimeException("Clock moved backwards. Refusing to generate id");
+    public void renewLease() {
+        SnowflakeIdGenerator generator = idGenerator;
+        if (generator == null) {
+            return;
         }
-        
-        // 如果是同一时间生成的，则进行毫秒内序列
-        if (lastTimestamp == timestamp) {
-            sequence = (sequence + 1) & MAX_SEQUENCE;
-            // 毫秒内序列溢出，阻塞到下一个毫秒
-            if (sequence == 0) {
-                timestamp = tilNextMillis(lastTimestamp);
-            }
+        long renewStart = System.currentTimeMillis();
+        if (workerIdLease.renew(generator.getLastTimestamp())) {
+            leaseDeadline = renewStart + workerIdLease.getLeaseMillis() - maxBorrowMillis;
         } else {
-            // 时间戳改变，毫秒内序列重置
-            sequence = 0L;
+            idGenerator = null;
         }
-        
-        // 上次生成ID的时间戳
-        lastTimestamp = timestamp;
-        
-        // 移位并通过或运算拼接组成64位的ID
-        return ((timestamp - START_TIMESTAMP) << TIMESTAMP_LEFT_SHIFT)
-                | (dataCenterId << DATA_CENTER_ID_SHIFT)
-                | (workerId << WORKER_ID_SHIFT)
-                | sequence;
     }
     
     /**
-     * 阻塞到下一个毫秒，直到获得新的时间戳
-     *
-     * @param lastTimestamp 上次生成ID的时间戳
-     * @return 新的时间戳
+     * 关闭时释放租约
      */
-    private long tilNextMillis(long lastTimestamp) {
-        long timestamp = timeGen();
-        while (timestamp <= lastTimestamp) {
-            timestamp = timeGen();
+    @PreDestroy
+    public void releaseLease() {
+        SnowflakeIdGenerator generator = idGenerator;
+        if (generator == null) {
+            return;
+        }
+        idGenerator = null;
+        try {
+            workerIdLease.release(generator.getLastTimestamp());
+        } catch (Exception e) {
+            log.warn("释放雪花算法工作节点ID失败, 等待租约自然过期: {}", e.getMessage());
         }
-        return timestamp;
-    }
-    
-    /**
-     * 返回以毫秒为单位的当前时间
-     *
-     * @return 当前时间(毫秒)
-     */
-    private long timeGen() {
-        return System.currentTimeMillis();
     }
     
     /**
-     * 将长整型数值转换为62进制字符串
-     *
-     * @param number 数值
-     * @return 62进制字符串
+     * 获取持有有效租约的ID生成器，首次使用或租约失效时重新获取
      */
-    private String toBase62(long number) {
-        StringBuilder sb = new StringBuilder();
-        int base = DIGITS.length;
-        
-        do {
-            int index = (int) (number % base);
-            sb.append(DIGITS[index]);
-            number /= base;
-        } while (number > 0);
-        
-        return sb.reverse().toString();
+    private SnowflakeIdGenerator currentGenerator() {
+        SnowflakeIdGenerator generator = idGenerator;
+        if (generator != null && System.currentTimeMillis() < leaseDeadline) {
+            return generator;
+        }
+        synchronized (this) {
+            generator = idGenerator;
+            if (generator != null && System.currentTimeMillis() < leaseDeadline) {
+                return generator;
+            }
+            if (generator != null) {
+                // 定时续约未能及时完成，同步续约一次
+                renewLease();
+                generator = idGenerator;
+                if (generator != null && System.currentTimeMillis() < leaseDeadline) {
+                    return generator;
+                }
+            }
+            long acquireStart = System.currentTimeMillis();
+            WorkerIdLease.Acquired acquired = workerIdLease.acquire();
+            generator = new SnowflakeIdGenerator(acquired.getWorkerId(), acquired.getLastTimestamp() + 1,
+                    maxBorrowMillis, System::currentTimeMillis);
+            leaseDeadline = acquireStart + workerIdLease.getLeaseMillis() - maxBorrowMillis;
+            idGenerator = generator;
+            return generator;
+        }
     }
     
-    /**
-     * 右侧补全字符串
-     *
-     * @param str    原字符串
-     * @param length 目标长度
-     * @return 补全后的字符串
-     */
-    private String padRight(String str, int length) {
-        int padLength = length - str.length();
-        StringBuilder sb = new StringBuilder(str);
-        
-        for (int i = 0; i < padLength; i++) {
-            sb.append(DIGITS[(int) (Math.random() * DIGITS.length)]);
-        }
-        
-        return sb.toString();
+    @Override
+    public long decodeId(String shortCode) {
+        return shortCode.length() == CODE_LENGTH ? Base62Util.decode(shortCode) : -1;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,259 @@
+package com.chy.shorturl.strategy.pool;
+
+import com.chy.shorturl.mapper.UrlMappingMapper;
+import com.chy.shorturl.strategy.ShortUrlGenerateStrategy;
+import jakarta.annotation.PreDestroy;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 预生成短码池
+ * 后台线程按批生成候选短码，用一次IN查询剔除数据库中已存在的短码，
+ * 再通过Redis SET NX为本节点预留（避免多节点取到同一短码），放入无锁队列；
+ * 生成短链接时直接从池中取出，不再逐个查询数据库校验冲突
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+@Component
+public class ShortCodePool {
+
+    private static final String RESERVE_KEY_PREFIX = "shorturl:code:reserved:";
+
+    /**
+     * 生成候选短码时使用的占位URL，池化的短码与具体URL无关
+     */
+    private static final String CANDIDATE_SEED = "shorturl:code-pool";
+
+    private final ShortUrlGenerateStrategy shortUrlGenerateStrategy;
+    private final UrlMappingMapper urlMappingMapper;
+    private final StringRedisTemplate redisTemplate;
+
+    private final ConcurrentLinkedQueue<String> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final LongAdder producedCount = new LongAdder();
+    private final LongAdder existingRejectedCount = new LongAdder();
+    private final LongAdder reserveRejectedCount = new LongAdder();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    @Value("${shorturl.code-pool.enabled:false}")
+    private boolean enabled;
+
+    @Value("${shorturl.code-pool.capacity:10000}")
+    private int capacity;
+
+    @Value("${shorturl.code-pool.low-watermark:2000}")
+    private int lowWatermark;
+
+    @Value("${shorturl.code-pool.reserve-batch-size:500}")
+    private int reserveBatchSize;
+
+    @Value("${shorturl.code-pool.reserve-ttl-seconds:86400}")
+    private long reserveTtlSeconds;
+
+    @Value("${shorturl.code-pool.idle-check-millis:200}")
+    private long idleCheckMillis;
+
+    private volatile boolean running;
+    private volatile Thread producerThread;
+
+    public ShortCodePool(ShortUrlGenerateStrategy shortUrlGenerateStrategy,
+                         UrlMappingMapper urlMappingMapper,
+                         StringRedisTemplate redisTemplate) {
+        this.shortUrlGenerateStrategy = shortUrlGenerateStrategy;
+        this.urlMappingMapper = urlMappingMapper;
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * 应用启动完成后启动生产线程
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::produceLoop);
+        thread.setName("short-code-pool-producer");
+        thread.setDaemon(true);
+        producerThread = thread;
+        thread.start();
+        log.info("启动短码池生产线程, 容量: {}, 低水位: {}, 预留批量: {}", capacity, lowWatermark, reserveBatchSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = producerThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * 取出一个已校验并预留的短码
+     *
+     * @return 短码，池未启用或已空时返回null
+     */
+    public String poll() {
+        if (!enabled) {
+            return null;
+        }
+        String shortCode = queue.poll();
+        if (shortCode == null) {
+            missCount.increment();
+            LockSupport.unpark(producerThread);
+            return null;
+        }
+        hitCount.increment();
+        if (depth.decrementAndGet() < lowWatermark) {
+            LockSupport.unpark(producerThread);
+        }
+        return shortCode;
+    }
+
+    /**
+     * 获取统计信息
+     */
+    public CodePoolStats getStats() {
+        CodePoolStats stats = new CodePoolStats();
+        stats.setEnabled(enabled);
+        stats.setDepth(depth.get());
+        stats.setCapacity(capacity);
+        stats.setLowWatermark(lowWatermark);
+        stats.setProducedCount(producedCount.sum());
+        stats.setExistingRejectedCount(existingRejectedCount.sum());
+        stats.setReserveRejectedCount(reserveRejectedCount.sum());
+        stats.setHitCount(hitCount.sum());
+        stats.setMissCount(missCount.sum());
+        return stats;
+    }
+
+    /**
+     * 生产循环：低于低水位时补充到容量上限，否则休眠等待唤醒
+     */
+    private void produceLoop() {
+        while (running && !Thread.currentThread().isInterrupted()) {
+            try {
+                if (depth.get() < lowWatermark) {
+                    long startTime = System.currentTimeMillis();
+                    int before = depth.get();
+                    while (running && depth.get() < capacity) {
+                        // 一批都没有预留成功（候选全部已存在或被其他节点预留）时退出，休眠后再试，避免空转
+                        if (refillBatch(Math.min(reserveBatchSize, capacity - depth.get())) == 0) {
+                            log.warn("短码池本批未预留到任何短码, 当前深度: {}, 稍后重试", depth.get());
+                            break;
+                        }
+                    }
+                    log.debug("短码池补充完成, 补充前: {}, 补充后: {}, 耗时: {}ms",
+                            before, depth.get(), System.currentTimeMillis() - startTime);
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(idleCheckMillis));
+            } catch (Exception e) {
+                log.error("短码池补充异常: {}", e.getMessage(), e);
+                LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+            }
+        }
+    }
+
+    /**
+     * 生成、校验并预留一批短码
+     *
+     * @param batchSize 批量大小
+     * @return 本批预留成功并入池的短码数量
+     */
+    private int refillBatch(int batchSize) {
+        // 生成候选短码并去重
+        Set<String> candidates = new LinkedHashSet<>(batchSize * 2);
+        for (int i = 0; i < batchSize; i++) {
+            candidates.add(shortUrlGenerateStrategy.generateShortUrl(CANDIDATE_SEED, code -> false));
+        }
+
+        // 一次IN查询剔除已存在的短码
+        List<String> existing = urlMappingMapper.findExistingShortCodes(candidates);
+        if (!existing.isEmpty()) {
+            existingRejectedCount.add(existing.size());
+            existing.forEach(candidates::remove);
+        }
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        // 通过管道批量SET NX预留，只保留预留成功的短码
+        List<String> ordered = new ArrayList<>(candidates);
+        List<Object> results = reserve(ordered);
+        Set<String> reserved = new HashSet<>(ordered.size() * 2);
+        for (int i = 0; i < ordered.size(); i++) {
+            if (Boolean.TRUE.equals(results.get(i))) {
+                reserved.add(ordered.get(i));
+            } else {
+                reserveRejectedCount.increment();
+            }
+        }
+
+        for (String shortCode : reserved) {
+            queue.offer(shortCode);
+        }
+        depth.addAndGet(reserved.size());
+        producedCount.add(reserved.size());
+        return reserved.size();
+    }
+
+    /**
+     * 批量预留短码
+     */
+    private List<Object> reserve(List<String> shortCodes) {
+        RedisSerializer<String> serializer = redisTemplate.getStringSerializer();
+        byte[] value = serializer.serialize(nodeId);
+        Expiration expiration = Expiration.seconds(reserveTtlSeconds);
+        return redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String shortCode : shortCodes) {
+                connection.stringCommands().set(serializer.serialize(RESERVE_KEY_PREFIX + shortCode),
+                        value, expiration, SetOption.SET_IF_ABSENT);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 短码池统计
+     */
+    @Data
+    public static class CodePoolStats {
+        private boolean enabled;
+        private int depth;
+        private int capacity;
+        private int lowWatermark;
+        private long producedCount;
+        private long existingRejectedCount;
+        private long reserveRejectedCount;
+        private long hitCount;
+        private long missCount;
+    }
+}
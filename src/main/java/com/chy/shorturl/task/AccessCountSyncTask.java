@@ -1,6 +1,7 @@
 package com.chy.shorturl.task;
 
 import com.chy.shorturl.service.impl.UrlMappingServiceImpl;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.EnableScheduling;
@@ -39,4 +40,17 @@ public class AccessCountSyncTask {
         long costTime = System.currentTimeMillis() - startTime;
         log.debug("访问计数同步任务完成, 耗时: {}ms", costTime);
     }
+
+    /**
+     * 应用关闭时将内存中剩余的访问计数写入数据库
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("应用关闭, 同步剩余访问计数");
+        try {
+            urlMappingService.syncAccessCountToDb();
+        } catch (Exception e) {
+            log.error("关闭时同步访问计数异常: {}", e.getMessage(), e);
+        }
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.chy.shorturl.task;
+
+import com.chy.shorturl.cache.ShortCodeBloomFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 布隆过滤器增量同步定时任务
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BloomFilterRefreshTask {
+
+    private final ShortCodeBloomFilter shortCodeBloomFilter;
+
+    /**
+     * 定时同步其他节点新建的短码
+     * 默认每5秒执行一次
+     */
+    @Scheduled(fixedDelayString = "${shorturl.bloom.refresh-interval:5000}")
+    public void refreshBloomFilter() {
+        try {
+            shortCodeBloomFilter.refresh();
+        } catch (Exception e) {
+            log.error("布隆过滤器增量同步任务异常: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.chy.shorturl.task;
+
+import com.chy.shorturl.cache.CacheInvalidationBus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 缓存失效总线心跳定时任务
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidationHeartbeatTask {
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    /**
+     * 定时发布心跳并检查订阅状态
+     * 默认每秒执行一次
+     */
+    @Scheduled(fixedDelayString = "${shorturl.cache.invalidation.heartbeat-interval:1000}")
+    public void heartbeat() {
+        try {
+            cacheInvalidationBus.heartbeat();
+        } catch (Exception e) {
+            log.error("缓存失效总线心跳任务异常: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.chy.shorturl.task;
+
+import com.chy.shorturl.cache.hotkey.HotKeyDetector;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 热点检测窗口切换定时任务
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HotKeyRotateTask {
+
+    private final HotKeyDetector hotKeyDetector;
+
+    /**
+     * 结束当前统计窗口并调整固定区
+     * 默认每10秒执行一次
+     */
+    @Scheduled(fixedRateString = "${shorturl.hot-key.window-millis:10000}")
+    public void rotate() {
+        try {
+            hotKeyDetector.rotate();
+        } catch (Exception e) {
+            log.error("热点检测窗口切换任务异常: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.chy.shorturl.task;
+
+import com.chy.shorturl.cache.ShortUrlRedisCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redis分桶布局过期字段清理定时任务
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RedisBucketSweepTask {
+
+    private final ShortUrlRedisCache shortUrlRedisCache;
+
+    /**
+     * 定时清理一批桶中的过期字段，未使用分桶布局时不执行
+     * 默认每10秒执行一次
+     */
+    @Scheduled(fixedDelayString = "${shorturl.cache.redis.sweep-interval:10000}")
+    public void sweepBuckets() {
+        try {
+            int removed = shortUrlRedisCache.sweepBuckets();
+            if (removed > 0) {
+                log.debug("清理Redis分桶过期字段: {}", removed);
+            }
+        } catch (Exception e) {
+            log.error("Redis分桶过期字段清理任务异常: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.chy.shorturl.task;
+
+import com.chy.shorturl.cache.codec.UrlDictionaryManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * URL前缀字典增量同步定时任务
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UrlDictionaryRefreshTask {
+
+    private final UrlDictionaryManager urlDictionaryManager;
+
+    /**
+     * 定时加载其他节点训练新增的前缀
+     * 默认每60秒执行一次
+     */
+    @Scheduled(fixedDelayString = "${shorturl.url-dictionary.refresh-interval:60000}")
+    public void refreshUrlDictionary() {
+        try {
+            urlDictionaryManager.refresh();
+        } catch (Exception e) {
+            log.error("URL前缀字典增量同步任务异常: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.chy.shorturl.task;
+
+import com.chy.shorturl.strategy.impl.SnowflakeShortUrlStrategy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 雪花算法工作节点ID续约定时任务
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WorkerIdLeaseRenewTask {
+
+    private final SnowflakeShortUrlStrategy snowflakeShortUrlStrategy;
+
+    /**
+     * 定时续约，默认每10秒执行一次（租约时长的三分之一）
+     */
+    @Scheduled(fixedDelayString = "${shorturl.snowflake.renew-interval:10000}")
+    public void renewWorkerIdLease() {
+        try {
+            snowflakeShortUrlStrategy.renewLease();
+        } catch (Exception e) {
+            log.error("雪花算法工作节点ID续约异常: {}", e.getMessage(), e);
+        }
+    }
+}
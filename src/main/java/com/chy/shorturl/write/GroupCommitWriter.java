@@ -0,0 +1,361 @@
+package com.chy.shorturl.write;
+
+import com.chy.shorturl.cache.CachedUrl;
+import com.chy.shorturl.cache.ShortUrlRedisCache;
+import com.chy.shorturl.entity.UrlMapping;
+import com.chy.shorturl.mapper.UrlMappingMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 短链接组提交写入器
+ * <p>
+ * 在一个很短的时间窗口内收集并发的写入请求（或收集满指定数量），在一个事务中用一条多行INSERT写入，
+ * 一次提交（一次刷盘）完成整批请求，提交后才唤醒各个等待的调用方；
+ * Redis缓存在提交后异步通过管道批量写入，不占用调用方的响应时间。
+ * 批量写入失败（如个别短码冲突）时逐条重试，只有真正失败的请求收到异常。
+ * 调用方最多等待write-timeout-millis；写入器停止或写入线程异常退出时，队列中剩余的请求立即以异常结束。
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+@Component
+public class GroupCommitWriter {
+
+    private final UrlMappingMapper urlMappingMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ShortUrlRedisCache shortUrlRedisCache;
+    private final Executor taskExecutor;
+
+    private final boolean enabled;
+
+    /**
+     * 收集窗口，即单个请求最多额外等待的时间
+     */
+    private final long windowMicros;
+
+    /**
+     * 单批最大行数，收集满后立即提交
+     */
+    private final int maxBatchSize;
+
+    /**
+     * 调用方等待所在批次提交的最长时间
+     */
+    private final long writeTimeoutMillis;
+
+    /**
+     * 待写入请求队列
+     */
+    private final LinkedBlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder rowCount = new LongAdder();
+    private final LongAdder retriedBatchCount = new LongAdder();
+    private final LongAdder failedRowCount = new LongAdder();
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public GroupCommitWriter(UrlMappingMapper urlMappingMapper,
+                             PlatformTransactionManager transactionManager,
+                             ShortUrlRedisCache shortUrlRedisCache,
+                             @Qualifier("shortUrlTaskExecutor") Executor taskExecutor,
+                             @Value("${shorturl.group-commit.enabled:false}") boolean enabled,
+                             @Value("${shorturl.group-commit.window-micros:2000}") long windowMicros,
+                             @Value("${shorturl.group-commit.max-batch-size:200}") int maxBatchSize,
+                             @Value("${shorturl.group-commit.write-timeout-millis:5000}") long writeTimeoutMillis) {
+        this.urlMappingMapper = urlMappingMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shortUrlRedisCache = shortUrlRedisCache;
+        this.taskExecutor = taskExecutor;
+        this.enabled = enabled;
+        this.windowMicros = windowMicros;
+        this.maxBatchSize = maxBatchSize;
+        this.writeTimeoutMillis = writeTimeoutMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::writeLoop);
+        writerThread.setName("group-commit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("启动组提交写入器, 时间窗口: {}微秒, 最大批量: {}", windowMicros, maxBatchSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (writerThread != null) {
+            writerThread.interrupt();
+        }
+        failQueued(new IllegalStateException("组提交写入器已停止"));
+    }
+
+    /**
+     * 是否启用组提交
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 写入URL映射，阻塞直到所在批次提交完成
+     *
+     * @param urlMapping URL映射
+     * @throws IllegalStateException 写入器未运行、已停止或等待超时
+     */
+    public void write(UrlMapping urlMapping) {
+        if (!running) {
+            throw new IllegalStateException("组提交写入器未运行");
+        }
+        PendingWrite pending = new PendingWrite(urlMapping);
+        queue.offer(pending);
+        // 入队与stop并发时，stop可能已清理过队列，由调用方自行撤回
+        if (!running && queue.remove(pending)) {
+            throw new IllegalStateException("组提交写入器已停止");
+        }
+        try {
+            pending.future.get(writeTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            // 仍在队列中则撤回；已被写入线程取走的请求结果未知，可能在超时后才提交
+            queue.remove(pending);
+            throw new IllegalStateException("组提交写入超时: " + writeTimeoutMillis + "ms, 短码: " + urlMapping.getShortCode());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queue.remove(pending);
+            throw new IllegalStateException("等待组提交时被中断, 短码: " + urlMapping.getShortCode(), e);
+        }
+    }
+
+    /**
+     * 获取统计信息
+     */
+    public GroupCommitStats getStats() {
+        GroupCommitStats stats = new GroupCommitStats();
+        long batches = batchCount.sum();
+        long rows = rowCount.sum();
+        stats.setEnabled(enabled);
+        stats.setBatchCount(batches);
+        stats.setRowCount(rows);
+        stats.setRetriedBatchCount(retriedBatchCount.sum());
+        stats.setFailedRowCount(failedRowCount.sum());
+        stats.setAverageBatchSize(batches == 0 ? 0 : (double) rows / batches);
+        stats.setQueueSize(queue.size());
+        return stats;
+    }
+
+    /**
+     * 写入循环：取到第一个请求后开始计时，窗口结束或达到最大批量时提交；
+     * 提交期间到达的请求自然累积到下一批
+     */
+    private void writeLoop() {
+        try {
+            while (running) {
+                if (!collectAndFlush()) {
+                    break;
+                }
+            }
+        } finally {
+            // 无论正常停止还是因Error退出，都不能让调用方等待一个不会再被处理的请求
+            running = false;
+            failQueued(new IllegalStateException("组提交写入线程已退出"));
+        }
+    }
+
+    /**
+     * 收集并提交一个批次，批次中未完成的请求在异常时以异常结束
+     *
+     * @return 写入线程是否应继续运行
+     */
+    private boolean collectAndFlush() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        try {
+            batch.add(queue.take());
+            long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(windowMicros);
+            while (batch.size() < maxBatchSize) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    break;
+                }
+                PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    break;
+                }
+                batch.add(next);
+            }
+            flush(batch);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failAll(batch, new IllegalStateException("组提交写入器已停止"));
+            return false;
+        } catch (Exception e) {
+            log.error("组提交写入器收集请求异常: {}", e.getMessage(), e);
+            failAll(batch, e);
+            return true;
+        } catch (Error e) {
+            log.error("组提交写入线程异常退出: {}", e.getMessage(), e);
+            failAll(batch, e);
+            throw e;
+        }
+    }
+
+    /**
+     * 以异常结束批次中尚未完成的请求
+     */
+    private void failAll(List<PendingWrite> batch, Throwable cause) {
+        for (PendingWrite pending : batch) {
+            pending.future.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * 以异常结束队列中剩余的请求
+     */
+    private void failQueued(Throwable cause) {
+        PendingWrite pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * 提交一个批次并唤醒调用方，之后异步回填Redis
+     */
+    private void flush(List<PendingWrite> batch) {
+        List<UrlMapping> rows = new ArrayList<>(batch.size());
+        for (PendingWrite pending : batch) {
+            rows.add(pending.urlMapping);
+        }
+        batchCount.increment();
+        rowCount.add(rows.size());
+
+        List<UrlMapping> written;
+        try {
+            transactionTemplate.executeWithoutResult(status -> urlMappingMapper.insertBatch(rows));
+            batch.forEach(pending -> pending.future.complete(null));
+            written = rows;
+        } catch (Exception e) {
+            log.warn("组提交批量写入失败, 逐条重试, 批量大小: {}, 异常信息: {}", rows.size(), e.getMessage());
+            retriedBatchCount.increment();
+            written = flushOneByOne(batch);
+        }
+
+        cacheAsync(written);
+    }
+
+    /**
+     * 逐条写入，隔离导致批量失败的请求
+     *
+     * @return 写入成功的URL映射
+     */
+    private List<UrlMapping> flushOneByOne(List<PendingWrite> batch) {
+        List<UrlMapping> written = new ArrayList<>(batch.size());
+        for (PendingWrite pending : batch) {
+            try {
+                try {
+                    insertOne(pending.urlMapping);
+                } catch (DuplicateKeyException e) {
+                    if (pending.urlMapping.getId() == null) {
+                        throw e;
+                    }
+                    // 由短码还原的主键与已有自增主键冲突，改由数据库自增生成
+                    pending.urlMapping.setId(null);
+                    insertOne(pending.urlMapping);
+                }
+                pending.future.complete(null);
+                written.add(pending.urlMapping);
+            } catch (Exception e) {
+                failedRowCount.increment();
+                pending.future.completeExceptionally(e);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * 单条写入，使用独立事务
+     */
+    private void insertOne(UrlMapping urlMapping) {
+        transactionTemplate.executeWithoutResult(status ->
+                urlMappingMapper.insertBatch(Collections.singletonList(urlMapping)));
+    }
+
+    /**
+     * 异步通过管道批量写入Redis
+     */
+    private void cacheAsync(List<UrlMapping> written) {
+        if (written.isEmpty()) {
+            return;
+        }
+        Map<String, CachedUrl> cachedUrls = new HashMap<>(written.size() * 2);
+        for (UrlMapping urlMapping : written) {
+            cachedUrls.put(urlMapping.getShortCode(), CachedUrl.of(urlMapping));
+        }
+        taskExecutor.execute(() -> {
+            try {
+                shortUrlRedisCache.putAll(cachedUrls);
+            } catch (Exception e) {
+                log.warn("组提交后写入Redis缓存失败, 数量: {}, 异常信息: {}", cachedUrls.size(), e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 待写入请求
+     */
+    private static class PendingWrite {
+        private final UrlMapping urlMapping;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        PendingWrite(UrlMapping urlMapping) {
+            this.urlMapping = urlMapping;
+        }
+    }
+
+    /**
+     * 组提交统计
+     */
+    @Data
+    public static class GroupCommitStats {
+        private boolean enabled;
+        private long batchCount;
+        private long rowCount;
+        private long retriedBatchCount;
+        private long failedRowCount;
+        private double averageBatchSize;
+        private int queueSize;
+    }
+}
@@ -9,7 +9,9 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
@@ -178,4 +180,87 @@ public class PerformanceTest {
         log.info("平均响应时间(ms): {}", (double) totalTime / successCount.get());
         log.info("===================================");
     }
-} 
\ No newline at end of file
+    
+    /**
+     * 批量生成与逐个生成的吞吐量对比测试
+     * 
+     * 同样生成totalUrls个短链接，分别通过单个接口（多线程并发）和批量接口完成
+     * 
+     * @throws InterruptedException 中断异常
+     */
+    @Test
+    public void testBatchShortenUrlPerformance() throws InterruptedException {
+        // 测试参数
+        int totalUrls = 10000;
+        int threadCount = 50; // 单个接口的并发线程数
+        int batchSize = 1000; // 批量接口每次请求的URL数量
+        
+        TestRestTemplate restTemplate = new TestRestTemplate();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        
+        // 单个接口
+        AtomicInteger singleSuccess = new AtomicInteger(0);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        long singleStart = System.currentTimeMillis();
+        for (int i = 0; i < threadCount; i++) {
+            final int threadIndex = i;
+            executorService.execute(() -> {
+                try {
+                    for (int j = 0; j < totalUrls / threadCount; j++) {
+                        Map<String, Object> requestBody = new HashMap<>();
+                        requestBody.put("url", "https://www.example.com/test/single/" + threadIndex + "/" + j);
+                        requestBody.put("expireTime", 86400L);
+                        try {
+                            ResponseEntity<String> response = restTemplate.postForEntity(
+                                    "http://localhost:8080/api/url/shorten", new HttpEntity<>(requestBody, headers), String.class);
+                            if (response.getStatusCode().is2xxSuccessful()) {
+                                singleSuccess.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            log.error("请求失败: {}", e.getMessage());
+                        }
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        executorService.shutdown();
+        long singleTime = System.currentTimeMillis() - singleStart;
+        
+        // 批量接口
+        int batchSuccess = 0;
+        long batchStart = System.currentTimeMillis();
+        for (int from = 0; from < totalUrls; from += batchSize) {
+            List<String> urls = new ArrayList<>(batchSize);
+            for (int j = from; j < from + batchSize; j++) {
+                urls.add("https://www.example.com/test/batch/" + j);
+            }
+            Map<String, Object> requestBody = new HashMap<>();
+            requestBody.put("urls", urls);
+            requestBody.put("expireTime", 86400L);
+            try {
+                ResponseEntity<String> response = restTemplate.postForEntity(
+                        "http://localhost:8080/api/url/shorten/batch", new HttpEntity<>(requestBody, headers), String.class);
+                if (response.getStatusCode().is2xxSuccessful()) {
+                    batchSuccess += batchSize;
+                }
+            } catch (Exception e) {
+                log.error("批量请求失败: {}", e.getMessage());
+            }
+        }
+        long batchTime = System.currentTimeMillis() - batchStart;
+        
+        // 输出测试结果
+        log.info("====== 批量生成短链接性能对比结果 ======");
+        log.info("短链接总数: {}", totalUrls);
+        log.info("单个接口: 并发线程数 {}, 成功数 {}, 耗时(ms) {}, 吞吐量(个/秒) {}",
+                threadCount, singleSuccess.get(), singleTime, 1000.0 * singleSuccess.get() / singleTime);
+        log.info("批量接口: 每批 {} 个, 成功数 {}, 耗时(ms) {}, 吞吐量(个/秒) {}",
+                batchSize, batchSuccess, batchTime, 1000.0 * batchSuccess / batchTime);
+        log.info("===================================");
+    }
+}
\ No newline at end of file
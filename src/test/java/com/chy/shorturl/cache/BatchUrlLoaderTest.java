@@ -0,0 +1,79 @@
+package com.chy.shorturl.cache;
+
+import com.chy.shorturl.mapper.UrlMappingMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 跨请求批量加载器测试
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public class BatchUrlLoaderTest {
+
+    /**
+     * 停止时收集中的批次立即以异常结束，停止后的加载直接拒绝
+     */
+    @Test
+    public void testStopFailsPendingLoads() throws Exception {
+        // 收集窗口远大于等待时间，停止时请求必然还在收集中的批次里
+        BatchUrlLoader loader = newLoader(mock(ThreadPoolTaskExecutor.class), TimeUnit.SECONDS.toMicros(30), 30_000);
+        loader.start();
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            Future<CachedUrl> pending = executorService.submit(() -> loader.load("aB3xY9"));
+            while (loader.getStats().getQueueSize() > 0 || !isCollecting(loader)) {
+                Thread.sleep(1);
+            }
+
+            loader.stop();
+            ExecutionException e = assertThrows(ExecutionException.class, () -> pending.get(1, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+            assertThrows(IllegalStateException.class, () -> loader.load("late"));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * 批次迟迟未完成时调用方在超时后失败
+     */
+    @Test
+    public void testLoadTimesOut() {
+        // 分发任务被丢弃，批次永远不会完成
+        BatchUrlLoader loader = newLoader(mock(ThreadPoolTaskExecutor.class), 100, 200);
+        loader.start();
+        try {
+            assertThrows(IllegalStateException.class, () -> loader.load("aB3xY9"));
+        } finally {
+            loader.stop();
+        }
+    }
+
+    private BatchUrlLoader newLoader(ThreadPoolTaskExecutor taskExecutor, long windowMicros, long loadTimeoutMillis) {
+        BatchUrlLoader loader = new BatchUrlLoader(mock(ShortUrlRedisCache.class), mock(ShortCodeBloomFilter.class),
+                mock(UrlMappingMapper.class), taskExecutor);
+        ReflectionTestUtils.setField(loader, "enabled", true);
+        ReflectionTestUtils.setField(loader, "windowMicros", windowMicros);
+        ReflectionTestUtils.setField(loader, "maxBatchSize", 128);
+        ReflectionTestUtils.setField(loader, "loadTimeoutMillis", loadTimeoutMillis);
+        return loader;
+    }
+
+    private static boolean isCollecting(BatchUrlLoader loader) {
+        Thread collector = (Thread) ReflectionTestUtils.getField(loader, "collectorThread");
+        return collector != null && collector.getState() == Thread.State.TIMED_WAITING;
+    }
+}
@@ -0,0 +1,160 @@
+package com.chy.shorturl.cache;
+
+import com.chy.shorturl.cache.tiered.TieredCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+import org.redisson.api.listener.StatusListener;
+import org.redisson.client.codec.Codec;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 跨节点缓存失效总线测试
+ * 用模拟的RTopic代替Redis发布/订阅：publish同步投递给所有订阅者，两个总线实例模拟两个节点
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public class CacheInvalidationBusTest {
+
+    private final List<MessageListener<String>> subscribers = new CopyOnWriteArrayList<>();
+    private final List<StatusListener> statusListeners = new CopyOnWriteArrayList<>();
+    private final List<String> published = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean connected = new AtomicBoolean(true);
+    private final List<CacheInvalidationBus> buses = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        buses.forEach(CacheInvalidationBus::stop);
+    }
+
+    @Test
+    public void testRemoteNodeInvalidated() {
+        TieredCache writerCache = mock(TieredCache.class);
+        TieredCache readerCache = mock(TieredCache.class);
+        Cache<String, Boolean> readerNegative = Caffeine.newBuilder().build();
+        readerNegative.put("abc123", Boolean.TRUE);
+        CacheInvalidationBus writer = newBus(writerCache, Caffeine.newBuilder().build());
+        newBus(readerCache, readerNegative);
+
+        writer.publish("abc123");
+
+        verify(readerCache, timeout(1000)).invalidateLocal("abc123");
+        assertNull(readerNegative.getIfPresent("abc123"));
+        // 发布节点自己的消息被忽略
+        verify(writerCache, after(100).never()).invalidateLocal(anyString());
+    }
+
+    @Test
+    public void testBatchedUnderHighWriteRate() {
+        TieredCache readerCache = mock(TieredCache.class);
+        CacheInvalidationBus writer = newBus(mock(TieredCache.class), Caffeine.newBuilder().build());
+        ReflectionTestUtils.setField(writer, "windowMillis", 50L);
+        newBus(readerCache, Caffeine.newBuilder().build());
+
+        for (int i = 0; i < 100; i++) {
+            writer.publish("code" + (i % 50));
+        }
+
+        verify(readerCache, timeout(1000)).invalidateLocal("code49");
+        // 100次发布合并为少量消息，重复短码只发布一次
+        assertTrue(published.size() <= 3, "消息数: " + published.size());
+        assertEquals(50, writer.getStats().getPublishedKeys());
+    }
+
+    @Test
+    public void testResubscribeFlushesLocalCache() {
+        TieredCache cache = mock(TieredCache.class);
+        CacheInvalidationBus bus = newBus(cache, Caffeine.newBuilder().build());
+
+        statusListeners.forEach(listener -> listener.onSubscribe("shorturl:invalidation"));
+        verify(cache, never()).invalidateAllLocal();
+
+        // 断线重连后重新订阅，期间的消息可能已丢失
+        statusListeners.forEach(listener -> listener.onSubscribe("shorturl:invalidation"));
+        verify(cache).invalidateAllLocal();
+        assertEquals(1, bus.getStats().getFullFlushes());
+    }
+
+    @Test
+    public void testHeartbeatTimeoutFlushesUntilRecovered() {
+        TieredCache cache = mock(TieredCache.class);
+        CacheInvalidationBus bus = newBus(cache, Caffeine.newBuilder().build());
+
+        bus.heartbeat();
+        verify(cache, never()).invalidateAllLocal();
+
+        // 订阅静默中断：心跳发布成功但收不到
+        connected.set(false);
+        ReflectionTestUtils.setField(bus, "lastHeartbeatMillis", System.currentTimeMillis() - 10_000);
+        bus.heartbeat();
+        bus.heartbeat();
+        assertTrue(bus.getStats().isDegraded());
+        verify(cache, times(2)).invalidateAllLocal();
+
+        // 恢复后收到自己的心跳，再清空一次
+        connected.set(true);
+        bus.heartbeat();
+        assertFalse(bus.getStats().isDegraded());
+        verify(cache, times(3)).invalidateAllLocal();
+    }
+
+    @SuppressWarnings("unchecked")
+    private CacheInvalidationBus newBus(TieredCache tieredCache, Cache<String, Boolean> negativeCache) {
+        RTopic topic = mock(RTopic.class);
+        when(topic.addListener(eq(String.class), any(MessageListener.class))).thenAnswer(invocation -> {
+            subscribers.add(invocation.getArgument(1));
+            return subscribers.size();
+        });
+        when(topic.addListener(any(StatusListener.class))).thenAnswer(invocation -> {
+            statusListeners.add(invocation.getArgument(0));
+            return statusListeners.size();
+        });
+        when(topic.publish(any())).thenAnswer(invocation -> {
+            String message = invocation.getArgument(0);
+            if (!message.endsWith("|")) {
+                published.add(message);
+            }
+            if (connected.get()) {
+                subscribers.forEach(listener -> listener.onMessage("shorturl:invalidation", message));
+            }
+            return (long) subscribers.size();
+        });
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getTopic(anyString(), any(Codec.class))).thenReturn(topic);
+
+        CacheInvalidationBus bus = new CacheInvalidationBus(redissonClient, tieredCache, negativeCache);
+        ReflectionTestUtils.setField(bus, "enabled", true);
+        ReflectionTestUtils.setField(bus, "topicName", "shorturl:invalidation");
+        ReflectionTestUtils.setField(bus, "windowMillis", 5L);
+        ReflectionTestUtils.setField(bus, "maxBatchSize", 500);
+        ReflectionTestUtils.setField(bus, "heartbeatTimeoutMillis", 3000L);
+        bus.start();
+        buses.add(bus);
+        return bus;
+    }
+}
@@ -0,0 +1,118 @@
+package com.chy.shorturl.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+import org.openjdk.jol.vm.VM;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 本地缓存权重计算器测试：以JOL统计的实际对象图大小校验手写的对象布局常量
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+public class CachedUrlWeigherTest {
+
+    static {
+        // 遍历Caffeine内部对象需要在JOL初始化前开启
+        System.setProperty("jol.magicFieldOffset", "true");
+    }
+
+    private final CachedUrlWeigher weigher = new CachedUrlWeigher();
+
+    /**
+     * 键和值的估算字节数与JOL统计的对象图大小一致
+     */
+    @Test
+    public void testWeighMatchesObjectGraph() {
+        assumeCompressedLayout();
+        String[][] entries = {
+                {"aB3xY9", "https://example.com"},
+                {"0", ""},
+                {"abcdefghijk", "https://example.com/" + "a".repeat(2000)},
+                {"aB3xY9", "https://example.com/中文路径"},
+                {"xyz", "https://example.com/ÿ"},
+        };
+        for (String[] entry : entries) {
+            String key = new String(entry[0]);
+            CachedUrl value = new CachedUrl(new String(entry[1]), 1_700_000_000_000L);
+            long graphBytes = GraphLayout.parseInstance(key, value).totalSize();
+            assertEquals(graphBytes, weigher.weigh(key, value) - CachedUrlWeigher.ENTRY_OVERHEAD_BYTES,
+                    "键: " + entry[0] + ", URL长度: " + entry[1].length());
+        }
+    }
+
+    /**
+     * 条目固定开销与分层缓存第一层同配置的Caffeine异步缓存的实测开销接近
+     * 对象图会经由执行器等引用到共享对象，因此以同配置空缓存的占用作为基线扣除
+     */
+    @Test
+    public void testEntryOverheadMatchesCaffeine() {
+        assumeCompressedLayout();
+        int entries = 5000;
+        AsyncLoadingCache<String, CachedUrl> empty = newCache();
+        AsyncLoadingCache<String, CachedUrl> cache = newCache();
+        long keyValueBytes = 0;
+        for (int i = 0; i < entries; i++) {
+            String key = "k" + i;
+            CachedUrl value = new CachedUrl("https://example.com/" + i, CachedUrl.NEVER_EXPIRE);
+            keyValueBytes += weigher.weigh(key, value) - CachedUrlWeigher.ENTRY_OVERHEAD_BYTES;
+            cache.put(key, CompletableFuture.completedFuture(value));
+        }
+        cache.synchronous().cleanUp();
+
+        long cacheBytes = GraphLayout.parseInstance(cache).totalSize() - GraphLayout.parseInstance(empty).totalSize();
+        double overhead = (double) (cacheBytes - keyValueBytes) / entries;
+        log.info("Caffeine每条目实测固定开销: {} 字节, 估算常量: {} 字节",
+                String.format("%.1f", overhead), CachedUrlWeigher.ENTRY_OVERHEAD_BYTES);
+        assertTrue(Math.abs(overhead - CachedUrlWeigher.ENTRY_OVERHEAD_BYTES) <= CachedUrlWeigher.ENTRY_OVERHEAD_BYTES * 0.1,
+                "实测固定开销: " + overhead);
+    }
+
+    private AsyncLoadingCache<String, CachedUrl> newCache() {
+        return Caffeine.newBuilder()
+                .initialCapacity(1000)
+                .maximumWeight(Long.MAX_VALUE / 2)
+                .weigher(weigher)
+                .expireAfter(new Expiry<String, CachedUrl>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedUrl value, long currentTime) {
+                        return TimeUnit.HOURS.toNanos(1);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedUrl value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedUrl value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .refreshAfterWrite(Duration.ofMinutes(10))
+                .executor(Runnable::run)
+                .buildAsync(key -> null);
+    }
+
+    /**
+     * 常量按64位JVM开启压缩指针与压缩类指针的布局计算，其他布局下跳过
+     */
+    private static void assumeCompressedLayout() {
+        // 两个引用的数组在压缩指针下为16 + 2 * 4 = 24字节
+        assumeTrue(VM.current().objectHeaderSize() == 12 && VM.current().arrayHeaderSize() == 16
+                && VM.current().sizeOf(new Object[2]) == 24, "非压缩指针布局");
+    }
+}
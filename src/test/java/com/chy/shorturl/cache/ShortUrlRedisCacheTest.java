@@ -0,0 +1,204 @@
+package com.chy.shorturl.cache;
+
+import com.chy.shorturl.cache.codec.UrlDictionary;
+import com.chy.shorturl.cache.codec.UrlDictionaryManager;
+import com.chy.shorturl.mapper.UrlMappingMapper;
+import com.chy.shorturl.mapper.UrlPrefixDictMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 短链接Redis缓存编码与分桶布局测试
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public class ShortUrlRedisCacheTest {
+
+    @Test
+    public void testBucketValueDeadline() {
+        ShortUrlRedisCache cache = newCache();
+        CachedUrl cachedUrl = new CachedUrl("https://example.com/a|b", 1_700_000_000_000L);
+        String value = cache.encodeBucketValue(cachedUrl, 2_000L);
+
+        CachedUrl decoded = cache.decodeBucketValue(value, 1_999L);
+        assertEquals("https://example.com/a|b", decoded.getOriginalUrl());
+        assertEquals(1_700_000_000_000L, decoded.getExpireAt());
+        // 超过缓存截止时间视为未命中
+        assertNull(cache.decodeBucketValue(value, 2_000L));
+        assertNull(cache.decodeBucketValue("https://example.com", 0L));
+    }
+
+    @Test
+    public void testDictionaryCompressedValue() {
+        ShortUrlRedisCache cache = newCache();
+        ReflectionTestUtils.setField(cache, "urlDictionaryManager", dictionaryManager(
+                new UrlDictionary(Map.of(1, "https://www.example.com/promo/"))));
+        CachedUrl cachedUrl = new CachedUrl("https://www.example.com/promo/sale", 0);
+
+        String value = cache.encode(cachedUrl);
+        assertEquals("0|" + UrlDictionary.MARKER + "\u0001sale", value);
+        assertEquals("https://www.example.com/promo/sale", cache.decode(value).getOriginalUrl());
+        assertEquals("https://www.example.com/promo/sale",
+                cache.decodeBucketValue(cache.encodeBucketValue(cachedUrl, Long.MAX_VALUE), 0L).getOriginalUrl());
+        // 升级前的未压缩值和旧格式仍可读取
+        assertEquals("https://a.com/x", cache.decode("0|https://a.com/x").getOriginalUrl());
+        assertEquals("https://a.com/x", cache.decode("https://a.com/x").getOriginalUrl());
+        // 字典ID未加载
+        assertNull(newCache().decode(value));
+    }
+
+    /**
+     * 字典ID未加载的字段按未命中处理但不删除，只有超过截止时间的字段被删除
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGetDeletesOnlyExpiredBucketFields() {
+        UrlDictionaryManager upToDate = dictionaryManager(new UrlDictionary(Map.of(1, "https://www.example.com/promo/")));
+        String fresh = new ShortUrlRedisCache(mock(StringRedisTemplate.class), upToDate)
+                .encodeBucketValue(new CachedUrl("https://www.example.com/promo/sale", 0), Long.MAX_VALUE);
+        String expired = newCache().encodeBucketValue(new CachedUrl("https://example.com", 0), 1L);
+
+        HashOperations<String, Object, Object> hashOperations = mock(HashOperations.class);
+        when(hashOperations.get(any(), eq("fresh1"))).thenReturn(fresh);
+        when(hashOperations.get(any(), eq("stale1"))).thenReturn(expired);
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        // 本节点尚未加载字典ID 1
+        ShortUrlRedisCache cache = new ShortUrlRedisCache(redisTemplate, dictionaryManager(UrlDictionary.EMPTY));
+        ReflectionTestUtils.setField(cache, "layout", "BUCKET");
+        ReflectionTestUtils.setField(cache, "bucketCount", 1000);
+        cache.init();
+
+        assertNull(cache.get("fresh1"));
+        verify(hashOperations, never()).delete(any(), eq("fresh1"));
+        assertNull(cache.get("stale1"));
+        verify(hashOperations).delete(any(), eq("stale1"));
+    }
+
+    @Test
+    public void testBucketsStayWithinListpackLimit() {
+        ShortUrlRedisCache cache = newCache();
+        ReflectionTestUtils.setField(cache, "bucketCount", 1000);
+
+        // 每桶平均64条时，连续短码（自增策略）分布后最大的桶仍在默认listpack阈值128内
+        Map<String, Integer> sizes = new HashMap<>();
+        for (int i = 0; i < 64_000; i++) {
+            sizes.merge(cache.bucketKey("Ab" + Integer.toString(i, 36)), 1, Integer::sum);
+        }
+        assertEquals(1000, sizes.size());
+        int max = sizes.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        assertTrue(max <= 128, "最大桶条目数: " + max);
+    }
+
+    /**
+     * 持续写入的桶过期时间不断顺延，定时清理后桶大小稳定在缓存时间内的写入量，不会无限增长
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSweepKeepsContinuouslyWrittenBucketBounded() {
+        Map<String, String> bucket = new HashMap<>();
+        HashOperations<String, Object, Object> hashOperations = mock(HashOperations.class);
+        when(hashOperations.scan(eq("shorturl:b:0"), any(ScanOptions.class)))
+                .thenAnswer(inv -> new IteratorCursor<>(new ArrayList<>(bucket.entrySet()).iterator()));
+        when(hashOperations.delete(eq("shorturl:b:0"), any(Object[].class))).thenAnswer(inv -> {
+            Object[] fields = inv.getArguments();
+            for (int i = 1; i < fields.length; i++) {
+                bucket.remove((String) fields[i]);
+            }
+            return (long) fields.length - 1;
+        });
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        ShortUrlRedisCache cache = new ShortUrlRedisCache(redisTemplate, dictionaryManager(UrlDictionary.EMPTY));
+
+        // 每秒写入10条、缓存60秒、每10秒清理一次，持续1小时
+        long ttl = 60_000L;
+        int maxSize = 0;
+        for (int second = 0; second < 3600; second++) {
+            long now = second * 1000L;
+            for (int i = 0; i < 10; i++) {
+                bucket.put("c" + second + "-" + i, cache.encodeBucketValue(new CachedUrl("https://example.com", 0), now + ttl));
+            }
+            if (second % 10 == 0) {
+                cache.sweepBucket("shorturl:b:0", now);
+            }
+            maxSize = Math.max(maxSize, bucket.size());
+        }
+        assertTrue(maxSize <= 10 * (60 + 10), "桶最大条目数: " + maxSize);
+        assertTrue(bucket.size() >= 10 * 60, "未过期字段被清理: " + bucket.size());
+    }
+
+    private static ShortUrlRedisCache newCache() {
+        return new ShortUrlRedisCache(mock(StringRedisTemplate.class), dictionaryManager(UrlDictionary.EMPTY));
+    }
+
+    private static UrlDictionaryManager dictionaryManager(UrlDictionary dictionary) {
+        UrlDictionaryManager manager = new UrlDictionaryManager(mock(UrlPrefixDictMapper.class), mock(UrlMappingMapper.class));
+        ReflectionTestUtils.setField(manager, "dictionary", dictionary);
+        return manager;
+    }
+
+    /**
+     * 遍历内存数据的HSCAN游标
+     */
+    private static class IteratorCursor<T> implements Cursor<T> {
+        private final Iterator<T> iterator;
+        private long position;
+        private boolean closed;
+
+        IteratorCursor(Iterator<T> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public long getCursorId() {
+            return 0;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public long getPosition() {
+            return position;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public T next() {
+            position++;
+            return iterator.next();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.chy.shorturl.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 请求合并加载器集群租约测试
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public class SingleFlightLoaderTest {
+
+    private final RLock lock = mock(RLock.class);
+    private final ShortUrlRedisCache shortUrlRedisCache = mock(ShortUrlRedisCache.class);
+    private final AtomicInteger dbLoads = new AtomicInteger();
+    private final CachedUrl dbValue = new CachedUrl("https://example.com/db", 0);
+    private SingleFlightLoader loader;
+
+    @BeforeEach
+    public void setUp() {
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getLock(anyString())).thenReturn(lock);
+        loader = new SingleFlightLoader(redissonClient, shortUrlRedisCache);
+        ReflectionTestUtils.setField(loader, "clusterEnabled", true);
+        ReflectionTestUtils.setField(loader, "leaseMillis", 3000L);
+        ReflectionTestUtils.setField(loader, "waitMillis", 500L);
+    }
+
+    /**
+     * 取得租约后Redis未命中：回源数据库，并在释放租约前写回Redis
+     */
+    @Test
+    public void testWriteBackBeforeUnlock() throws InterruptedException {
+        when(lock.tryLock(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS))).thenReturn(true);
+
+        assertSame(dbValue, loader.load("abc123", this::queryDatabase));
+        assertEquals(1, dbLoads.get());
+        InOrder order = inOrder(shortUrlRedisCache, lock);
+        order.verify(shortUrlRedisCache).get("abc123");
+        order.verify(shortUrlRedisCache).put("abc123", dbValue);
+        order.verify(lock).unlock();
+    }
+
+    /**
+     * 取得租约时上一个持有者已写回Redis：不再回源数据库
+     */
+    @Test
+    public void testRecheckRedisInsideLease() throws InterruptedException {
+        CachedUrl redisValue = new CachedUrl("https://example.com/redis", 0);
+        when(lock.tryLock(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS))).thenReturn(true);
+        when(shortUrlRedisCache.get("abc123")).thenReturn(redisValue);
+
+        assertSame(redisValue, loader.load("abc123", this::queryDatabase));
+        assertEquals(0, dbLoads.get());
+        verify(lock).unlock();
+        assertEquals(1, loader.getStats().getClusterRedisHits());
+    }
+
+    /**
+     * 等待租约超时：Redis已由持有者写回时直接命中，否则才回源数据库
+     */
+    @Test
+    public void testLockTimeoutChecksRedisFirst() throws InterruptedException {
+        CachedUrl redisValue = new CachedUrl("https://example.com/redis", 0);
+        when(lock.tryLock(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS))).thenReturn(false);
+        when(shortUrlRedisCache.get("abc123")).thenReturn(redisValue);
+
+        assertSame(redisValue, loader.load("abc123", this::queryDatabase));
+        assertSame(dbValue, loader.load("missing", this::queryDatabase));
+        assertEquals(1, dbLoads.get());
+        assertEquals(2, loader.getStats().getClusterLockTimeouts());
+        verify(lock, never()).unlock();
+    }
+
+    private CachedUrl queryDatabase() {
+        dbLoads.incrementAndGet();
+        return dbValue;
+    }
+}
@@ -0,0 +1,48 @@
+package com.chy.shorturl.cache.codec;
+
+import com.chy.shorturl.entity.UrlPrefixDict;
+import com.chy.shorturl.mapper.UrlMappingMapper;
+import com.chy.shorturl.mapper.UrlPrefixDictMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * URL前缀字典管理测试
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public class UrlDictionaryManagerTest {
+
+    /**
+     * 并发训练时较大的ID先提交，之后提交的较小ID仍会被加载
+     */
+    @Test
+    public void testRefreshLoadsIdsCommittedOutOfOrder() {
+        List<UrlPrefixDict> table = new ArrayList<>();
+        UrlPrefixDictMapper mapper = mock(UrlPrefixDictMapper.class);
+        when(mapper.findUpTo(anyInt())).thenAnswer(inv -> new ArrayList<>(table));
+        UrlDictionaryManager manager = new UrlDictionaryManager(mapper, mock(UrlMappingMapper.class));
+        ReflectionTestUtils.setField(manager, "enabled", true);
+
+        table.add(new UrlPrefixDict().setId(1).setPrefix("https://a.com/"));
+        table.add(new UrlPrefixDict().setId(3).setPrefix("https://c.com/"));
+        manager.refresh();
+        assertEquals(2, manager.current().size());
+
+        // ID 2 的事务晚于 ID 3 提交
+        table.add(1, new UrlPrefixDict().setId(2).setPrefix("https://b.com/"));
+        manager.refresh();
+        assertEquals(3, manager.current().size());
+        assertEquals("https://b.com/x", manager.current().decompress(manager.current().compress("https://b.com/x")));
+        assertEquals(2, manager.current().match("https://b.com/x"));
+    }
+}
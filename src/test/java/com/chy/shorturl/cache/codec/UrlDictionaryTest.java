@@ -0,0 +1,236 @@
+package com.chy.shorturl.cache.codec;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * URL前缀字典测试
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+public class UrlDictionaryTest {
+
+    @Test
+    public void testLongestPrefixRoundTrip() {
+        UrlDictionary dictionary = new UrlDictionary(Map.of(
+                1, "https://www.example.com/",
+                2, "https://www.example.com/promo/",
+                300, "https://cdn.example.org/a/b/"));
+
+        String url = "https://www.example.com/promo/2026/sale?id=1";
+        assertEquals(2, dictionary.match(url));
+        String compressed = dictionary.compress(url);
+        assertEquals(UrlDictionary.MARKER + "\u00022026/sale?id=1", compressed);
+        assertEquals(url, dictionary.decompress(compressed));
+        assertEquals(url, dictionary.decode(dictionary.encode(url)));
+
+        // ID大于127时varint占2字节
+        String cdnUrl = "https://cdn.example.org/a/b/c.png";
+        byte[] encoded = dictionary.encode(cdnUrl);
+        assertEquals(3 + "c.png".length(), encoded.length);
+        assertEquals(cdnUrl, dictionary.decode(encoded));
+        assertEquals(cdnUrl, dictionary.decompress(dictionary.compress(cdnUrl)));
+
+        // 未命中字典（域名不同、没有路径）时原样保存
+        String other = "https://other.com/promo/x";
+        assertSame(other, dictionary.compress(other));
+        assertArrayEquals(other.getBytes(StandardCharsets.UTF_8), dictionary.encode(other));
+        assertEquals("https://www.example.com", dictionary.compress("https://www.example.com"));
+    }
+
+    @Test
+    public void testUnknownIdAfterDictionaryGrows() {
+        UrlDictionary small = new UrlDictionary(Map.of(1, "https://a.com/"));
+        UrlDictionary grown = small.with(Map.of(2, "https://b.com/x/"));
+
+        String url = "https://b.com/x/中文?q=1";
+        String compressed = grown.compress(url);
+        assertEquals(url, grown.decompress(compressed));
+        assertEquals(url, grown.decode(grown.encode(url)));
+        // 其他节点已追加、本节点尚未加载的ID
+        assertNull(small.decompress(compressed));
+        assertNull(small.decode(grown.encode(url)));
+        // 追加后旧ID不变
+        assertEquals("https://a.com/p", grown.decompress(small.compress("https://a.com/p")));
+    }
+
+    @Test
+    public void testTrainPicksFrequentPrefixes() {
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            urls.add("https://www.example.com/promo/item/" + i);
+            urls.add("https://rare" + i + ".com/" + i);
+        }
+        List<String> prefixes = UrlDictionary.train(urls, Set.of("https://www.example.com/"), 2, 5, 3);
+        assertEquals(List.of("https://www.example.com/promo/item/", "https://www.example.com/promo/"), prefixes);
+    }
+
+    /**
+     * 在模拟的URL分布上，训练出的字典压缩后不超过原始字节数的70%，且编解码结果一致
+     */
+    @Test
+    public void testCompressionRatio() {
+        List<String> urls = generateUrls(100_000);
+        List<String> test = urls.subList(urls.size() / 2, urls.size());
+        UrlDictionary dictionary = trainDictionary(urls.subList(0, urls.size() / 2));
+
+        long originalBytes = 0;
+        long encodedBytes = 0;
+        for (String url : test) {
+            byte[] encoded = dictionary.encode(url);
+            originalBytes += url.getBytes(StandardCharsets.UTF_8).length;
+            encodedBytes += encoded.length;
+            assertEquals(url, dictionary.decode(encoded));
+            assertEquals(url, dictionary.decompress(dictionary.compress(url)));
+        }
+        assertTrue(encodedBytes < originalBytes * 0.7, "压缩率: " + (double) encodedBytes / originalBytes);
+    }
+
+    /**
+     * 压缩率与编解码速度基准
+     * 字典从前半部分样本训练，在后半部分上测量
+     */
+    @Test
+    @Tag("benchmark")
+    public void benchmarkCompressionAndSpeed() {
+        int total = 200_000;
+        List<String> urls = generateUrls(total);
+        List<String> test = urls.subList(total / 2, total);
+        UrlDictionary dictionary = trainDictionary(urls.subList(0, total / 2));
+
+        long originalBytes = 0;
+        long encodedBytes = 0;
+        long redisBytes = 0;
+        byte[][] encoded = new byte[test.size()][];
+        String[] compressed = new String[test.size()];
+        for (int i = 0; i < test.size(); i++) {
+            String url = test.get(i);
+            encoded[i] = dictionary.encode(url);
+            compressed[i] = dictionary.compress(url);
+            originalBytes += url.getBytes(StandardCharsets.UTF_8).length;
+            encodedBytes += encoded[i].length;
+            redisBytes += compressed[i].getBytes(StandardCharsets.UTF_8).length;
+            assertEquals(url, dictionary.decode(encoded[i]));
+            assertEquals(url, dictionary.decompress(compressed[i]));
+        }
+        byte[][] plain = new byte[test.size()][];
+        for (int i = 0; i < test.size(); i++) {
+            plain[i] = test.get(i).getBytes(StandardCharsets.UTF_8);
+        }
+
+        int rounds = 10;
+        long sink = 0;
+        for (int warmUp = 0; warmUp < 3; warmUp++) {
+            sink += encodeAll(dictionary, test) + decodeAll(dictionary, encoded) + decodeAll(UrlDictionary.EMPTY, plain);
+        }
+        long encodeNanos = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            sink += encodeAll(dictionary, test);
+        }
+        encodeNanos = System.nanoTime() - encodeNanos;
+        long decodeAllocated = allocatedBytes();
+        long decodeNanos = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            sink += decodeAll(dictionary, encoded);
+        }
+        decodeNanos = System.nanoTime() - decodeNanos;
+        decodeAllocated = allocatedBytes() - decodeAllocated;
+        long plainAllocated = allocatedBytes();
+        long plainNanos = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            sink += decodeAll(UrlDictionary.EMPTY, plain);
+        }
+        plainNanos = System.nanoTime() - plainNanos;
+        plainAllocated = allocatedBytes() - plainAllocated;
+
+        long ops = (long) rounds * test.size();
+        log.info("====== URL前缀字典基准（字典{}条，测试{}条，URL平均{}字节） ======",
+                dictionary.size(), test.size(), originalBytes / test.size());
+        log.info("压缩率（本地存储字节形式）: {}", String.format("%.3f", (double) encodedBytes / originalBytes));
+        log.info("压缩率（Redis字符串形式UTF-8）: {}", String.format("%.3f", (double) redisBytes / originalBytes));
+        log.info("编码: {} ns/op", String.format("%.1f", (double) encodeNanos / ops));
+        log.info("解码: {} ns/op, {} 字节/op", String.format("%.1f", (double) decodeNanos / ops),
+                String.format("%.1f", (double) decodeAllocated / ops));
+        log.info("未压缩new String对照: {} ns/op, {} 字节/op", String.format("%.1f", (double) plainNanos / ops),
+                String.format("%.1f", (double) plainAllocated / ops));
+        log.info("===================================");
+        assertTrue(sink > 0);
+    }
+
+    /**
+     * 模拟300个域名、每个域名若干路径前缀的URL分布
+     */
+    private static List<String> generateUrls(int total) {
+        Random random = new Random(7);
+        String[] hosts = new String[300];
+        for (int i = 0; i < hosts.length; i++) {
+            hosts[i] = (i % 3 == 0 ? "https://www." : "https://") + "site" + i + (i % 2 == 0 ? ".com" : ".co.jp");
+        }
+        String[] paths = {"/promo/", "/product/detail/", "/activity/2026/", "/s/", "/article/", "/share/invite/"};
+        List<String> urls = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            // 域名按Zipf近似分布
+            int host = (int) Math.min(hosts.length - 1, Math.abs(random.nextGaussian()) * 60);
+            StringBuilder url = new StringBuilder(hosts[host]).append(paths[random.nextInt(paths.length)]);
+            int tail = 6 + random.nextInt(30);
+            for (int j = 0; j < tail; j++) {
+                url.append((char) ('a' + random.nextInt(26)));
+            }
+            urls.add(url.append("?utm_source=campaign").toString());
+        }
+        return urls;
+    }
+
+    private static UrlDictionary trainDictionary(List<String> sample) {
+        List<String> prefixes = UrlDictionary.train(sample, Set.of(), 1024, 20, 3);
+        Map<Integer, String> entries = new HashMap<>();
+        for (int i = 0; i < prefixes.size(); i++) {
+            entries.put(i + 1, prefixes.get(i));
+        }
+        return new UrlDictionary(entries);
+    }
+
+    private static long encodeAll(UrlDictionary dictionary, List<String> urls) {
+        long sum = 0;
+        for (String url : urls) {
+            sum += dictionary.encode(url).length;
+        }
+        return sum;
+    }
+
+    private static long decodeAll(UrlDictionary dictionary, byte[][] values) {
+        long sum = 0;
+        for (byte[] value : values) {
+            sum += dictionary.decode(value).length();
+        }
+        return sum;
+    }
+
+    /**
+     * 当前线程累计分配的字节数，JVM不支持时返回0
+     */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean) {
+            return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,52 @@
+package com.chy.shorturl.cache.hotkey;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 热点检测结构测试
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public class HeavyHitterSketchTest {
+
+    @Test
+    public void testZipfHotKeysDetected() {
+        int keys = 100_000;
+        double[] cumulative = new double[keys];
+        double sum = 0;
+        for (int i = 0; i < keys; i++) {
+            sum += 1.0 / Math.pow(i + 1, 1.1);
+            cumulative[i] = sum;
+        }
+        Random random = new Random(42);
+        HeavyHitterSketch sketch = new HeavyHitterSketch(4, 4096, 50, 2);
+        int[] actual = new int[keys];
+        for (int n = 0; n < 500_000; n++) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            int rank = index >= 0 ? index : -index - 1;
+            actual[rank]++;
+            sketch.add("code" + rank);
+        }
+
+        List<Map.Entry<String, Long>> topK = sketch.topK();
+        assertEquals(50, topK.size());
+        Set<String> detected = topK.stream().map(Map.Entry::getKey).collect(Collectors.toSet());
+        // Zipf分布下最热的10个短码必须全部检出，且估计值不低于真实值
+        for (int rank = 0; rank < 10; rank++) {
+            assertTrue(detected.contains("code" + rank), "未检出code" + rank);
+            assertTrue(sketch.estimate("code" + rank) >= actual[rank]);
+        }
+        assertEquals("code0", topK.get(0).getKey());
+    }
+}
@@ -0,0 +1,172 @@
+package com.chy.shorturl.cache.local;
+
+import com.chy.shorturl.cache.CachedUrl;
+import com.chy.shorturl.common.util.Base62Util;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 紧凑短码存储测试
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+public class CompactUrlStoreTest {
+
+    private static final long FAR_FUTURE = Long.MAX_VALUE;
+
+    @Test
+    public void testPutGetRemove() {
+        CompactUrlStore store = new CompactUrlStore(100, 4);
+        long now = System.currentTimeMillis();
+        assertTrue(store.put("aB3xY9", new CachedUrl("https://example.com/中文路径", 0), FAR_FUTURE));
+        assertTrue(store.put("000001", new CachedUrl("https://example.com/padded", 0), FAR_FUTURE));
+        assertTrue(store.put("1", new CachedUrl("https://example.com/short", now + 5000), FAR_FUTURE));
+
+        assertEquals("https://example.com/中文路径", store.get("aB3xY9", now).getOriginalUrl());
+        // 数值相同但长度不同的短码互不影响
+        assertEquals("https://example.com/padded", store.get("000001", now).getOriginalUrl());
+        assertEquals("https://example.com/short", store.get("1", now).getOriginalUrl());
+        assertEquals(now + 5000, store.get("1", now).getExpireAt());
+
+        store.remove("000001");
+        assertNull(store.get("000001", now));
+        assertNotNull(store.get("1", now));
+        assertEquals(2, store.size());
+
+        // 非62进制字符的短码不进入存储
+        assertFalse(store.put("ab-cd", new CachedUrl("https://example.com", 0), FAR_FUTURE));
+        assertNull(store.get("ab-cd", now));
+    }
+
+    @Test
+    public void testDeadline() {
+        CompactUrlStore store = new CompactUrlStore(100, 1);
+        store.put("abc", new CachedUrl("https://example.com", 0), 1000);
+        assertNotNull(store.get("abc", 999));
+        assertNull(store.get("abc", 1000));
+    }
+
+    /**
+     * 与HashMap对照的随机读写删除，验证线性探测与后移删除的正确性
+     */
+    @Test
+    public void testRandomOperationsMatchHashMap() {
+        CompactUrlStore store = new CompactUrlStore(4096, 1);
+        Map<String, String> expected = new HashMap<>();
+        Random random = new Random(20261016L);
+        for (int i = 0; i < 200000; i++) {
+            String code = Base62Util.encode(random.nextInt(3000), 4);
+            int op = random.nextInt(3);
+            if (op == 0) {
+                String url = "https://example.com/" + i;
+                store.put(code, new CachedUrl(url, 0), FAR_FUTURE);
+                expected.put(code, url);
+            } else if (op == 1) {
+                store.remove(code);
+                expected.remove(code);
+            } else {
+                CachedUrl cachedUrl = store.get(code, 0);
+                assertEquals(expected.get(code), cachedUrl == null ? null : cachedUrl.getOriginalUrl());
+            }
+        }
+        assertEquals(expected.size(), store.size());
+    }
+
+    /**
+     * 容量满时淘汰，近期被访问的条目优先保留
+     */
+    @Test
+    public void testClockEvictionKeepsReferencedEntries() {
+        CompactUrlStore store = new CompactUrlStore(1000, 1);
+        for (int i = 0; i < 1000; i++) {
+            store.put(Base62Util.encode(i, 6), new CachedUrl("https://example.com/" + i, 0), FAR_FUTURE);
+        }
+        // 访问前100个条目
+        for (int i = 0; i < 100; i++) {
+            assertNotNull(store.get(Base62Util.encode(i, 6), 0));
+        }
+        for (int i = 1000; i < 1500; i++) {
+            store.put(Base62Util.encode(i, 6), new CachedUrl("https://example.com/" + i, 0), FAR_FUTURE);
+        }
+        assertEquals(1000, store.size());
+        assertEquals(500, store.getStats().getEvictionCount());
+        for (int i = 0; i < 100; i++) {
+            assertNotNull(store.get(Base62Util.encode(i, 6), 0), "热点条目被淘汰: " + i);
+        }
+    }
+
+    /**
+     * 使用JOL统计每条目占用的堆内存，对比Caffeine Cache<String, String>
+     * 对象图会经由执行器等引用到共享对象，因此以同配置空缓存的占用作为基线扣除；
+     * 属于基准测量，默认不运行，使用 -Pbenchmark 运行
+     */
+    @Test
+    @Tag("benchmark")
+    public void reportBytesPerEntry() {
+        int entries = 200000;
+        Random random = new Random(1);
+        String[] codes = new String[entries];
+        String[] urls = new String[entries];
+        for (int i = 0; i < entries; i++) {
+            codes[i] = Base62Util.encode(1_000_000_000L + i * 7919L, 6);
+            urls[i] = randomUrl(random);
+        }
+
+        System.setProperty("jol.magicFieldOffset", "true");
+        Cache<String, String> emptyCaffeine = Caffeine.newBuilder().maximumSize(entries).executor(Runnable::run).build();
+        Cache<String, String> caffeine = Caffeine.newBuilder().maximumSize(entries).executor(Runnable::run).build();
+        CompactUrlStore store = new CompactUrlStore(entries, 16);
+        for (int i = 0; i < entries; i++) {
+            caffeine.put(codes[i], urls[i]);
+            store.put(codes[i], new CachedUrl(urls[i], 0), FAR_FUTURE);
+        }
+        caffeine.cleanUp();
+
+        long caffeineBytes = GraphLayout.parseInstance(caffeine).totalSize()
+                - GraphLayout.parseInstance(emptyCaffeine).totalSize();
+        long compactBytes = GraphLayout.parseInstance(store).totalSize();
+        CompactUrlStore.CompactStoreStats stats = store.getStats();
+        log.info("====== 本地缓存每条目内存占用（JOL，{}条，URL平均{}字节） ======", entries, averageLength(urls));
+        log.info("Caffeine Cache<String, String>: {} 字节/条", String.format("%.1f", (double) caffeineBytes / entries));
+        log.info("CompactUrlStore: {} 字节/条（自身估算 {} 字节/条）",
+                String.format("%.1f", (double) compactBytes / entries), String.format("%.1f", stats.getBytesPerEntry()));
+        log.info("===================================");
+        assertTrue(compactBytes < caffeineBytes);
+    }
+
+    /**
+     * 生成长度20到2048字节、集中在较短长度的URL
+     */
+    private static String randomUrl(Random random) {
+        int length = 20 + (int) Math.min(2028, Math.abs(random.nextGaussian()) * 80);
+        StringBuilder url = new StringBuilder(length).append("https://ex.com/");
+        while (url.length() < length) {
+            url.append((char) ('a' + random.nextInt(26)));
+        }
+        return url.toString();
+    }
+
+    private static long averageLength(String[] values) {
+        long total = 0;
+        for (String value : values) {
+            total += value.length();
+        }
+        return total / values.length;
+    }
+}
@@ -0,0 +1,82 @@
+package com.chy.shorturl.cache.local;
+
+import com.chy.shorturl.cache.CachedUrl;
+import com.chy.shorturl.cache.local.LocalCacheSnapshotFile.InvalidSnapshotException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 本地缓存快照文件测试
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public class LocalCacheSnapshotFileTest {
+
+    private static final long NOW = 1_790_000_000_000L;
+    private static final long MAX_AGE = 3_600_000L;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testRoundTripKeepsOrderAndSkipsExpired() throws IOException {
+        Map<String, CachedUrl> entries = new LinkedHashMap<>();
+        entries.put("hot001", new CachedUrl("https://example.com/中文", 0));
+        entries.put("hot002", new CachedUrl("https://example.com/b", NOW + 60_000));
+        entries.put("gone01", new CachedUrl("https://example.com/c", NOW - 1));
+        entries.put("hot003", new CachedUrl("https://example.com/d", NOW + 10_000));
+        Path path = dir.resolve("snapshot.bin");
+
+        assertEquals(3, LocalCacheSnapshotFile.write(path, entries, NOW));
+
+        // 加载时再次剔除已过期的条目
+        Map<String, CachedUrl> loaded = LocalCacheSnapshotFile.read(path, NOW + 20_000, MAX_AGE);
+        assertEquals(List.of("hot001", "hot002"), new ArrayList<>(loaded.keySet()));
+        assertEquals("https://example.com/中文", loaded.get("hot001").getOriginalUrl());
+        assertEquals(NOW + 60_000, loaded.get("hot002").getExpireAt());
+    }
+
+    @Test
+    public void testCorruptFileIsRejected() throws IOException {
+        Path path = dir.resolve("snapshot.bin");
+        LocalCacheSnapshotFile.write(path, Map.of("abc123", new CachedUrl("https://example.com", 0)), NOW);
+        byte[] bytes = Files.readAllBytes(path);
+
+        // 数据区任意字节被修改
+        byte[] flipped = bytes.clone();
+        flipped[bytes.length - 1] ^= 1;
+        Files.write(path, flipped);
+        assertThrows(InvalidSnapshotException.class, () -> LocalCacheSnapshotFile.read(path, NOW, MAX_AGE));
+
+        // 文件被截断
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 3));
+        assertThrows(InvalidSnapshotException.class, () -> LocalCacheSnapshotFile.read(path, NOW, MAX_AGE));
+
+        // 版本不兼容
+        byte[] otherVersion = bytes.clone();
+        otherVersion[5] = 2;
+        Files.write(path, otherVersion);
+        assertThrows(InvalidSnapshotException.class, () -> LocalCacheSnapshotFile.read(path, NOW, MAX_AGE));
+    }
+
+    @Test
+    public void testStaleFileIsRejected() throws IOException {
+        Path path = dir.resolve("snapshot.bin");
+        LocalCacheSnapshotFile.write(path, Map.of("abc123", new CachedUrl("https://example.com", 0)), NOW);
+        assertEquals(1, LocalCacheSnapshotFile.read(path, NOW + MAX_AGE, MAX_AGE).size());
+        assertThrows(InvalidSnapshotException.class, () -> LocalCacheSnapshotFile.read(path, NOW + MAX_AGE + 1, MAX_AGE));
+    }
+}
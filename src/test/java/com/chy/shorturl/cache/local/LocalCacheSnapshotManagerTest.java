@@ -0,0 +1,113 @@
+package com.chy.shorturl.cache.local;
+
+import com.chy.shorturl.cache.CachedUrl;
+import com.chy.shorturl.cache.ShortUrlRedisCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 本地缓存快照加载测试：只加载Redis中仍存在的条目
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public class LocalCacheSnapshotManagerTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * 停机期间被删除的链接不加载，被修改的链接以Redis中的值为准
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testLoadsOnlyEntriesStillInRedis() throws IOException {
+        Path snapshot = writeSnapshot();
+        Map<String, CachedUrl> redis = new HashMap<>();
+        redis.put("live01", new CachedUrl("https://example.com/live", 0));
+        redis.put("moved1", new CachedUrl("https://example.com/moved-new", 0));
+        ShortUrlRedisCache redisCache = mock(ShortUrlRedisCache.class);
+        when(redisCache.multiGet(anyCollection())).thenAnswer(inv -> {
+            Map<String, CachedUrl> result = new HashMap<>();
+            for (String shortCode : (Collection<String>) inv.getArgument(0, Collection.class)) {
+                if (redis.containsKey(shortCode)) {
+                    result.put(shortCode, redis.get(shortCode));
+                }
+            }
+            return result;
+        });
+        LocalUrlCache localUrlCache = mock(LocalUrlCache.class);
+        Map<String, CachedUrl> loaded = new HashMap<>();
+        doAnswer(inv -> {
+            loaded.putAll(inv.getArgument(0, Map.class));
+            return null;
+        }).when(localUrlCache).putAll(anyMap());
+
+        newManager(localUrlCache, redisCache, snapshot).run(null);
+
+        assertEquals(2, loaded.size());
+        assertEquals("https://example.com/live", loaded.get("live01").getOriginalUrl());
+        assertEquals("https://example.com/moved-new", loaded.get("moved1").getOriginalUrl());
+        // 3个条目、每批2个，分两批校验
+        verify(redisCache, times(2)).multiGet(anyCollection());
+        assertFalse(Files.exists(snapshot));
+    }
+
+    /**
+     * Redis不可用时无法校验，整个快照被丢弃
+     */
+    @Test
+    public void testDiscardsSnapshotWhenRedisUnavailable() throws IOException {
+        Path snapshot = writeSnapshot();
+        ShortUrlRedisCache redisCache = mock(ShortUrlRedisCache.class);
+        when(redisCache.multiGet(anyCollection())).thenThrow(new RedisConnectionFailureException("模拟Redis不可用"));
+        LocalUrlCache localUrlCache = mock(LocalUrlCache.class);
+
+        newManager(localUrlCache, redisCache, snapshot).run(null);
+
+        verify(localUrlCache, never()).putAll(any());
+        assertFalse(Files.exists(snapshot));
+    }
+
+    private Path writeSnapshot() throws IOException {
+        Map<String, CachedUrl> entries = new LinkedHashMap<>();
+        entries.put("live01", new CachedUrl("https://example.com/live", 0));
+        entries.put("gone01", new CachedUrl("https://example.com/deleted", 0));
+        entries.put("moved1", new CachedUrl("https://example.com/moved-old", 0));
+        Path snapshot = dir.resolve("local-cache.snapshot");
+        LocalCacheSnapshotFile.write(snapshot, entries, System.currentTimeMillis());
+        return snapshot;
+    }
+
+    private LocalCacheSnapshotManager newManager(LocalUrlCache localUrlCache, ShortUrlRedisCache redisCache, Path snapshot) {
+        LocalCacheSnapshotManager manager = new LocalCacheSnapshotManager(localUrlCache, redisCache);
+        ReflectionTestUtils.setField(manager, "enabled", true);
+        ReflectionTestUtils.setField(manager, "path", snapshot.toString());
+        ReflectionTestUtils.setField(manager, "size", 100);
+        ReflectionTestUtils.setField(manager, "maxAgeSeconds", 3600L);
+        ReflectionTestUtils.setField(manager, "verifyBatchSize", 2);
+        return manager;
+    }
+}
@@ -0,0 +1,107 @@
+package com.chy.shorturl.cache.local;
+
+import com.chy.shorturl.cache.CachedUrl;
+import com.chy.shorturl.common.util.Base62Util;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 堆外短码存储测试
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public class OffHeapUrlStoreTest {
+
+    private static final long FAR_FUTURE = Long.MAX_VALUE;
+
+    @Test
+    public void testPutGetRemove() {
+        OffHeapUrlStore store = new OffHeapUrlStore(64 * 1024, 128, 4);
+        long now = System.currentTimeMillis();
+        assertTrue(store.put("aB3xY9", new CachedUrl("https://example.com/中文路径", now + 5000), FAR_FUTURE));
+        assertTrue(store.put("000001", new CachedUrl("https://example.com/padded", 0), FAR_FUTURE));
+        assertTrue(store.put("1", new CachedUrl("https://example.com/short", 0), 1000));
+
+        CachedUrl cachedUrl = store.get("aB3xY9", now);
+        assertEquals("https://example.com/中文路径", cachedUrl.getOriginalUrl());
+        assertEquals(now + 5000, cachedUrl.getExpireAt());
+        assertEquals("https://example.com/padded", store.get("000001", now).getOriginalUrl());
+        // 超过缓存截止时间视为不存在
+        assertNull(store.get("1", now));
+
+        store.remove("000001");
+        assertNull(store.get("000001", now));
+        assertNotNull(store.get("aB3xY9", now));
+    }
+
+    /**
+     * 超出槽位容量的URL不缓存，并删除旧值
+     */
+    @Test
+    public void testOversizeUrlIsRejected() {
+        OffHeapUrlStore store = new OffHeapUrlStore(64 * 1024, 64, 1);
+        assertTrue(store.put("abc", new CachedUrl("https://example.com/a", 0), FAR_FUTURE));
+        assertFalse(store.put("abc", new CachedUrl("https://example.com/" + "x".repeat(64), 0), FAR_FUTURE));
+        assertNull(store.get("abc", 0));
+        assertEquals(1, store.getStats().getOversizeCount());
+    }
+
+    /**
+     * 与HashMap对照的随机读写删除，验证线性探测与后移删除的正确性
+     */
+    @Test
+    public void testRandomOperationsMatchHashMap() {
+        OffHeapUrlStore store = new OffHeapUrlStore(4096L * 96, 96, 1);
+        Map<String, String> expected = new HashMap<>();
+        Random random = new Random(20261016L);
+        for (int i = 0; i < 200000; i++) {
+            String code = Base62Util.encode(random.nextInt(2500), 4);
+            int op = random.nextInt(3);
+            if (op == 0) {
+                String url = "https://example.com/" + i;
+                store.put(code, new CachedUrl(url, 0), FAR_FUTURE);
+                expected.put(code, url);
+            } else if (op == 1) {
+                store.remove(code);
+                expected.remove(code);
+            } else {
+                CachedUrl cachedUrl = store.get(code, 0);
+                assertEquals(expected.get(code), cachedUrl == null ? null : cachedUrl.getOriginalUrl());
+            }
+        }
+        assertEquals(expected.size(), store.size());
+    }
+
+    /**
+     * 容量满时按CLOCK淘汰，条目数不超过上限，近期被访问的条目优先保留
+     */
+    @Test
+    public void testClockEviction() {
+        OffHeapUrlStore store = new OffHeapUrlStore(1000L * 64, 64, 1);
+        long maxEntries = store.getStats().getMaxEntries();
+        for (int i = 0; i < maxEntries; i++) {
+            store.put(Base62Util.encode(i, 6), new CachedUrl("https://example.com/" + i, 0), FAR_FUTURE);
+        }
+        for (int i = 0; i < 50; i++) {
+            assertNotNull(store.get(Base62Util.encode(i, 6), 0));
+        }
+        for (long i = maxEntries; i < maxEntries + 300; i++) {
+            store.put(Base62Util.encode(i, 6), new CachedUrl("https://example.com/" + i, 0), FAR_FUTURE);
+        }
+        assertEquals(maxEntries, store.size());
+        assertEquals(300, store.getStats().getEvictionCount());
+        for (int i = 0; i < 50; i++) {
+            assertNotNull(store.get(Base62Util.encode(i, 6), 0), "热点条目被淘汰: " + i);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.chy.shorturl.cache.tiered;
+
+import com.chy.shorturl.cache.CachedUrl;
+import com.chy.shorturl.cache.tiered.TieredCache.TierStats;
+import com.chy.shorturl.cache.tiered.TieredCache.TieredCacheStats;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 分层缓存测试
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public class TieredCacheTest {
+
+    private static final Duration REFRESH = Duration.ofSeconds(60);
+
+    private final AtomicLong ticker = new AtomicLong();
+    private final Queue<Runnable> refreshTasks = new ArrayDeque<>();
+    private final MapTier offHeap = new MapTier("offHeap", true);
+    private final MapTier redis = new MapTier("redis", false);
+    private final MapTier database = new MapTier("database", false);
+
+    @Test
+    public void testLoadThroughTiersAndBackfill() {
+        TieredCache cache = newCache(refreshTasks::add);
+        CachedUrl cachedUrl = new CachedUrl("https://example.com/db", 0);
+        database.values.put("abc123", cachedUrl);
+
+        assertNull(cache.getIfPresent("abc123"));
+        assertSame(cachedUrl, cache.get("abc123"));
+        // 命中数据库后回填堆外缓存和Redis，第一层已写入
+        assertSame(cachedUrl, offHeap.values.get("abc123"));
+        assertSame(cachedUrl, redis.values.get("abc123"));
+        assertSame(cachedUrl, cache.getIfPresent("abc123"));
+
+        assertNull(cache.get("missing"));
+        TieredCacheStats stats = cache.getStats();
+        List<TierStats> tiers = stats.getTiers();
+        assertEquals(List.of("offHeap", "redis", "database"), tiers.stream().map(TierStats::getName).toList());
+        assertEquals(2, tiers.get(0).getMissCount());
+        assertEquals(1, tiers.get(2).getHitCount());
+        assertEquals(1, tiers.get(2).getMissCount());
+    }
+
+    /**
+     * 未命中时由首个请求在自身线程中加载，同一键的其他请求等待该次加载，不经过任何线程池
+     */
+    @Test
+    public void testMissLoadsOnCallerThread() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loadCount = new AtomicInteger();
+        AtomicReference<Thread> loadThread = new AtomicReference<>();
+        MapTier slow = new MapTier("database", false) {
+            @Override
+            public CachedUrl get(String shortCode) {
+                loadCount.incrementAndGet();
+                loadThread.set(Thread.currentThread());
+                loading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.get(shortCode);
+            }
+        };
+        slow.values.put("abc123", new CachedUrl("https://example.com/db", 0));
+        TieredCache cache = new TieredCache(Caffeine.newBuilder(), List.of(slow), refreshTasks::add, REFRESH);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            AtomicReference<Thread> firstThread = new AtomicReference<>();
+            Future<CachedUrl> first = executorService.submit(() -> {
+                firstThread.set(Thread.currentThread());
+                return cache.get("abc123");
+            });
+            assertTrue(loading.await(1, TimeUnit.SECONDS));
+            Future<CachedUrl> second = executorService.submit(() -> cache.get("abc123"));
+            Thread.sleep(50);
+            release.countDown();
+
+            assertEquals("https://example.com/db", first.get(1, TimeUnit.SECONDS).getOriginalUrl());
+            assertEquals("https://example.com/db", second.get(1, TimeUnit.SECONDS).getOriginalUrl());
+            assertEquals(1, loadCount.get());
+            assertSame(firstThread.get(), loadThread.get());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testStaleWhileRevalidate() {
+        TieredCache cache = newCache(refreshTasks::add);
+        database.values.put("abc123", new CachedUrl("https://example.com/v1", 0));
+        assertEquals("https://example.com/v1", cache.get("abc123").getOriginalUrl());
+
+        // 数据源已更新，但堆外缓存中仍是旧值
+        redis.values.remove("abc123");
+        database.values.put("abc123", new CachedUrl("https://example.com/v2", 0));
+        ticker.addAndGet(REFRESH.toNanos() + 1);
+
+        // 超过刷新时间后立即返回旧值，刷新任务排队等待执行
+        assertEquals("https://example.com/v1", cache.getIfPresent("abc123").getOriginalUrl());
+        assertEquals(1, refreshTasks.size());
+        refreshTasks.poll().run();
+
+        // 刷新跳过本地层，从数据源取得新值并回填堆外缓存
+        assertEquals("https://example.com/v2", cache.getIfPresent("abc123").getOriginalUrl());
+        assertEquals("https://example.com/v2", offHeap.values.get("abc123").getOriginalUrl());
+        assertEquals(1, cache.getStats().getRefreshCount());
+    }
+
+    @Test
+    public void testRefreshRemovesDeletedEntry() {
+        TieredCache cache = newCache(refreshTasks::add);
+        database.values.put("abc123", new CachedUrl("https://example.com/v1", 0));
+        cache.get("abc123");
+
+        redis.values.clear();
+        database.values.clear();
+        ticker.addAndGet(REFRESH.toNanos() + 1);
+        cache.getIfPresent("abc123");
+        refreshTasks.poll().run();
+
+        assertNull(cache.getIfPresent("abc123"));
+        assertNull(offHeap.values.get("abc123"));
+    }
+
+    @Test
+    public void testRejectedRefreshKeepsStaleValue() {
+        TieredCache cache = newCache(command -> {
+            throw new RejectedExecutionException("full");
+        });
+        database.values.put("abc123", new CachedUrl("https://example.com/v1", 0));
+        cache.get("abc123");
+
+        ticker.addAndGet(REFRESH.toNanos() + 1);
+        assertEquals("https://example.com/v1", cache.getIfPresent("abc123").getOriginalUrl());
+        assertEquals("https://example.com/v1", cache.getIfPresent("abc123").getOriginalUrl());
+        TieredCacheStats stats = cache.getStats();
+        assertEquals(0, stats.getRefreshCount());
+        assertTrue(stats.getRefreshRejectedCount() >= 1);
+    }
+
+    @Test
+    public void testFailedTierFallsThrough() {
+        MapTier broken = new MapTier("redis", false) {
+            @Override
+            public CachedUrl get(String shortCode) {
+                throw new IllegalStateException("connection refused");
+            }
+        };
+        TieredCache cache = new TieredCache(Caffeine.newBuilder().executor(Runnable::run).recordStats(),
+                List.of(broken, database), Runnable::run, REFRESH);
+        database.values.put("abc123", new CachedUrl("https://example.com/db", 0));
+
+        assertEquals("https://example.com/db", cache.get("abc123").getOriginalUrl());
+        assertEquals(1, cache.getStats().getTiers().get(0).getErrorCount());
+    }
+
+    @Test
+    public void testInvalidateAllTiers() {
+        TieredCache cache = newCache(refreshTasks::add);
+        database.values.put("abc123", new CachedUrl("https://example.com/db", 0));
+        cache.get("abc123");
+
+        cache.invalidate("abc123");
+        assertNull(cache.getIfPresent("abc123"));
+        assertNull(offHeap.values.get("abc123"));
+        assertNull(redis.values.get("abc123"));
+    }
+
+    private TieredCache newCache(Executor refreshExecutor) {
+        return new TieredCache(Caffeine.newBuilder()
+                .ticker(ticker::get)
+                .executor(Runnable::run)
+                .expireAfterWrite(10, TimeUnit.MINUTES)
+                .recordStats(),
+                List.of(offHeap, redis, database), refreshExecutor, REFRESH);
+    }
+
+    private static class MapTier implements CacheTier {
+        private final String name;
+        private final boolean local;
+        final Map<String, CachedUrl> values = new ConcurrentHashMap<>();
+
+        MapTier(String name, boolean local) {
+            this.name = name;
+            this.local = local;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean isLocal() {
+            return local;
+        }
+
+        @Override
+        public CachedUrl get(String shortCode) {
+            return values.get(shortCode);
+        }
+
+        @Override
+        public void put(String shortCode, CachedUrl cachedUrl) {
+            values.put(shortCode, cachedUrl);
+        }
+
+        @Override
+        public void invalidate(String shortCode) {
+            values.remove(shortCode);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.chy.shorturl.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 62进制编解码测试
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public class Base62UtilTest {
+
+    @Test
+    public void testRoundTrip() {
+        long[] values = {0, 1, 61, 62, 3843, 3844, 56_800_235_583L, 56_800_235_584L, Long.MAX_VALUE};
+        for (long value : values) {
+            assertEquals(value, Base62Util.decode(Base62Util.encode(value)));
+            assertEquals(value, Base62Util.decode(Base62Util.encode(value, 6)));
+        }
+        for (int i = 0; i < 100000; i++) {
+            long value = ThreadLocalRandom.current().nextLong(Long.MAX_VALUE);
+            assertEquals(value, Base62Util.decode(Base62Util.encode(value, 11)));
+        }
+    }
+
+    /**
+     * 不足最小长度时补前导零，超过时保留完整编码
+     */
+    @Test
+    public void testPadding() {
+        assertEquals("000000", Base62Util.encode(0, 6));
+        assertEquals("00000Z", Base62Util.encode(61, 6));
+        assertEquals("000010", Base62Util.encode(62, 6));
+        assertEquals("ZZZZZZ", Base62Util.encode(56_800_235_583L, 6));
+        assertEquals("1000000", Base62Util.encode(56_800_235_584L, 6));
+        assertEquals(Base62Util.MAX_ENCODED_LENGTH, Base62Util.encode(Long.MAX_VALUE).length());
+    }
+
+    @Test
+    public void testEncodeIntoArray() {
+        char[] dest = "ab-------cd".toCharArray();
+        Base62Util.encode(62, dest, 2, 7);
+        assertEquals("ab0000010cd", new String(dest));
+        assertThrows(IllegalArgumentException.class, () -> Base62Util.encode(62, new char[1], 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> Base62Util.encode(-1, 6));
+    }
+
+    /**
+     * 非法字符、空串、超长及超出long范围的短码返回-1
+     */
+    @Test
+    public void testDecodeInvalid() {
+        assertEquals(-1, Base62Util.decode(""));
+        assertEquals(-1, Base62Util.decode("abc-12"));
+        assertEquals(-1, Base62Util.decode("测试"));
+        assertEquals(-1, Base62Util.decode("000000000000"));
+        assertEquals(-1, Base62Util.decode("ZZZZZZZZZZZ"));
+    }
+}
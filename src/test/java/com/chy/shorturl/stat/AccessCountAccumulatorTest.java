@@ -0,0 +1,63 @@
+package com.chy.shorturl.stat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 访问次数累加器测试
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public class AccessCountAccumulatorTest {
+
+    /**
+     * 并发累加与反复取出（含移除空计数器）交错时，取出的总数与累加的总数一致
+     */
+    @Test
+    public void testConcurrentAddAndDrainLoseNothing() throws InterruptedException {
+        AccessCountAccumulator accumulator = new AccessCountAccumulator();
+        int threads = 8;
+        int clicksPerThread = 200_000;
+        LongAdder drained = new LongAdder();
+        AtomicBoolean adding = new AtomicBoolean(true);
+
+        Thread drainer = new Thread(() -> {
+            while (adding.get()) {
+                accumulator.drain().forEach(delta -> drained.add(delta.getCount()));
+            }
+        });
+        drainer.start();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            executorService.execute(() -> {
+                for (int i = 0; i < clicksPerThread; i++) {
+                    // 少量短码且访问稀疏，使计数器频繁归零并被移除
+                    accumulator.increment("code" + (i & 3));
+                    if ((i & 1023) == 0) {
+                        Thread.yield();
+                    }
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        adding.set(false);
+        drainer.join();
+        executorService.shutdown();
+
+        accumulator.drain().forEach(delta -> drained.add(delta.getCount()));
+        assertEquals((long) threads * clicksPerThread, drained.sum());
+    }
+}
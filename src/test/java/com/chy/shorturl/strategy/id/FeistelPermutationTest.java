@@ -0,0 +1,67 @@
+package com.chy.shorturl.strategy.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Feistel置换测试
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public class FeistelPermutationTest {
+
+    /**
+     * 在完整的小短码空间（62^2、62^3）上验证置换是双射：
+     * 每个输入的输出都落在空间内且互不相同，有限集合上的单射即双射；
+     * 同时验证逆置换能还原每个输入
+     */
+    @Test
+    public void testBijectiveOnFullKeyspace() {
+        for (int length = 2; length <= 3; length++) {
+            long domain = (long) Math.pow(62, length);
+            FeistelPermutation permutation = new FeistelPermutation(domain, 20261016L);
+            BitSet seen = new BitSet((int) domain);
+
+            for (long x = 0; x < domain; x++) {
+                long y = permutation.permute(x);
+                assertTrue(y >= 0 && y < domain, "置换结果超出空间: " + y);
+                assertFalse(seen.get((int) y), "置换结果重复: " + y);
+                seen.set((int) y);
+                assertEquals(x, permutation.inverse(y));
+            }
+            assertEquals(domain, seen.cardinality());
+        }
+    }
+
+    /**
+     * 连续输入的置换结果不应连续，且不同密钥得到不同的置换
+     */
+    @Test
+    public void testNonSequentialAndKeyed() {
+        long domain = (long) Math.pow(62, 6);
+        FeistelPermutation permutation = new FeistelPermutation(domain, 1L);
+        FeistelPermutation other = new FeistelPermutation(domain, 2L);
+
+        int sequential = 0;
+        int sameAsOther = 0;
+        for (long x = 1; x <= 1000; x++) {
+            long y = permutation.permute(x);
+            if (Math.abs(permutation.permute(x + 1) - y) == 1) {
+                sequential++;
+            }
+            if (y == other.permute(x)) {
+                sameAsOther++;
+            }
+        }
+        assertTrue(sequential < 5, "置换结果呈顺序分布");
+        assertTrue(sameAsOther < 5, "不同密钥的置换结果相同");
+        assertNotEquals(permutation.permute(1), permutation.permute(2));
+    }
+}
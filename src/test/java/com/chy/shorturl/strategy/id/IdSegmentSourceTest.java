@@ -0,0 +1,180 @@
+package com.chy.shorturl.strategy.id;
+
+import com.chy.shorturl.mapper.IdSegmentMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 号段来源测试：模拟多次重启、Redis数据丢失和Redis故障，验证ID始终不重复
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+public class IdSegmentSourceTest {
+
+    private static final String BIZ_TAG = "shorturl:counter";
+
+    /**
+     * 模拟数据库id_segment表中的max_id
+     */
+    private final AtomicLong dbMaxId = new AtomicLong();
+    private final AtomicBoolean dbRecordExists = new AtomicBoolean();
+    private final AtomicBoolean watermarkDown = new AtomicBoolean();
+
+    /**
+     * 模拟Redis计数器
+     */
+    private final AtomicLong redisCounter = new AtomicLong();
+    private final AtomicBoolean redisDown = new AtomicBoolean();
+
+    private IdSegmentMapper idSegmentMapper;
+    private TransactionTemplate transactionTemplate;
+    private StringRedisTemplate redisTemplate;
+
+    private final Set<Long> issued = new HashSet<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        idSegmentMapper = mock(IdSegmentMapper.class);
+        when(idSegmentMapper.insertIgnore(anyString())).thenAnswer(inv -> dbRecordExists.compareAndSet(false, true) ? 1 : 0);
+        when(idSegmentMapper.incrementMaxId(anyString(), anyLong())).thenAnswer(inv -> {
+            dbMaxId.addAndGet(inv.getArgument(1, Long.class));
+            return 1;
+        });
+        when(idSegmentMapper.raiseMaxId(anyString(), anyLong())).thenAnswer(inv -> {
+            if (watermarkDown.get()) {
+                throw new QueryTimeoutException("模拟水位记录失败");
+            }
+            long maxId = inv.getArgument(1, Long.class);
+            return dbMaxId.getAndAccumulate(maxId, Math::max) < maxId ? 1 : 0;
+        });
+        when(idSegmentMapper.findMaxId(anyString())).thenAnswer(inv -> dbMaxId.get());
+
+        transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.getArgument(0, TransactionCallback.class).doInTransaction(null));
+
+        // 模拟带下限的INCRBY脚本
+        redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenAnswer(inv -> {
+            if (redisDown.get()) {
+                throw new RedisConnectionFailureException("模拟Redis不可用");
+            }
+            long step = Long.parseLong(inv.getArgument(2, String.class));
+            long floor = Long.parseLong(inv.getArgument(3, String.class));
+            redisCounter.accumulateAndGet(floor, Math::max);
+            return redisCounter.addAndGet(step);
+        });
+    }
+
+    /**
+     * 纯数据库模式：多次重启（丢弃未用完的号段）后ID不重复
+     */
+    @Test
+    public void testDbSourceUniqueAcrossRestarts() {
+        for (int restart = 0; restart < 5; restart++) {
+            SegmentIdGenerator generator = newGenerator(new DbIdSegmentSource(idSegmentMapper, transactionTemplate, BIZ_TAG));
+            drain(generator, 1500 + restart * 700);
+        }
+    }
+
+    /**
+     * Redis优先、数据库兜底模式：Redis数据丢失后重启不会从头分配
+     */
+    @Test
+    public void testFallbackSourceSurvivesRedisFlush() {
+        drain(newGenerator(newFallbackSource()), 3500);
+
+        // Redis被清空后重启
+        redisCounter.set(0);
+        drain(newGenerator(newFallbackSource()), 3500);
+
+        // 运行中Redis被清空
+        SegmentIdGenerator generator = newGenerator(newFallbackSource());
+        drain(generator, 1200);
+        redisCounter.set(0);
+        drain(generator, 3500);
+    }
+
+    /**
+     * Redis优先、数据库兜底模式：Redis故障期间改用数据库分配，恢复后及重启后ID不重复
+     */
+    @Test
+    public void testFallbackSourceSurvivesRedisOutage() {
+        FallbackIdSegmentSource source = newFallbackSource();
+        SegmentIdGenerator generator = newGenerator(source);
+        drain(generator, 2500);
+
+        redisDown.set(true);
+        drain(generator, 3500);
+        assertTrue(source.isDegraded());
+
+        // 故障期间重启，且另一个节点仍在使用数据库兜底
+        SegmentIdGenerator restarted = newGenerator(newFallbackSource());
+        drain(restarted, 2500);
+
+        redisDown.set(false);
+        drain(generator, 3500);
+        drain(restarted, 3500);
+
+        // 恢复后再次重启
+        drain(newGenerator(newFallbackSource()), 3500);
+    }
+
+    /**
+     * Redis优先、数据库兜底模式：其他节点的Redis号段水位未记录到数据库时，本节点切换到数据库兜底后分配的号段不与其重叠
+     */
+    @Test
+    public void testFallbackSourceSkipsUnrecordedRedisSegments() {
+        FallbackIdSegmentSource nodeA = newFallbackSource();
+        FallbackIdSegmentSource nodeB = newFallbackSource();
+        nodeA.allocate(1000);
+
+        // 节点B从Redis取得号段，但水位记录失败
+        watermarkDown.set(true);
+        long nodeBMax = nodeB.allocate(1000);
+        watermarkDown.set(false);
+
+        redisDown.set(true);
+        long nodeAMax = nodeA.allocate(1000);
+        assertTrue(nodeA.isDegraded());
+        assertTrue(nodeAMax - 1000 >= nodeBMax, "数据库号段与节点B的Redis号段重叠: " + nodeAMax + " / " + nodeBMax);
+    }
+
+    private FallbackIdSegmentSource newFallbackSource() {
+        return new FallbackIdSegmentSource(new RedisIdSegmentSource(redisTemplate, BIZ_TAG),
+                new DbIdSegmentSource(idSegmentMapper, transactionTemplate, BIZ_TAG), 100000);
+    }
+
+    private SegmentIdGenerator newGenerator(IdSegmentSource source) {
+        return new SegmentIdGenerator(source, Runnable::run, 1000, 1000, 1000, 0.5, 60000);
+    }
+
+    private void drain(SegmentIdGenerator generator, int count) {
+        for (int i = 0; i < count; i++) {
+            long id = generator.nextId();
+            assertTrue(id > 0, "ID必须为正数: " + id);
+            assertTrue(issued.add(id), "ID重复: " + id);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.chy.shorturl.strategy.id;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 号段ID生成器测试
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+public class SegmentIdGeneratorTest {
+
+    /**
+     * 模拟Redis INCRBY往返耗时
+     */
+    private static final long SOURCE_LATENCY_MILLIS = 1;
+
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+
+    private ExecutorService prefetchExecutor;
+
+    @BeforeEach
+    public void setUp() {
+        prefetchExecutor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        prefetchExecutor.shutdownNow();
+    }
+
+    /**
+     * 并发获取的ID全局唯一
+     */
+    @Test
+    public void testConcurrentIdsAreUnique() throws InterruptedException {
+        SegmentIdGenerator generator = new SegmentIdGenerator(new InMemorySource(0), prefetchExecutor,
+                100, 100, 10000, 0.5, 1000);
+        int threadCount = 32;
+        int idsPerThread = 20000;
+        ConcurrentHashMap<Long, Boolean> ids = new ConcurrentHashMap<>(threadCount * idsPerThread * 2);
+
+        runConcurrently(threadCount, idsPerThread, () -> {
+            long id = generator.nextId();
+            assertTrue(ids.putIfAbsent(id, Boolean.TRUE) == null, "ID重复: " + id);
+            return id;
+        });
+        assertEquals(threadCount * idsPerThread, ids.size());
+    }
+
+    /**
+     * 不同生成器各自从自己的号段来源加载，互不干扰
+     */
+    @Test
+    public void testGeneratorsAreIndependent() {
+        SegmentIdGenerator first = new SegmentIdGenerator(new InMemorySource(0), prefetchExecutor,
+                100, 100, 100, 0.5, 1000);
+        SegmentIdGenerator second = new SegmentIdGenerator(id -> 1_000_000 + id, prefetchExecutor,
+                100, 100, 100, 0.5, 1000);
+        assertEquals(1, first.nextId());
+        assertEquals(1_000_001, second.nextId());
+    }
+
+    /**
+     * 号段消耗过快时号段长度自动增大
+     */
+    @Test
+    public void testStepGrowsUnderLoad() {
+        SegmentIdGenerator generator = new SegmentIdGenerator(new InMemorySource(0), prefetchExecutor,
+                100, 100, 6400, 0.5, 60000);
+        for (int i = 0; i < 100000; i++) {
+            generator.nextId();
+        }
+        assertEquals(6400, generator.getStep());
+    }
+
+    /**
+     * 竞争基准测试：1到64线程下对比原synchronized实现与双缓冲CAS实现的吞吐量
+     */
+    @Test
+    @Tag("benchmark")
+    public void benchmarkContention() throws InterruptedException {
+        int idsPerRun = 400000;
+        log.info("====== 号段ID生成竞争基准测试（号段来源延迟{}ms） ======", SOURCE_LATENCY_MILLIS);
+        for (int threadCount : THREAD_COUNTS) {
+            LegacySynchronizedGenerator legacy = new LegacySynchronizedGenerator(new InMemorySource(SOURCE_LATENCY_MILLIS), 1000);
+            SegmentIdGenerator generator = new SegmentIdGenerator(new InMemorySource(SOURCE_LATENCY_MILLIS),
+                    prefetchExecutor, 1000, 1000, 100000, 0.5, 1000);
+
+            double legacyOps = runConcurrently(threadCount, idsPerRun / threadCount, legacy::nextId);
+            double casOps = runConcurrently(threadCount, idsPerRun / threadCount, generator::nextId);
+            log.info("线程数: {}, synchronized: {} ops/s, 双缓冲CAS: {} ops/s, 提升: {}倍",
+                    threadCount, String.format("%.0f", legacyOps), String.format("%.0f", casOps),
+                    String.format("%.2f", casOps / legacyOps));
+        }
+        log.info("===================================");
+    }
+
+    /**
+     * 并发执行并返回吞吐量（次/秒）
+     */
+    private double runConcurrently(int threadCount, int callsPerThread, LongSupplier call) throws InterruptedException {
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            executorService.execute(() -> {
+                try {
+                    start.await();
+                    for (int j = 0; j < callsPerThread; j++) {
+                        call.getAsLong();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        long startTime = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - startTime;
+        executorService.shutdown();
+        return (double) threadCount * callsPerThread * TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+
+    /**
+     * 内存号段来源，可模拟网络延迟
+     */
+    private static class InMemorySource implements IdSegmentSource {
+        private final AtomicLong counter = new AtomicLong();
+        private final long latencyMillis;
+
+        InMemorySource(long latencyMillis) {
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public long allocate(long step) {
+            if (latencyMillis > 0) {
+                try {
+                    Thread.sleep(latencyMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return counter.addAndGet(step);
+        }
+    }
+
+    /**
+     * 原CounterShortUrlStrategy中的synchronized实现，作为基准对照
+     */
+    private static class LegacySynchronizedGenerator {
+        private final IdSegmentSource source;
+        private final int batchSize;
+        private final AtomicLong localCounter = new AtomicLong(0);
+        private long currentBatchStart = 0;
+
+        LegacySynchronizedGenerator(IdSegmentSource source, int batchSize) {
+            this.source = source;
+            this.batchSize = batchSize;
+        }
+
+        synchronized long nextId() {
+            long localOffset = localCounter.incrementAndGet();
+            if (localOffset > batchSize || currentBatchStart == 0) {
+                currentBatchStart = source.allocate(batchSize) - batchSize + 1;
+                localCounter.set(1);
+                localOffset = 1;
+            }
+            return currentBatchStart + localOffset - 1;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.chy.shorturl.strategy.id;
+
+import com.chy.shorturl.strategy.impl.SnowflakeShortUrlStrategy;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 无锁雪花ID生成器测试
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+public class SnowflakeIdGeneratorTest {
+
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+
+    /**
+     * 并发生成的ID全局唯一
+     */
+    @Test
+    public void testConcurrentIdsAreUnique() throws InterruptedException {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7, 0, 10000, System::currentTimeMillis);
+        int threadCount = 32;
+        int idsPerThread = 20000;
+        ConcurrentHashMap<Long, Boolean> ids = new ConcurrentHashMap<>(threadCount * idsPerThread * 2);
+
+        runConcurrently(threadCount, idsPerThread, () -> {
+            long id = generator.nextId();
+            assertTrue(ids.putIfAbsent(id, Boolean.TRUE) == null, "ID重复: " + id);
+            return id;
+        });
+        assertEquals(threadCount * idsPerThread, ids.size());
+    }
+
+    /**
+     * 时钟回拨和毫秒内序列号溢出时借用未来毫秒，ID仍然递增且唯一
+     */
+    @Test
+    public void testBorrowsFutureMillisOnClockDrift() {
+        AtomicLong clock = new AtomicLong(SnowflakeIdGenerator.START_TIMESTAMP + 100000);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, 0, 10, clock::get);
+
+        Set<Long> ids = new HashSet<>();
+        long last = -1;
+        // 同一毫秒内生成超过4096个ID
+        for (int i = 0; i < 10000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > last);
+            assertTrue(ids.add(id));
+            last = id;
+        }
+        assertEquals(clock.get() + 2, generator.getLastTimestamp());
+
+        // 时钟回拨1毫秒
+        clock.addAndGet(-1);
+        long id = generator.nextId();
+        assertTrue(id > last);
+    }
+
+    /**
+     * 借用超过上限时拒绝生成
+     */
+    @Test
+    public void testRejectsWhenBorrowExceedsLimit() {
+        AtomicLong clock = new AtomicLong(SnowflakeIdGenerator.START_TIMESTAMP + 100000);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, 0, 5, clock::get);
+        generator.nextId();
+        clock.addAndGet(-10);
+        assertThrows(IllegalStateException.class, generator::nextId);
+    }
+
+    /**
+     * 新持有者从上一持有者用到的时间戳之后开始，不同工作节点ID互不冲突
+     */
+    @Test
+    public void testWorkerHandoverAndIsolation() {
+        long now = SnowflakeIdGenerator.START_TIMESTAMP + 100000;
+        SnowflakeIdGenerator previous = new SnowflakeIdGenerator(3, 0, 1000, () -> now);
+        for (int i = 0; i < 20000; i++) {
+            previous.nextId();
+        }
+        SnowflakeIdGenerator next = new SnowflakeIdGenerator(3, previous.getLastTimestamp() + 1, 1000, () -> now);
+        SnowflakeIdGenerator other = new SnowflakeIdGenerator(4, 0, 1000, () -> now);
+
+        Set<Long> ids = new HashSet<>();
+        long lastOfPrevious = previous.nextId();
+        for (int i = 0; i < 1000; i++) {
+            long id = next.nextId();
+            assertTrue(id > lastOfPrevious);
+            assertTrue(ids.add(id));
+            assertTrue(ids.add(other.nextId()));
+        }
+    }
+
+    /**
+     * 短码长度由ID位数推导：63位需要11个62进制字符
+     */
+    @Test
+    public void testCodeLengthFitsBitBudget() {
+        assertEquals(11, SnowflakeShortUrlStrategy.CODE_LENGTH);
+        assertTrue(Math.pow(62, SnowflakeShortUrlStrategy.CODE_LENGTH) >= Math.pow(2, SnowflakeIdGenerator.TOTAL_BITS));
+        assertTrue(Math.pow(62, SnowflakeShortUrlStrategy.CODE_LENGTH - 1) < Math.pow(2, SnowflakeIdGenerator.TOTAL_BITS));
+    }
+
+    /**
+     * 竞争基准测试：1到64线程下对比原synchronized实现与CAS实现的吞吐量
+     */
+    @Test
+    @Tag("benchmark")
+    public void benchmarkContention() throws InterruptedException {
+        int idsPerRun = 400000;
+        log.info("====== 雪花ID生成竞争基准测试 ======");
+        for (int threadCount : THREAD_COUNTS) {
+            LegacySynchronizedGenerator legacy = new LegacySynchronizedGenerator();
+            SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, 0, 10000, System::currentTimeMillis);
+
+            double legacyOps = runConcurrently(threadCount, idsPerRun / threadCount, legacy::nextId);
+            double casOps = runConcurrently(threadCount, idsPerRun / threadCount, generator::nextId);
+            log.info("线程数: {}, synchronized: {} ops/s, CAS: {} ops/s, 提升: {}倍",
+                    threadCount, String.format("%.0f", legacyOps), String.format("%.0f", casOps),
+                    String.format("%.2f", casOps / legacyOps));
+        }
+        log.info("===================================");
+    }
+
+    /**
+     * 并发执行并返回吞吐量（次/秒）
+     */
+    private double runConcurrently(int threadCount, int callsPerThread, LongSupplier call) throws InterruptedException {
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            executorService.execute(() -> {
+                try {
+                    start.await();
+                    for (int j = 0; j < callsPerThread; j++) {
+                        call.getAsLong();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        long startTime = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - startTime;
+        executorService.shutdown();
+        return (double) threadCount * callsPerThread * TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+
+    /**
+     * 原SnowflakeShortUrlStrategy中的synchronized实现，作为基准对照
+     */
+    private static class LegacySynchronizedGenerator {
+        private static final long SEQUENCE_BITS = 12L;
+        private static final long MAX_SEQUENCE = ~(-1L << SEQUENCE_BITS);
+        private static final long TIMESTAMP_LEFT_SHIFT = 22L;
+
+        private long lastTimestamp = -1L;
+        private long sequence = 0L;
+
+        synchronized long nextId() {
+            long timestamp = System.currentTimeMillis();
+            if (timestamp < lastTimestamp) {
+                throw new RuntimeException("Clock moved backwards. Refusing to generate id");
+            }
+            if (lastTimestamp == timestamp) {
+                sequence = (sequence + 1) & MAX_SEQUENCE;
+                if (sequence == 0) {
+                    while (timestamp <= lastTimestamp) {
+                        timestamp = System.currentTimeMillis();
+                    }
+                }
+            } else {
+                sequence = 0L;
+            }
+            lastTimestamp = timestamp;
+            return ((timestamp - SnowflakeIdGenerator.START_TIMESTAMP) << TIMESTAMP_LEFT_SHIFT)
+                    | (1L << 17) | (1L << SEQUENCE_BITS) | sequence;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.chy.shorturl.write;
+
+import com.chy.shorturl.cache.ShortUrlRedisCache;
+import com.chy.shorturl.entity.UrlMapping;
+import com.chy.shorturl.mapper.UrlMappingMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 组提交写入器测试
+ *
+ * @author Henry.Yu
+ * @date 2026/10/16
+ */
+@Slf4j
+public class GroupCommitWriterTest {
+
+    /**
+     * 模拟一次事务提交（刷盘）的耗时
+     */
+    private static final long COMMIT_MILLIS = 2;
+
+    /**
+     * 模拟数据库连接池大小
+     */
+    private static final int CONNECTION_POOL_SIZE = 10;
+
+    private static final int[] CLIENT_COUNTS = {100, 200, 500};
+
+    private final Set<String> committed = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 并发写入全部提交，且批量数明显少于请求数
+     */
+    @Test
+    public void testConcurrentWritesAreCommittedInGroups() throws InterruptedException {
+        GroupCommitWriter writer = newWriter(newMapper());
+        int clients = 100;
+        int writesPerClient = 20;
+        runConcurrently(clients, writesPerClient, (code) -> writer.write(newUrlMapping(code)));
+        writer.stop();
+
+        assertEquals(clients * writesPerClient, committed.size());
+        GroupCommitWriter.GroupCommitStats stats = writer.getStats();
+        assertEquals(clients * writesPerClient, stats.getRowCount());
+        assertTrue(stats.getBatchCount() < stats.getRowCount() / 5, "批量数: " + stats.getBatchCount());
+    }
+
+    /**
+     * 批量中个别短码冲突时，只有冲突的请求失败
+     */
+    @Test
+    public void testConflictOnlyFailsConflictingWrite() throws InterruptedException {
+        committed.add("dup");
+        GroupCommitWriter writer = newWriter(newMapper());
+        AtomicInteger failures = new AtomicInteger();
+        runConcurrently(50, 1, code -> {
+            try {
+                writer.write(newUrlMapping(code.endsWith("-0-0") ? "dup" : code));
+            } catch (DuplicateKeyException e) {
+                failures.incrementAndGet();
+            }
+        });
+        writer.stop();
+
+        assertEquals(1, failures.get());
+        assertEquals(50, committed.size());
+        assertThrows(DuplicateKeyException.class, () -> {
+            GroupCommitWriter single = newWriter(newMapper());
+            try {
+                single.write(newUrlMapping("dup"));
+            } finally {
+                single.stop();
+            }
+        });
+    }
+
+    /**
+     * 写入器停止后新请求立即被拒绝，停止时仍在队列中的请求以异常结束而不是一直阻塞
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testStopFailsQueuedAndRejectsNewWrites() throws InterruptedException {
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        UrlMappingMapper mapper = mock(UrlMappingMapper.class);
+        when(mapper.insertBatch(anyList())).thenAnswer(inv -> {
+            flushing.countDown();
+            release.await();
+            return inv.getArgument(0, List.class).size();
+        });
+        GroupCommitWriter writer = newWriter(mapper);
+
+        // 第一个请求占住写入线程，第二个请求留在队列中
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        executorService.submit(() -> writer.write(newUrlMapping("inflight")));
+        assertTrue(flushing.await(1, TimeUnit.SECONDS));
+        Future<?> queued = executorService.submit(() -> writer.write(newUrlMapping("queued")));
+        while (writer.getStats().getQueueSize() == 0) {
+            Thread.sleep(1);
+        }
+
+        writer.stop();
+        ExecutionException e = assertThrows(ExecutionException.class, () -> queued.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertThrows(IllegalStateException.class, () -> writer.write(newUrlMapping("late")));
+        release.countDown();
+        executorService.shutdown();
+    }
+
+    /**
+     * 批次迟迟未提交时调用方在超时后返回
+     */
+    @Test
+    public void testWriteTimesOut() {
+        CountDownLatch release = new CountDownLatch(1);
+        UrlMappingMapper mapper = mock(UrlMappingMapper.class);
+        when(mapper.insertBatch(anyList())).thenAnswer(inv -> {
+            release.await();
+            return 1;
+        });
+        GroupCommitWriter writer = new GroupCommitWriter(mapper, new SlowCommitTransactionManager(),
+                mock(ShortUrlRedisCache.class), Runnable::run, true, 2000, 200, 100);
+        writer.start();
+        try {
+            assertThrows(IllegalStateException.class, () -> writer.write(newUrlMapping("slow")));
+        } finally {
+            release.countDown();
+            writer.stop();
+        }
+    }
+
+    /**
+     * 基准测试：100到500个并发客户端下对比逐条事务提交与组提交的TPS
+     */
+    @Test
+    @Tag("benchmark")
+    public void benchmarkGroupCommit() throws InterruptedException {
+        log.info("====== 组提交基准测试（单次提交耗时{}ms, 连接池{}） ======", COMMIT_MILLIS, CONNECTION_POOL_SIZE);
+        for (int clients : CLIENT_COUNTS) {
+            int writesPerClient = Math.max(1, 5000 / clients);
+            UrlMappingMapper mapper = newMapper();
+
+            TransactionTemplate transactionTemplate = new TransactionTemplate(new SlowCommitTransactionManager());
+            double singleTps = runConcurrently(clients, writesPerClient, code -> transactionTemplate.executeWithoutResult(
+                    status -> mapper.insertBatch(Collections.singletonList(newUrlMapping(code)))));
+
+            GroupCommitWriter writer = newWriter(mapper);
+            double groupTps = runConcurrently(clients, writesPerClient, code -> writer.write(newUrlMapping("g" + code)));
+            writer.stop();
+
+            log.info("并发客户端: {}, 逐条提交: {} TPS, 组提交: {} TPS, 平均批量: {}, 提升: {}倍",
+                    clients, String.format("%.0f", singleTps), String.format("%.0f", groupTps),
+                    String.format("%.1f", writer.getStats().getAverageBatchSize()),
+                    String.format("%.2f", groupTps / singleTps));
+        }
+        log.info("===================================");
+    }
+
+    private GroupCommitWriter newWriter(UrlMappingMapper mapper) {
+        GroupCommitWriter writer = new GroupCommitWriter(mapper, new SlowCommitTransactionManager(),
+                mock(ShortUrlRedisCache.class), Runnable::run, true, 2000, 200, 5000);
+        writer.start();
+        return writer;
+    }
+
+    /**
+     * 模拟Mapper：短码已存在时整批失败，与唯一索引行为一致
+     */
+    @SuppressWarnings("unchecked")
+    private UrlMappingMapper newMapper() {
+        UrlMappingMapper mapper = mock(UrlMappingMapper.class);
+        when(mapper.insertBatch(anyList())).thenAnswer(inv -> {
+            List<UrlMapping> rows = inv.getArgument(0, List.class);
+            for (UrlMapping row : rows) {
+                if (committed.contains(row.getShortCode())) {
+                    throw new DuplicateKeyException("Duplicate entry '" + row.getShortCode() + "'");
+                }
+            }
+            rows.forEach(row -> committed.add(row.getShortCode()));
+            return rows.size();
+        });
+        return mapper;
+    }
+
+    private UrlMapping newUrlMapping(String shortCode) {
+        LocalDateTime now = LocalDateTime.now();
+        return new UrlMapping()
+                .setOriginalUrl("https://www.example.com/" + shortCode)
+                .setShortCode(shortCode)
+                .setAccessCount(0L)
+                .setCreateTime(now)
+                .setUpdateTime(now)
+                .setIsDeleted(0);
+    }
+
+    /**
+     * 并发执行并返回吞吐量（次/秒），每次调用传入唯一的短码
+     */
+    private double runConcurrently(int threadCount, int callsPerThread, Consumer<String> call) throws InterruptedException {
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threadCount);
+        String prefix = "c" + System.nanoTime() + "-";
+        for (int i = 0; i < threadCount; i++) {
+            final int threadIndex = i;
+            executorService.execute(() -> {
+                try {
+                    start.await();
+                    for (int j = 0; j < callsPerThread; j++) {
+                        call.accept(prefix + threadIndex + "-" + j);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        long startTime = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - startTime;
+        executorService.shutdown();
+        return (double) threadCount * callsPerThread * TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+
+    /**
+     * 模拟事务管理器：事务占用一个连接，提交时耗时COMMIT_MILLIS
+     */
+    private static class SlowCommitTransactionManager implements PlatformTransactionManager {
+        private static final Semaphore CONNECTIONS = new Semaphore(CONNECTION_POOL_SIZE);
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            CONNECTIONS.acquireUninterruptibly();
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            try {
+                Thread.sleep(COMMIT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                CONNECTIONS.release();
+            }
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            CONNECTIONS.release();
+        }
+    }
+}